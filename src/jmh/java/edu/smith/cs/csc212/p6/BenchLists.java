@@ -0,0 +1,101 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Random;
+
+/**
+ * Builds the lists the benchmarks compare. Each implementation is named by a
+ * short string so it can be used as a JMH {@code @Param}; chunky lists carry
+ * their chunk size after a slash, e.g. {@code "ChunkyLinkedList/128"}, and so
+ * can the leaf size of a {@code "TreapList/64"}.
+ */
+final class BenchLists {
+	private BenchLists() {
+		// static helpers only.
+	}
+
+	/**
+	 * Every list we know how to benchmark, in the order we usually report them.
+	 */
+	static final String[] ALL = { "FixedSizeList", "GrowableList", "SinglyLinkedList", "DoublyLinkedList",
+			"ChunkyLinkedList/16", "ChunkyLinkedList/128", "ChunkyLinkedList/1024" };
+
+	/**
+	 * Make an empty list.
+	 * 
+	 * @param impl     - the name of the implementation (see {@link #ALL}).
+	 * @param capacity - how many items a {@link FixedSizeList} needs room for.
+	 * @return a new, empty list.
+	 */
+	static P6List<Integer> create(String impl, int capacity) {
+		String name = impl;
+		int chunkSize = 0;
+		int slash = impl.indexOf('/');
+		if (slash >= 0) {
+			name = impl.substring(0, slash);
+			chunkSize = Integer.parseInt(impl.substring(slash + 1));
+		}
+		switch (name) {
+		case "FixedSizeList":
+			return new FixedSizeList<>(capacity);
+		case "GrowableList":
+			return new GrowableList<>();
+		case "GapBufferList":
+			return new GapBufferList<>();
+		case "SinglyLinkedList":
+			return new SinglyLinkedList<>();
+		case "DoublyLinkedList":
+			return new DoublyLinkedList<>();
+		case "CompactDoublyLinkedList":
+			return new CompactDoublyLinkedList<>();
+		case "ChunkyLinkedList":
+			return new ChunkyLinkedList<>(chunkSize);
+		case "AdaptiveList":
+			return new AdaptiveList<>();
+		case "TreapList":
+			return chunkSize > 0 ? new TreapList<>(chunkSize) : new TreapList<>();
+		case "ConcurrentChunkyLinkedList":
+			return new ConcurrentChunkyLinkedList<>(chunkSize);
+		default:
+			throw new IllegalArgumentException("Unknown list implementation: " + impl);
+		}
+	}
+
+	/**
+	 * Make a list holding 0..size-1 in order. We fill from whichever end is cheap
+	 * for the implementation so that setup does not dominate a 10M trial.
+	 * 
+	 * @param impl  - the name of the implementation (see {@link #ALL}).
+	 * @param size  - how many items to put in it.
+	 * @param slack - extra room a {@link FixedSizeList} needs for the benchmark.
+	 * @return a list of the requested size.
+	 */
+	static P6List<Integer> filled(String impl, int size, int slack) {
+		P6List<Integer> list = create(impl, size + slack);
+		if (list instanceof FixedSizeList || list instanceof GrowableList) {
+			for (int i = 0; i < size; i++) {
+				list.addBack(i);
+			}
+		} else {
+			for (int i = size - 1; i >= 0; i--) {
+				list.addFront(i);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Pre-compute random indexes so the benchmark loop does not measure Random.
+	 * 
+	 * @param count - how many indexes (a power of two, so callers can mask).
+	 * @param bound - every index is in [0, bound).
+	 * @return the array of indexes.
+	 */
+	static int[] randomIndexes(int count, int bound) {
+		Random rand = new Random(0xCAFE);
+		int[] out = new int[count];
+		for (int i = 0; i < count; i++) {
+			out[i] = rand.nextInt(bound);
+		}
+		return out;
+	}
+}
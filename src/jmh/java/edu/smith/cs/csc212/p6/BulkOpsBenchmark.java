@@ -0,0 +1,70 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserts a batch into the middle of a list and then removes it again, once
+ * with the bulk methods and once an item at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkOpsBenchmark {
+	@Param({ "FixedSizeList", "GrowableList", "DoublyLinkedList", "ChunkyLinkedList/128" })
+	public String impl;
+
+	@Param({ "100000" })
+	public int size;
+
+	@Param({ "100", "10000" })
+	public int batch;
+
+	private P6List<Integer> list;
+	private List<Integer> items;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, batch);
+		items = new ArrayList<>();
+		for (int i = 0; i < batch; i++) {
+			items.add(-i);
+		}
+	}
+
+	@Benchmark
+	public int bulk() {
+		int middle = size / 2;
+		list.addAllAt(middle, items);
+		list.removeRange(middle, middle + batch);
+		return list.size();
+	}
+
+	@Benchmark
+	public int oneAtATime() {
+		int middle = size / 2;
+		for (int i = 0; i < batch; i++) {
+			list.addIndex(items.get(i), middle + i);
+		}
+		for (int i = 0; i < batch; i++) {
+			list.removeIndex(middle);
+		}
+		return list.size();
+	}
+}
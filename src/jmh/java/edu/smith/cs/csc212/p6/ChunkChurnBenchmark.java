@@ -0,0 +1,78 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Random inserts and removes all over a {@link ChunkyLinkedList} that stays
+ * at about {@code size} items. After each iteration the {@code items} and
+ * {@code slots} counters record how full the chunks are, so
+ * {@code items / slots} is the steady-state fill ratio under churn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkChurnBenchmark {
+	@Param({ "16", "128", "1024" })
+	public int chunkSize;
+
+	@Param({ "100000", "1000000" })
+	public int size;
+
+	private ChunkyLinkedList<Integer> list;
+	private int[] indexes;
+	private int next;
+
+	/**
+	 * Item and slot counts, summed over every measured iteration.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Fill {
+		public long items;
+		public long slots;
+	}
+
+	@Setup
+	public void setup() {
+		list = new ChunkyLinkedList<>(chunkSize);
+		for (int i = 0; i < size; i++) {
+			list.addBack(i);
+		}
+		indexes = BenchLists.randomIndexes(4096, size);
+	}
+
+	@TearDown(Level.Iteration)
+	public void recordFill(Fill fill) {
+		fill.items += list.size();
+		fill.slots += (long) list.chunkCount() * chunkSize;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(4)
+	public Integer churn() {
+		// two inserts then two removes, at unrelated random places.
+		list.addIndex(next, indexes[(next++) & 4095]);
+		list.addIndex(next, indexes[(next++) & 4095]);
+		list.removeIndex(indexes[(next++) & 4095]);
+		return list.removeIndex(indexes[(next++) & 4095]);
+	}
+}
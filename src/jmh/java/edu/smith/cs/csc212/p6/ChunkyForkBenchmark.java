@@ -0,0 +1,91 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What {@link ChunkyLinkedList#snapshot()} costs, against copying every item
+ * into a new list, and what it costs the writer afterwards: the same writes
+ * with and without a snapshot taken just before them. The difference is the
+ * chunks that get copied; with {@code -prof gc}, gc.alloc.rate.norm shows it
+ * in bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkyForkBenchmark {
+	@Param({ "64", "1024" })
+	public int chunkSize;
+
+	@Param({ "1000000" })
+	public int size;
+
+	/**
+	 * How many random setIndex calls follow the snapshot.
+	 */
+	@Param({ "100" })
+	public int writes;
+
+	private ChunkyLinkedList<Integer> list;
+	private int[] indices;
+
+	@Setup
+	public void setup() {
+		list = new ChunkyLinkedList<Integer>(chunkSize);
+		for (int i = 0; i < size; i++) {
+			list.addBack(i);
+		}
+		Random rand = new Random(0xF0CC);
+		indices = new int[writes];
+		for (int i = 0; i < writes; i++) {
+			indices[i] = rand.nextInt(size);
+		}
+	}
+
+	@Benchmark
+	public ChunkyLinkedList<Integer> snapshot() {
+		return list.snapshot();
+	}
+
+	@Benchmark
+	public ChunkyLinkedList<Integer> copyAll() {
+		ChunkyLinkedList<Integer> copy = new ChunkyLinkedList<Integer>(chunkSize);
+		copy.addAllAt(0, list);
+		return copy;
+	}
+
+	@Benchmark
+	public ChunkyLinkedList<Integer> writesAfterSnapshot() {
+		ChunkyLinkedList<Integer> copy = list.snapshot();
+		write();
+		return copy;
+	}
+
+	@Benchmark
+	public ChunkyLinkedList<Integer> writesAlone() {
+		write();
+		return list;
+	}
+
+	private void write() {
+		Integer item = -1;
+		for (int index : indices) {
+			list.setIndex(item, index);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replays an editing trace: jump to a random place, type a few items there
+ * with addIndex, then take them back out with removeIndex, like backspace. The
+ * list ends each replay as it started. {@link GapBufferList} only pays for the
+ * jumps; the other lists pay for every edit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClusteredEditBenchmark {
+	@Param({ "GrowableList", "DoublyLinkedList", "GapBufferList" })
+	public String impl;
+
+	@Param({ "100000" })
+	public int size;
+
+	/**
+	 * How many places the trace jumps to.
+	 */
+	@Param({ "200" })
+	public int jumps;
+
+	private P6List<Integer> list;
+	/**
+	 * The trace: an index i >= 0 is addIndex at i, ~i is removeIndex at i.
+	 */
+	private int[] trace;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		Random rand = new Random(0xCAFE);
+		IntGrowableList ops = new IntGrowableList();
+		for (int j = 0; j < jumps; j++) {
+			int at = rand.nextInt(size + 1);
+			int typed = 1 + rand.nextInt(16);
+			for (int i = 0; i < typed; i++) {
+				ops.addBackInt(at + i);
+			}
+			for (int i = typed - 1; i >= 0; i--) {
+				ops.addBackInt(~(at + i));
+			}
+		}
+		trace = new int[ops.size()];
+		for (int i = 0; i < trace.length; i++) {
+			trace[i] = ops.getInt(i);
+		}
+	}
+
+	@Benchmark
+	public int replay() {
+		int sum = 0;
+		Integer item = 7;
+		for (int op : trace) {
+			if (op >= 0) {
+				list.addIndex(item, op);
+			} else {
+				sum += list.removeIndex(~op);
+			}
+		}
+		return sum;
+	}
+}
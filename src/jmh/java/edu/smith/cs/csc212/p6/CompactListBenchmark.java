@@ -0,0 +1,84 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link CompactDoublyLinkedList} with {@link DoublyLinkedList}: a full
+ * walk over a list that was built by inserting at random places (so the nodes
+ * and slots are out of order), and building a list with addBack. Run it with
+ * {@code -prof gc}; gc.alloc.rate.norm of build is the bytes each list
+ * allocates for {@code size} items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactListBenchmark {
+	/**
+	 * "Compacted" is a CompactDoublyLinkedList that had compact() called after
+	 * it was built, so the walk reads its slots in order.
+	 */
+	@Param({ "DoublyLinkedList", "CompactDoublyLinkedList", "Compacted" })
+	public String impl;
+
+	@Param({ "100000" })
+	public int size;
+
+	private P6List<Integer> shuffled;
+
+	@Setup
+	public void setup() {
+		shuffled = BenchLists.create(listName(), size);
+		int[] indexes = BenchLists.randomIndexes(Integer.highestOneBit(size) * 2, Integer.MAX_VALUE);
+		// insert a little way in from a random end, so the walk to the spot stays
+		// short but neighbors in the list were allocated far apart
+		for (int i = 0; i < size; i++) {
+			int near = Math.min(indexes[i] % 64, shuffled.size());
+			int index = (indexes[i] & 64) == 0 ? near : shuffled.size() - near;
+			shuffled.addIndex(i, index);
+		}
+		if (impl.equals("Compacted")) {
+			((CompactDoublyLinkedList<Integer>) shuffled).compact();
+		}
+	}
+
+	@Benchmark
+	public long walk() {
+		long sum = 0;
+		for (int x : shuffled) {
+			sum += x;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int build() {
+		// start the compact list at full size, so the arrays it copies while
+		// growing do not count towards its memory
+		P6List<Integer> list = impl.equals("DoublyLinkedList") ? new DoublyLinkedList<>()
+				: new CompactDoublyLinkedList<>(size);
+		Integer item = 12345;
+		for (int i = 0; i < size; i++) {
+			list.addBack(item);
+		}
+		return list.size();
+	}
+
+	private String listName() {
+		return impl.equals("Compacted") ? "CompactDoublyLinkedList" : impl;
+	}
+}
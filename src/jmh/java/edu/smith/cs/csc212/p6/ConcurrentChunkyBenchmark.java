@@ -0,0 +1,83 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * Every thread shares one list and does a mix of getIndex, addBack and
+ * removeFront on it. {@code ChunkyLinkedList} is wrapped in one big lock to
+ * compare against {@link ConcurrentChunkyLinkedList}; run it with {@code -t 1},
+ * {@code -t 2}, ... {@code -t max} to see how each one scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentChunkyBenchmark {
+	@Param({ "ChunkyLinkedList/128", "ConcurrentChunkyLinkedList/128" })
+	public String impl;
+
+	@Param({ "100000" })
+	public int size;
+
+	/**
+	 * Out of every 100 operations, how many are getIndex; the rest are split
+	 * evenly between addBack and removeFront so the size stays put.
+	 */
+	@Param({ "50", "90" })
+	public int readPercent;
+
+	private P6List<Integer> list;
+	private boolean locked;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 0);
+		locked = !(list instanceof ConcurrentChunkyLinkedList);
+	}
+
+	@Benchmark
+	public Integer mixed() {
+		if (locked) {
+			synchronized (list) {
+				return step();
+			}
+		}
+		return step();
+	}
+
+	private Integer step() {
+		ThreadLocalRandom rand = ThreadLocalRandom.current();
+		int choice = rand.nextInt(100);
+		try {
+			if (choice < readPercent) {
+				return list.getIndex(rand.nextInt(size / 2));
+			} else if ((choice & 1) == 0) {
+				list.addBack(choice);
+				return choice;
+			} else {
+				return list.removeFront();
+			}
+		} catch (EmptyListError | BadIndexError raced) {
+			// another thread emptied the list out from under this one.
+			return null;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One editing pass over a list: put a new item in front of every tenth item,
+ * then a second pass takes them all out again. Done once with a cursor and once
+ * with addIndex/removeIndex.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CursorEditBenchmark {
+	@Param({ "SinglyLinkedList", "DoublyLinkedList", "ChunkyLinkedList/128" })
+	public String impl;
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	private P6List<Integer> list;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, size / 10 + 1);
+	}
+
+	@Benchmark
+	public int cursor() {
+		P6Cursor<Integer> cursor = cursorOf(list);
+		while (cursor.hasNext()) {
+			int x = cursor.next();
+			if (x % 10 == 0) {
+				cursor.insertBefore(-1);
+			}
+		}
+		cursor = cursorOf(list);
+		while (cursor.hasNext()) {
+			if (cursor.next() < 0) {
+				cursor.remove();
+			}
+		}
+		return list.size();
+	}
+
+	@Benchmark
+	public int byIndex() {
+		for (int i = 0; i < list.size(); i++) {
+			if (list.getIndex(i) % 10 == 0) {
+				list.addIndex(-1, ++i);
+			}
+		}
+		for (int i = 0; i < list.size(); i++) {
+			if (list.getIndex(i) < 0) {
+				list.removeIndex(i--);
+			}
+		}
+		return list.size();
+	}
+
+	private static P6Cursor<Integer> cursorOf(P6List<Integer> list) {
+		if (list instanceof SinglyLinkedList) {
+			return ((SinglyLinkedList<Integer>) list).cursor();
+		} else if (list instanceof DoublyLinkedList) {
+			return ((DoublyLinkedList<Integer>) list).cursor();
+		}
+		return ((ChunkyLinkedList<Integer>) list).cursor();
+	}
+}
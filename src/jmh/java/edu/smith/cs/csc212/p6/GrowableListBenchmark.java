@@ -0,0 +1,74 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds a {@link GrowableList} of {@code size} items with addBack, once per
+ * growth factor. Time is reported per list, so divide by {@code size} for the
+ * amortized cost of one addBack; a flat ns/item across sizes is the O(1) we
+ * want. The {@code unusedSlots}/{@code usedSlots} counters give the memory
+ * overhead the growth factor leaves behind.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GrowableListBenchmark {
+	@Param({ "1.25", "1.5", "2.0", "3.0" })
+	public double growthFactor;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	/**
+	 * Slot counts summed over every list built; their ratio is the overhead.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Slots {
+		public long usedSlots;
+		public long unusedSlots;
+
+		void record(GrowableList<?> list) {
+			usedSlots += list.size();
+			unusedSlots += list.capacity() - list.size();
+		}
+	}
+
+	@Benchmark
+	public GrowableList<Integer> addBack(Slots slots) {
+		GrowableList<Integer> list = new GrowableList<>(GrowableList.START_SIZE, growthFactor);
+		Integer item = 17;
+		for (int i = 0; i < size; i++) {
+			list.addBack(item);
+		}
+		slots.record(list);
+		return list;
+	}
+
+	@Benchmark
+	public GrowableList<Integer> addBackPresized(Slots slots) {
+		GrowableList<Integer> list = new GrowableList<>(GrowableList.START_SIZE, growthFactor);
+		list.ensureCapacity(size);
+		Integer item = 17;
+		for (int i = 0; i < size; i++) {
+			list.addBack(item);
+		}
+		slots.record(list);
+		return list;
+	}
+}
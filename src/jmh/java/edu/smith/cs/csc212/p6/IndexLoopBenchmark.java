@@ -0,0 +1,70 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The loop {@code for (i = 0; i < list.size(); i++) list.getIndex(i)}, and one
+ * that wanders a step or two either way between calls. The linked lists walk
+ * on from their last lookup, so both should cost about what walking the list
+ * once does, where they used to walk in from an end for every index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexLoopBenchmark {
+	@Param({ "GrowableList", "SinglyLinkedList", "DoublyLinkedList" })
+	public String impl;
+
+	@Param({ "10000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private int[] wander;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		Random rand = new Random(0x100F);
+		wander = new int[2 * size];
+		int at = 0;
+		for (int i = 0; i < wander.length; i++) {
+			// drifts forward on average, like a loop that sometimes looks back
+			at = Math.max(0, Math.min(size - 1, at + rand.nextInt(4) - 1));
+			wander[i] = at;
+		}
+	}
+
+	@Benchmark
+	public int inOrder() {
+		int sum = 0;
+		for (int i = 0; i < list.size(); i++) {
+			sum += list.getIndex(i);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int nearlyInOrder() {
+		int sum = 0;
+		for (int index : wander) {
+			sum += list.getIndex(index);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,61 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What {@link InstrumentedList} costs: the same calls on a bare list
+ * ({@code wrapped=false}) and on a wrapped one. Run it again with
+ * {@code -jvmArgsAppend -Dp6.instrument=true} to see what the
+ * {@link ListProbe} counters add; without it the bare list should not change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentedListBenchmark {
+	@Param({ "GrowableList", "DoublyLinkedList" })
+	public String impl;
+
+	@Param({ "false", "true" })
+	public boolean wrapped;
+
+	@Param({ "1000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private Integer item;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		if (wrapped) {
+			list = new InstrumentedList<>(list);
+		}
+		item = 12345;
+	}
+
+	@Benchmark
+	public Integer queue() {
+		list.addBack(item);
+		return list.removeFront();
+	}
+
+	@Benchmark
+	public Integer getMiddle() {
+		return list.getIndex(size / 2);
+	}
+}
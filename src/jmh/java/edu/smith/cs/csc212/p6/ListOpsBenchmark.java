@@ -0,0 +1,107 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One benchmark per {@link P6List} method. Adds are paired with the matching
+ * remove so the list stays at {@code size} for the whole trial; the pair is
+ * what gets timed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListOpsBenchmark {
+	@Param({ "FixedSizeList", "GrowableList", "SinglyLinkedList", "DoublyLinkedList", "ChunkyLinkedList/16",
+			"ChunkyLinkedList/128", "ChunkyLinkedList/1024" })
+	public String impl;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private int[] indexes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		indexes = BenchLists.randomIndexes(4096, size);
+	}
+
+	private int nextIndex() {
+		return indexes[(next++) & 4095];
+	}
+
+	@Benchmark
+	public Integer addFrontRemoveFront() {
+		list.addFront(-1);
+		return list.removeFront();
+	}
+
+	@Benchmark
+	public Integer addBackRemoveBack() {
+		list.addBack(-1);
+		return list.removeBack();
+	}
+
+	@Benchmark
+	public Integer addIndexRemoveIndex() {
+		int index = nextIndex();
+		list.addIndex(-1, index);
+		return list.removeIndex(index);
+	}
+
+	@Benchmark
+	public Integer removeFrontAddFront() {
+		Integer x = list.removeFront();
+		list.addFront(x);
+		return x;
+	}
+
+	@Benchmark
+	public Integer removeBackAddBack() {
+		Integer x = list.removeBack();
+		list.addBack(x);
+		return x;
+	}
+
+	@Benchmark
+	public Integer getFront() {
+		return list.getFront();
+	}
+
+	@Benchmark
+	public Integer getBack() {
+		return list.getBack();
+	}
+
+	@Benchmark
+	public Integer getIndex() {
+		return list.getIndex(nextIndex());
+	}
+
+	@Benchmark
+	public int size() {
+		return list.size();
+	}
+
+	@Benchmark
+	public boolean isEmpty() {
+		return list.isEmpty();
+	}
+}
@@ -0,0 +1,72 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long it takes to have a big list ready to read at start-up: opening a
+ * {@link MappedChunkyLinkedList} that is already in a file, against building a
+ * {@link ChunkyLinkedList} with addBack. Each then reads one item from the
+ * middle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedListBenchmark {
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "4096" })
+	public int chunkSize;
+
+	private Path file;
+
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("p6-mapped", ".list");
+		try (MappedChunkyLinkedList<Long> list = MappedChunkyLinkedList.open(file, chunkSize, RecordCodec.LONGS)) {
+			for (long i = 0; i < size; i++) {
+				list.addBack(i);
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long reopen() throws IOException {
+		try (MappedChunkyLinkedList<Long> list = MappedChunkyLinkedList.open(file, chunkSize, RecordCodec.LONGS)) {
+			return list.getIndex(size / 2);
+		}
+	}
+
+	@Benchmark
+	public long rebuild() {
+		ChunkyLinkedList<Long> list = new ChunkyLinkedList<>(chunkSize, RecordCodec.LONGS);
+		for (long i = 0; i < size; i++) {
+			list.addBack(i);
+		}
+		return list.getIndex(size / 2);
+	}
+}
@@ -0,0 +1,75 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Queue churn on the linked lists with node recycling off ({@code pool=0}) and
+ * on. Run it with {@code -prof gc}: gc.alloc.rate.norm is the bytes allocated
+ * per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodePoolBenchmark {
+	@Param({ "SinglyLinkedList", "DoublyLinkedList" })
+	public String impl;
+
+	/**
+	 * How many spare nodes each list may keep.
+	 */
+	@Param({ "0", "64" })
+	public int pool;
+
+	@Param({ "1000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private Integer item;
+
+	@Setup
+	public void setup() {
+		if (impl.equals("SinglyLinkedList")) {
+			list = new SinglyLinkedList<>(pool);
+		} else {
+			list = new DoublyLinkedList<>(pool);
+		}
+		for (int i = 0; i < size; i++) {
+			list.addBack(i);
+		}
+		// a boxed value from outside the cache, so only the nodes are allocated
+		item = 12345;
+	}
+
+	@Benchmark
+	public Integer queue() {
+		list.addBack(item);
+		return list.removeFront();
+	}
+
+	@Benchmark
+	public Integer burst() {
+		// take out a batch and put it back, like a consumer falling behind
+		for (int i = 0; i < 32; i++) {
+			list.removeFront();
+		}
+		for (int i = 0; i < 32; i++) {
+			list.addBack(item);
+		}
+		return list.getFront();
+	}
+}
@@ -0,0 +1,60 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A {@link ChunkyLinkedList} of longs with its chunks on or off the heap.
+ * {@code fullGc} times a full collection while the list is alive: on the heap
+ * it grows with the list, off the heap it should not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-XX:MaxDirectMemorySize=4g" })
+@State(Scope.Benchmark)
+public class OffHeapBenchmark {
+	@Param({ "heap", "offheap" })
+	public String storage;
+
+	@Param({ "1000000", "10000000" })
+	public int size;
+
+	@Param({ "4096" })
+	public int chunkSize;
+
+	private ChunkyLinkedList<Long> list;
+
+	@Setup
+	public void setup() {
+		list = storage.equals("offheap") ? new ChunkyLinkedList<>(chunkSize, RecordCodec.LONGS)
+				: new ChunkyLinkedList<>(chunkSize);
+		for (long i = 0; i < size; i++) {
+			list.addBack(i);
+		}
+	}
+
+	@Benchmark
+	public int fullGc() {
+		System.gc();
+		return list.size();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Long getIndex() {
+		return list.getIndex(size / 2);
+	}
+}
@@ -0,0 +1,66 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sums a whole list with a stream: sequentially, and in parallel on a
+ * fork-join pool of {@code parallelism} workers, to see how well each
+ * spliterator splits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelScanBenchmark {
+	@Param({ "GrowableList", "SinglyLinkedList", "DoublyLinkedList", "ChunkyLinkedList/128",
+			"ChunkyLinkedList/1024" })
+	public String impl;
+
+	@Param({ "1000000" })
+	public int size;
+
+	@Param({ "1", "2", "4", "8" })
+	public int parallelism;
+
+	private P6List<Integer> list;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 0);
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public long sequentialSum() {
+		return list.stream().mapToLong(Integer::longValue).sum();
+	}
+
+	@Benchmark
+	public long parallelSum() throws InterruptedException, ExecutionException {
+		// a parallel stream runs in the pool of the thread that starts it.
+		return pool.submit(() -> list.parallelStream().mapToLong(Integer::longValue).sum()).get();
+	}
+}
@@ -0,0 +1,82 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What a reader's stable view costs. A writer changes one item and then hands
+ * out a snapshot: a {@link GrowableList} has to be copied whole for that, a
+ * {@link PersistentVector} just keeps the old version, since withIndex only
+ * copies the path down to the changed leaf. Also compares building with
+ * withBack one version at a time against building with a Builder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistentVectorBenchmark {
+	@Param({ "100000" })
+	public int size;
+
+	private GrowableList<Integer> growable;
+	private PersistentVector<Integer> vector;
+	private Random rand;
+
+	@Setup
+	public void setup() {
+		growable = new GrowableList<Integer>();
+		for (int i = 0; i < size; i++) {
+			growable.addBack(i);
+		}
+		vector = PersistentVector.copyOf(growable);
+		rand = new Random(23);
+	}
+
+	@Benchmark
+	public P6List<Integer> editThenCopyGrowable() {
+		growable.setIndex(-1, rand.nextInt(size));
+		GrowableList<Integer> copy = new GrowableList<Integer>(size);
+		copy.addAllAt(0, growable);
+		return copy;
+	}
+
+	@Benchmark
+	public P6List<Integer> editPersistent() {
+		vector = vector.withIndex(rand.nextInt(size), -1);
+		return vector;
+	}
+
+	@Benchmark
+	public PersistentVector<Integer> buildWithBack() {
+		PersistentVector<Integer> data = PersistentVector.empty();
+		Integer item = 7;
+		for (int i = 0; i < size; i++) {
+			data = data.withBack(item);
+		}
+		return data;
+	}
+
+	@Benchmark
+	public PersistentVector<Integer> buildWithBuilder() {
+		PersistentVector.Builder<Integer> builder = PersistentVector.<Integer>empty().toBuilder();
+		Integer item = 7;
+		for (int i = 0; i < size; i++) {
+			builder.addBack(item);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,69 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A workload that keeps changing its mind: a queue phase, a phase of random
+ * reads by index, then a phase of edits in the middle, over and over. Each
+ * fixed list is good at one phase and slow at another; an
+ * {@link AdaptiveList} should follow the phases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhaseShiftBenchmark {
+	@Param({ "GrowableList", "DoublyLinkedList", "ChunkyLinkedList/128", "AdaptiveList" })
+	public String impl;
+
+	@Param({ "10000" })
+	public int size;
+
+	/**
+	 * How many calls each phase makes.
+	 */
+	@Param({ "50000" })
+	public int phase;
+
+	private P6List<Integer> list;
+	private int[] indexes;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		indexes = BenchLists.randomIndexes(phase, size);
+	}
+
+	@Benchmark
+	public long phases() {
+		long sum = 0;
+		// a queue: take from the front, put it back at the end
+		for (int i = 0; i < phase; i++) {
+			list.addBack(list.removeFront());
+		}
+		// random reads
+		for (int i = 0; i < phase; i++) {
+			sum += list.getIndex(indexes[i]);
+		}
+		// edits in the middle, which leave the list the same size
+		for (int i = 0; i < phase; i += 2) {
+			int index = indexes[i];
+			list.addIndex(list.removeIndex(index), indexes[i + 1]);
+		}
+		return sum;
+	}
+}
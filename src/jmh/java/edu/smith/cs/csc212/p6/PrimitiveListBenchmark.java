@@ -0,0 +1,172 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Primitive lists against the boxed lists they specialize. Scores are per
+ * element. Run with {@code -prof gc}: {@code gc.alloc.rate.norm} of the build
+ * benchmarks is the heap bytes allocated per element (boxes, nodes and array
+ * growth included).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveListBenchmark {
+	/**
+	 * How many elements every list holds.
+	 */
+	static final int SIZE = 1_000_000;
+	static final int CHUNK_SIZE = 256;
+
+	@Param({ "boxed", "primitive" })
+	public String kind;
+
+	private boolean primitive;
+	private IntGrowableList ints;
+	private GrowableList<Integer> boxedInts;
+	private LongChunkyList longs;
+	private ChunkyLinkedList<Long> boxedLongs;
+	private DoubleFixedSizeList doubles;
+	private FixedSizeList<Double> boxedDoubles;
+
+	@Setup
+	public void setup() {
+		primitive = kind.equals("primitive");
+		ints = buildInts();
+		boxedInts = buildBoxedInts();
+		longs = buildLongs();
+		boxedLongs = buildBoxedLongs();
+		doubles = buildDoubles();
+		boxedDoubles = buildBoxedDoubles();
+	}
+
+	private IntGrowableList buildInts() {
+		IntGrowableList list = new IntGrowableList();
+		for (int i = 0; i < SIZE; i++) {
+			list.addBackInt(i);
+		}
+		return list;
+	}
+
+	private GrowableList<Integer> buildBoxedInts() {
+		GrowableList<Integer> list = new GrowableList<>();
+		for (int i = 0; i < SIZE; i++) {
+			list.addBack(i);
+		}
+		return list;
+	}
+
+	private LongChunkyList buildLongs() {
+		LongChunkyList list = new LongChunkyList(CHUNK_SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			list.addBackLong(i);
+		}
+		return list;
+	}
+
+	private ChunkyLinkedList<Long> buildBoxedLongs() {
+		ChunkyLinkedList<Long> list = new ChunkyLinkedList<>(CHUNK_SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			list.addBack((long) i);
+		}
+		return list;
+	}
+
+	private DoubleFixedSizeList buildDoubles() {
+		DoubleFixedSizeList list = new DoubleFixedSizeList(SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			list.addBackDouble(i);
+		}
+		return list;
+	}
+
+	private FixedSizeList<Double> buildBoxedDoubles() {
+		FixedSizeList<Double> list = new FixedSizeList<>(SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			list.addBack((double) i);
+		}
+		return list;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public Object buildInt() {
+		return primitive ? buildInts() : buildBoxedInts();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public Object buildLong() {
+		return primitive ? buildLongs() : buildBoxedLongs();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public Object buildDouble() {
+		return primitive ? buildDoubles() : buildBoxedDoubles();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public long scanInt() {
+		long sum = 0;
+		if (primitive) {
+			for (int i = 0; i < SIZE; i++) {
+				sum += ints.getInt(i);
+			}
+		} else {
+			for (int i = 0; i < SIZE; i++) {
+				sum += boxedInts.getIndex(i);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public long scanLong() {
+		long sum = 0;
+		if (primitive) {
+			for (int i = 0; i < SIZE; i++) {
+				sum += longs.getLong(i);
+			}
+		} else {
+			for (int i = 0; i < SIZE; i++) {
+				sum += boxedLongs.getIndex(i);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public double scanDouble() {
+		double sum = 0;
+		if (primitive) {
+			for (int i = 0; i < SIZE; i++) {
+				sum += doubles.getDouble(i);
+			}
+		} else {
+			for (int i = 0; i < SIZE; i++) {
+				sum += boxedDoubles.getIndex(i);
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,81 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saving a list with writeTo and loading it with readFrom, against building it
+ * again with addBack from an int[] of the same values (so both make a new
+ * Integer for every item).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+	@Param({ "GrowableList", "DoublyLinkedList", "ChunkyLinkedList/1024" })
+	public String impl;
+
+	@Param({ "1000000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private int[] items;
+	private byte[] snapshot;
+
+	@Setup
+	public void setup() throws IOException {
+		list = BenchLists.filled(impl, size, 0);
+		items = new int[size];
+		int i = 0;
+		for (int item : list) {
+			items[i++] = item;
+		}
+		snapshot = save();
+	}
+
+	@Benchmark
+	public byte[] save() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * Integer.BYTES + 1024);
+		list.writeTo(Channels.newChannel(bytes), RecordCodec.INTS);
+		return bytes.toByteArray();
+	}
+
+	@Benchmark
+	public P6List<Integer> restore() throws IOException {
+		ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(snapshot));
+		if (impl.equals("GrowableList")) {
+			return GrowableList.readFrom(in, RecordCodec.INTS);
+		} else if (impl.equals("DoublyLinkedList")) {
+			return DoublyLinkedList.readFrom(in, RecordCodec.INTS);
+		}
+		return ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 1024);
+	}
+
+	@Benchmark
+	public P6List<Integer> rebuild() {
+		P6List<Integer> copy = BenchLists.create(impl, size);
+		for (int item : items) {
+			copy.addBack(item);
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,66 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Indexed operations that mostly land near the back of the list: every index
+ * is within the last {@code tailPercent} percent of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TailAccessBenchmark {
+	@Param({ "SinglyLinkedList", "DoublyLinkedList" })
+	public String impl;
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	@Param({ "1", "10" })
+	public int tailPercent;
+
+	private P6List<Integer> list;
+	private int[] indexes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		int tail = Math.max(1, size / 100 * tailPercent);
+		indexes = BenchLists.randomIndexes(4096, tail);
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = size - 1 - indexes[i];
+		}
+	}
+
+	private int nextIndex() {
+		return indexes[(next++) & 4095];
+	}
+
+	@Benchmark
+	public Integer getIndex() {
+		return list.getIndex(nextIndex());
+	}
+
+	@Benchmark
+	public Integer addIndexRemoveIndex() {
+		int index = nextIndex();
+		list.addIndex(-1, index);
+		return list.removeIndex(index);
+	}
+}
@@ -0,0 +1,59 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Random index calls on big lists, where {@link TreapList} is O(log n) for all
+ * of them. The insert and the remove go to different places, so leaves and
+ * chunks keep splitting and merging instead of undoing each other.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TreapListBenchmark {
+	@Param({ "GrowableList", "ChunkyLinkedList/128", "TreapList/64" })
+	public String impl;
+
+	@Param({ "10000000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private int[] indexes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, 1);
+		indexes = BenchLists.randomIndexes(4096, size);
+	}
+
+	private int nextIndex() {
+		return indexes[(next++) & 4095];
+	}
+
+	@Benchmark
+	public Integer getIndex() {
+		return list.getIndex(nextIndex());
+	}
+
+	@Benchmark
+	public Integer addIndexRemoveIndex() {
+		list.addIndex(-1, nextIndex());
+		return list.removeIndex(nextIndex());
+	}
+}
@@ -0,0 +1,95 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A work deque under contention: producers addBack, workers removeFront and a
+ * stealer removeBack, all at once on one deque. Compares
+ * {@link ConcurrentDoublyLinkedDeque} with a {@link DoublyLinkedList} behind
+ * one lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class WorkDequeBenchmark {
+	@Param({ "DoublyLinkedList", "ConcurrentDoublyLinkedDeque" })
+	public String impl;
+
+	/**
+	 * How many items are waiting in the deque when the trial starts.
+	 */
+	@Param({ "1000" })
+	public int size;
+
+	private DoublyLinkedList<Integer> locked;
+	private ConcurrentDoublyLinkedDeque<Integer> lockFree;
+
+	@Setup
+	public void setup() {
+		if (impl.equals("DoublyLinkedList")) {
+			locked = new DoublyLinkedList<>();
+			for (int i = 0; i < size; i++) {
+				locked.addBack(i);
+			}
+		} else {
+			lockFree = new ConcurrentDoublyLinkedDeque<>();
+			for (int i = 0; i < size; i++) {
+				lockFree.addBack(i);
+			}
+		}
+	}
+
+	@Benchmark
+	@Group("work")
+	@GroupThreads(2)
+	public void produce() {
+		if (locked != null) {
+			synchronized (locked) {
+				locked.addBack(1);
+			}
+		} else {
+			lockFree.addBack(1);
+		}
+	}
+
+	@Benchmark
+	@Group("work")
+	@GroupThreads(1)
+	public Integer work() {
+		if (locked != null) {
+			synchronized (locked) {
+				return locked.isEmpty() ? null : locked.removeFront();
+			}
+		}
+		return lockFree.pollFront();
+	}
+
+	@Benchmark
+	@Group("work")
+	@GroupThreads(1)
+	public Integer steal() {
+		if (locked != null) {
+			synchronized (locked) {
+				return locked.isEmpty() ? null : locked.removeBack();
+			}
+		}
+		return lockFree.pollBack();
+	}
+}
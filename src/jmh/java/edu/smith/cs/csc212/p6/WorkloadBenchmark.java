@@ -0,0 +1,107 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mixed workloads that look like how we actually use these lists. Each
+ * benchmark leaves the list at {@code size} when it returns, and reports time
+ * per list operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkloadBenchmark {
+	/**
+	 * How many items appendThenScan adds (and then reads and removes).
+	 */
+	static final int BATCH = 1024;
+
+	@Param({ "FixedSizeList", "GrowableList", "SinglyLinkedList", "DoublyLinkedList", "ChunkyLinkedList/16",
+			"ChunkyLinkedList/128", "ChunkyLinkedList/1024" })
+	public String impl;
+
+	@Param({ "1000", "100000", "10000000" })
+	public int size;
+
+	private P6List<Integer> list;
+	private int[] indexes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		list = BenchLists.filled(impl, size, BATCH);
+		indexes = BenchLists.randomIndexes(4096, size);
+	}
+
+	private int nextIndex() {
+		return indexes[(next++) & 4095];
+	}
+
+	/**
+	 * FIFO: producers at the back, consumers at the front.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public Integer queue() {
+		list.addBack(next++);
+		return list.removeFront();
+	}
+
+	/**
+	 * LIFO: everything happens at the back.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(2)
+	public Integer stack() {
+		list.addBack(next++);
+		return list.removeBack();
+	}
+
+	/**
+	 * Mostly random reads, with an insert and a delete somewhere in the middle.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(10)
+	public void randomIndex(Blackhole bh) {
+		for (int i = 0; i < 8; i++) {
+			bh.consume(list.getIndex(nextIndex()));
+		}
+		int index = nextIndex();
+		list.addIndex(-1, index);
+		bh.consume(list.removeIndex(index));
+	}
+
+	/**
+	 * Append a batch, read it back by index, then drop it again.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(3 * BATCH)
+	public void appendThenScan(Blackhole bh) {
+		for (int i = 0; i < BATCH; i++) {
+			list.addBack(i);
+		}
+		for (int i = size; i < size + BATCH; i++) {
+			bh.consume(list.getIndex(i));
+		}
+		for (int i = 0; i < BATCH; i++) {
+			bh.consume(list.removeBack());
+		}
+	}
+}
@@ -0,0 +1,420 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * A list that watches how it is used and moves its items to whichever list
+ * suits that use best:
+ * <ul>
+ * <li>{@link GrowableList} when items are read or set by index (O(1)),</li>
+ * <li>{@link ChunkyLinkedList} when big lists are edited in the middle
+ * (O(log c + k) instead of shifting half the array),</li>
+ * <li>{@link DoublyLinkedList} when it is only used at its ends, like a queue
+ * (every call O(1), never an O(n) grow, and its memory follows its size).</li>
+ * </ul>
+ *
+ * Every call is sorted into "end", "read" or "edit"; index calls within a few
+ * items of either end count as end calls. After each window of calls the mix is
+ * compared with the {@link Thresholds}. Usually the items are only moved (in
+ * one O(n) pass) when the same other list wins several windows in a row, so a
+ * short burst of unusual calls doesn't make the list thrash. If the current
+ * list pays O(n) for each of the calls that won, they move right away.
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class AdaptiveList<T> implements P6List<T> {
+	/**
+	 * The lists an AdaptiveList can keep its items in.
+	 */
+	public enum Kind {
+		GROWABLE, DOUBLY, CHUNKY
+	}
+
+	/**
+	 * Index calls this close to an end are as cheap as end calls in every kind.
+	 */
+	static final int NEAR_END = 8;
+
+	private final Thresholds thresholds;
+	private P6List<T> list;
+	private Kind kind;
+	/**
+	 * The calls of the current window, by category.
+	 */
+	private int ends;
+	private int reads;
+	private int edits;
+	/**
+	 * Which other kind won the last windows, and how many in a row.
+	 */
+	private Kind favored;
+	private int streak;
+	private int migrations;
+
+	/**
+	 * Start as a {@link GrowableList} with the default thresholds.
+	 */
+	public AdaptiveList() {
+		this(Kind.GROWABLE, Thresholds.DEFAULT);
+	}
+
+	/**
+	 * @param start      - what to keep the items in until the calls say
+	 *                   otherwise.
+	 * @param thresholds - when to move them.
+	 */
+	public AdaptiveList(Kind start, Thresholds thresholds) {
+		if (start == null || thresholds == null) {
+			throw new IllegalArgumentException("start and thresholds must not be null");
+		}
+		this.thresholds = thresholds;
+		this.kind = start;
+		this.list = create(start);
+	}
+
+	/**
+	 * @return what the items are kept in right now.
+	 */
+	public Kind kind() { // Efficiency: O(1)
+		return kind;
+	}
+
+	/**
+	 * @return how many times the items have been moved.
+	 */
+	public int migrations() { // Efficiency: O(1)
+		return migrations;
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T removed = list.removeFront();
+		counted(Category.END);
+		return removed;
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T removed = list.removeBack();
+		counted(Category.END);
+		return removed;
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		Category category = at(index, Category.EDIT);
+		T removed = list.removeIndex(index);
+		counted(category);
+		return removed;
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		list.addFront(item);
+		counted(Category.END);
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		list.addBack(item);
+		counted(Category.END);
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		Category category = at(index, Category.EDIT);
+		list.addIndex(item, index);
+		counted(category);
+	}
+
+	@Override
+	public T getFront() { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T item = list.getFront();
+		counted(Category.END);
+		return item;
+	}
+
+	@Override
+	public T getBack() { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T item = list.getBack();
+		counted(Category.END);
+		return item;
+	}
+
+	@Override
+	public T getIndex(int index) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T item = list.getIndex(index);
+		counted(at(index, Category.READ));
+		return item;
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		T old = list.setIndex(item, index);
+		counted(at(index, Category.READ));
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1) for every kind
+		return list.size();
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1) for every kind
+		return list.isEmpty();
+	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		Category category = at(index, Category.EDIT);
+		list.addAllAt(index, source);
+		counted(category);
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: the backing list's, plus O(n) now and then to migrate
+		Category category = at(from, Category.EDIT) == Category.END || at(to, Category.EDIT) == Category.END
+				? Category.END
+				: Category.EDIT;
+		list.removeRange(from, to);
+		counted(category);
+	}
+
+	@Override
+	public void clear() { // Efficiency: the backing list's
+		list.clear();
+	}
+
+	@Override
+	public void writeTo(WritableByteChannel out, RecordCodec<T> codec) throws IOException {
+		list.writeTo(out, codec);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return list.iterator();
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return list.spliterator();
+	}
+
+	/**
+	 * Move the items to another kind of list now, whatever the calls say.
+	 *
+	 * @param next - where to keep them.
+	 */
+	public void migrate(Kind next) { // Efficiency: O(n)
+		if (next == kind) {
+			return;
+		}
+		P6List<T> moved = create(next);
+		moved.addAllBack(list);
+		list = moved;
+		kind = next;
+		favored = null;
+		streak = 0;
+		migrations++;
+	}
+
+	private enum Category {
+		END, READ, EDIT
+	}
+
+	/**
+	 * @param index - where a call works.
+	 * @param away  - what the call is unless it is near an end.
+	 * @return the call's category.
+	 */
+	private Category at(int index, Category away) { // Efficiency: O(1)
+		int n = list.size();
+		return index <= NEAR_END || index >= n - NEAR_END ? Category.END : away;
+	}
+
+	/**
+	 * Count a call that worked (calls that crash don't count), and look at the
+	 * mix at the end of each window.
+	 */
+	private void counted(Category category) { // Efficiency: O(1), or O(n) to migrate
+		switch (category) {
+		case END:
+			ends++;
+			break;
+		case READ:
+			reads++;
+			break;
+		default:
+			edits++;
+			break;
+		}
+		if (ends + reads + edits >= thresholds.window) {
+			decide();
+		}
+	}
+
+	private void decide() { // Efficiency: O(1), or O(n) to migrate
+		Kind best = thresholds.choose(ends, reads, edits, list.size(), kind);
+		ends = 0;
+		reads = 0;
+		edits = 0;
+		if (best == kind) {
+			favored = null;
+			streak = 0;
+			return;
+		}
+		streak = best == favored ? streak + 1 : 1;
+		favored = best;
+		if (streak >= thresholds.patience || stuck(best)) {
+			migrate(best);
+		}
+	}
+
+	/**
+	 * Waiting is cheap when the current kind is only a bit worse. But reads on
+	 * a linked list and middle edits on an array are O(n) each, so then the
+	 * items move after one window.
+	 *
+	 * @param best - the kind that won this window.
+	 * @return whether the current kind pays O(n) for what the window did most.
+	 */
+	private boolean stuck(Kind best) { // Efficiency: O(1)
+		return (kind == Kind.DOUBLY && best == Kind.GROWABLE) || (kind != Kind.CHUNKY && best == Kind.CHUNKY);
+	}
+
+	private P6List<T> create(Kind which) {
+		switch (which) {
+		case DOUBLY:
+			return new DoublyLinkedList<T>();
+		case CHUNKY:
+			return new ChunkyLinkedList<T>(thresholds.chunkSize);
+		default:
+			return new GrowableList<T>();
+		}
+	}
+
+	/**
+	 * When an {@link AdaptiveList} moves its items. Each "with" method returns a
+	 * copy with one setting changed:
+	 * {@code Thresholds.DEFAULT.withWindow(1000).withPatience(5)}.
+	 */
+	public static final class Thresholds {
+		/**
+		 * Windows of 1024 calls, 3 in a row to move; 5% reads for a
+		 * GrowableList, 5% middle edits of at least 1024 items for a
+		 * ChunkyLinkedList of 128-item chunks, 99% end calls for a
+		 * DoublyLinkedList.
+		 */
+		public static final Thresholds DEFAULT = new Thresholds(1024, 3, 0.05, 0.05, 0.99, 1024, 128);
+
+		private final int window;
+		private final int patience;
+		private final double readShare;
+		private final double editShare;
+		private final double endShare;
+		private final int chunkyMinSize;
+		private final int chunkSize;
+
+		private Thresholds(int window, int patience, double readShare, double editShare, double endShare,
+				int chunkyMinSize, int chunkSize) {
+			if (window <= 0 || patience <= 0 || chunkSize <= 0) {
+				throw new IllegalArgumentException("window, patience and chunkSize must be positive");
+			}
+			if (chunkyMinSize < 0) {
+				throw new IllegalArgumentException("chunkyMinSize must not be negative: " + chunkyMinSize);
+			}
+			if (!share(readShare) || !share(editShare) || !share(endShare)) {
+				throw new IllegalArgumentException("shares must be from 0 to 1");
+			}
+			this.window = window;
+			this.patience = patience;
+			this.readShare = readShare;
+			this.editShare = editShare;
+			this.endShare = endShare;
+			this.chunkyMinSize = chunkyMinSize;
+			this.chunkSize = chunkSize;
+		}
+
+		/**
+		 * @param window - how many calls are counted before the mix is looked at.
+		 */
+		public Thresholds withWindow(int window) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param patience - how many windows in a row another kind must win
+		 *                 before the items move.
+		 */
+		public Thresholds withPatience(int patience) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param readShare - the part of a window's calls that must be reads by
+		 *                  index to want a GrowableList.
+		 */
+		public Thresholds withReadShare(double readShare) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param editShare - the part of a window's calls that must be edits away
+		 *                  from the ends to want a ChunkyLinkedList.
+		 */
+		public Thresholds withEditShare(double editShare) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param endShare - the part of a window's calls that must be at the ends
+		 *                 to want a DoublyLinkedList.
+		 */
+		public Thresholds withEndShare(double endShare) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param chunkyMinSize - lists smaller than this never become chunky; an
+		 *                      array that small is quick to shift anyway.
+		 */
+		public Thresholds withChunkyMinSize(int chunkyMinSize) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * @param chunkSize - the chunkSize of the ChunkyLinkedList.
+		 */
+		public Thresholds withChunkSize(int chunkSize) {
+			return new Thresholds(window, patience, readShare, editShare, endShare, chunkyMinSize, chunkSize);
+		}
+
+		/**
+		 * Middle edits matter most, since an array pays O(n) for each of them.
+		 * A mix that matches no rule keeps the current kind.
+		 *
+		 * @return the kind that suits one window of calls best.
+		 */
+		Kind choose(int ends, int reads, int edits, int size, Kind current) { // Efficiency: O(1)
+			double calls = ends + reads + edits;
+			if (edits >= editShare * calls && edits > 0 && size >= chunkyMinSize) {
+				return Kind.CHUNKY;
+			}
+			if (reads >= readShare * calls && reads > 0) {
+				return Kind.GROWABLE;
+			}
+			if (ends >= endShare * calls) {
+				return Kind.DOUBLY;
+			}
+			return current;
+		}
+
+		private static boolean share(double value) {
+			return value >= 0 && value <= 1;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+
+/**
+ * Helpers shared by the bulk operations of every {@link P6List}.
+ */
+final class BulkItems {
+	private BulkItems() {
+		// static helpers only.
+	}
+
+	/**
+	 * Copy the items out of a source before a bulk add touches the list, so we
+	 * know how many there are and adding a list to itself works.
+	 *
+	 * @param source - the items to add.
+	 * @return a new array holding them, in order.
+	 */
+	static Object[] toArray(Iterable<?> source) { // Efficiency: O(k)
+		if (source instanceof Collection) {
+			return ((Collection<?>) source).toArray();
+		}
+		List<Object> items = new ArrayList<>();
+		for (Object item : source) {
+			items.add(item);
+		}
+		return items.toArray();
+	}
+
+	/**
+	 * Throw BadIndexError unless 0 &lt;= from &lt;= to &lt;= size.
+	 */
+	static void checkRange(int from, int to, int size) { // Efficiency: O(1)
+		if (from < 0 || to > size || from > to) {
+			throw new BadIndexError();
+		}
+	}
+}
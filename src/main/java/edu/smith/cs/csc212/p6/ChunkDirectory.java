@@ -0,0 +1,361 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Arrays;
+
+/**
+ * The chunks of a {@link ChunkyLinkedList}, in order, together with a Fenwick
+ * (binary indexed) tree over how many items each chunk holds. The tree finds
+ * the chunk holding the i-th item in O(log c) instead of adding up the size of
+ * every chunk in front of it, and it is updated in O(log c) whenever a chunk
+ * grows or shrinks by calling {@link #resized(int, int)}.
+ *
+ * The chunks sit in the middle of a bigger array of slots (empty slots count as
+ * size zero), so adding or removing a chunk at either end is O(log c) too. Only
+ * adding or removing a chunk in the middle shifts the slots and rebuilds the
+ * tree in O(c).
+ *
+ * Two directories can hold the same chunks after {@link #share()}; each slot
+ * remembers whether its chunk might be shared, so the list knows to copy it
+ * before changing it.
+ *
+ * @param <C> the type of chunk.
+ */
+final class ChunkDirectory<C> {
+	/**
+	 * How many slots a new directory starts with.
+	 */
+	private static final int START_SLOTS = 8;
+
+	/**
+	 * The chunks live in slots[first] to slots[first + count - 1].
+	 */
+	private Object[] slots;
+	/**
+	 * How many items the chunk in each slot holds (zero for empty slots).
+	 */
+	private int[] sizes;
+	/**
+	 * The Fenwick tree over sizes; 1-based, so tree[0] is unused.
+	 */
+	private int[] tree;
+	/**
+	 * The value of {@code stamp} when the chunk in each slot was put there.
+	 */
+	private int[] stamps;
+	/**
+	 * Goes up on every share(), so a slot with an older stamp holds a chunk
+	 * that may be in another directory too.
+	 */
+	private int stamp;
+	private int first;
+	private int count;
+	private int total;
+
+	ChunkDirectory() {
+		this.slots = new Object[START_SLOTS];
+		this.sizes = new int[START_SLOTS];
+		this.tree = new int[START_SLOTS + 1];
+		this.stamps = new int[START_SLOTS];
+		this.first = START_SLOTS / 2;
+		this.count = 0;
+		this.total = 0;
+	}
+
+	/**
+	 * @return how many chunks there are.
+	 */
+	int count() { // Efficiency: O(1)
+		return count;
+	}
+
+	/**
+	 * @return how many items there are in all of the chunks together.
+	 */
+	int total() { // Efficiency: O(1)
+		return total;
+	}
+
+	/**
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @return that chunk.
+	 */
+	@SuppressWarnings("unchecked")
+	C get(int chunk) { // Efficiency: O(1)
+		return (C) slots[first + chunk];
+	}
+
+	/**
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @return how many items the directory thinks that chunk holds.
+	 */
+	int sizeOf(int chunk) { // Efficiency: O(1)
+		return sizes[first + chunk];
+	}
+
+	/**
+	 * Swap a chunk for another one holding the same number of items. The new
+	 * chunk belongs to this directory alone.
+	 *
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @param item  - the chunk to put there instead.
+	 */
+	void set(int chunk, C item) { // Efficiency: O(1)
+		slots[first + chunk] = item;
+		stamps[first + chunk] = stamp;
+	}
+
+	/**
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @return true if another directory might hold that chunk too.
+	 */
+	boolean isShared(int chunk) { // Efficiency: O(1)
+		return stamps[first + chunk] != stamp;
+	}
+
+	/**
+	 * Find the chunk that holds an item. Empty chunks are never returned.
+	 *
+	 * @param index - a number from 0 to total (excluding total).
+	 * @return the number of the chunk holding the index-th item.
+	 */
+	int find(int index) { // Efficiency: O(log c)
+		// Walk down the tree, skipping over every run of slots that ends before
+		// the index; we end up just in front of the slot that holds it.
+		int pos = 0;
+		int rest = index;
+		for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+			int next = pos + step;
+			if (next <= slots.length && tree[next] <= rest) {
+				pos = next;
+				rest -= tree[next];
+			}
+		}
+		return pos - first;
+	}
+
+	/**
+	 * @param chunk - which chunk, from 0 to count (including count).
+	 * @return the index of the first item of that chunk; the number of items in
+	 *         all of the chunks before it.
+	 */
+	int startOf(int chunk) { // Efficiency: O(log c)
+		int sum = 0;
+		for (int i = first + chunk; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Tell the directory that a chunk gained or lost items.
+	 *
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @param delta - how many items it gained (negative if it lost them).
+	 */
+	void resized(int chunk, int delta) { // Efficiency: O(log c)
+		int slot = first + chunk;
+		sizes[slot] += delta;
+		total += delta;
+		for (int i = slot + 1; i <= slots.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * Put a new chunk into the directory.
+	 *
+	 * @param chunk - where it goes, from 0 to count (including count).
+	 * @param item  - the chunk.
+	 * @param size  - how many items it already holds.
+	 */
+	void insert(int chunk, C item, int size) { // Efficiency: O(log c) at either end, O(c) in the middle
+		if (chunk == 0 && count > 0) {
+			if (first == 0) {
+				relayout();
+			}
+			first--;
+		} else {
+			if (first + count == slots.length) {
+				relayout();
+			}
+			if (chunk < count) {
+				int at = first + chunk;
+				System.arraycopy(slots, at, slots, at + 1, count - chunk);
+				System.arraycopy(sizes, at, sizes, at + 1, count - chunk);
+				System.arraycopy(stamps, at, stamps, at + 1, count - chunk);
+				slots[at] = item;
+				sizes[at] = size;
+				stamps[at] = stamp;
+				count++;
+				total += size;
+				rebuildTree();
+				return;
+			}
+		}
+		slots[first + chunk] = item;
+		stamps[first + chunk] = stamp;
+		count++;
+		resized(chunk, size);
+	}
+
+	/**
+	 * Put several new chunks into the directory next to each other, shifting
+	 * the slots and rebuilding the tree only once.
+	 *
+	 * @param chunk     - where the first one goes, from 0 to count (including
+	 *                  count).
+	 * @param items     - the chunks, in order.
+	 * @param itemSizes - how many items each one already holds.
+	 */
+	void insertAll(int chunk, Object[] items, int[] itemSizes) { // Efficiency: O(c + m) for m new chunks
+		int m = items.length;
+		if (m == 0) {
+			return;
+		}
+		if (first + count + m > slots.length) {
+			relayout(m);
+		}
+		int at = first + chunk;
+		System.arraycopy(slots, at, slots, at + m, count - chunk);
+		System.arraycopy(sizes, at, sizes, at + m, count - chunk);
+		System.arraycopy(stamps, at, stamps, at + m, count - chunk);
+		System.arraycopy(items, 0, slots, at, m);
+		for (int i = 0; i < m; i++) {
+			sizes[at + i] = itemSizes[i];
+			stamps[at + i] = stamp;
+			total += itemSizes[i];
+		}
+		count += m;
+		rebuildTree();
+	}
+
+	/**
+	 * Take chunks {@code from} to {@code to} (excluding to) out of the
+	 * directory at once. Their items no longer count towards the total.
+	 *
+	 * @param from - the first chunk to remove.
+	 * @param to   - one past the last chunk to remove.
+	 */
+	void removeAll(int from, int to) { // Efficiency: O(c)
+		int m = to - from;
+		if (m == 0) {
+			return;
+		}
+		int at = first + from;
+		for (int i = at; i < at + m; i++) {
+			total -= sizes[i];
+		}
+		System.arraycopy(slots, at + m, slots, at, count - to);
+		System.arraycopy(sizes, at + m, sizes, at, count - to);
+		System.arraycopy(stamps, at + m, stamps, at, count - to);
+		Arrays.fill(slots, first + count - m, first + count, null);
+		Arrays.fill(sizes, first + count - m, first + count, 0);
+		count -= m;
+		if (count == 0) {
+			first = slots.length / 2;
+		}
+		rebuildTree();
+	}
+
+	/**
+	 * Take a chunk out of the directory. Its items no longer count towards the
+	 * total.
+	 *
+	 * @param chunk - which chunk, from 0 to count (excluding count).
+	 * @return the chunk that was removed.
+	 */
+	C remove(int chunk) { // Efficiency: O(log c) at either end, O(c) in the middle
+		C removed = get(chunk);
+		int at = first + chunk;
+		if (chunk == 0 || chunk == count - 1) {
+			resized(chunk, -sizes[at]);
+			slots[at] = null;
+			if (chunk == 0) {
+				first++;
+			}
+			count--;
+		} else {
+			total -= sizes[at];
+			System.arraycopy(slots, at + 1, slots, at, count - chunk - 1);
+			System.arraycopy(sizes, at + 1, sizes, at, count - chunk - 1);
+			System.arraycopy(stamps, at + 1, stamps, at, count - chunk - 1);
+			slots[first + count - 1] = null;
+			sizes[first + count - 1] = 0;
+			count--;
+			rebuildTree();
+		}
+		if (count == 0) {
+			// the tree is all zeros again; start over from the middle.
+			first = slots.length / 2;
+		}
+		return removed;
+	}
+
+	/**
+	 * Make a directory of the same chunks that can change without changing this
+	 * one. The chunks themselves are not copied; from now on both directories
+	 * say every one of them is shared.
+	 *
+	 * @return the new directory.
+	 */
+	ChunkDirectory<C> share() { // Efficiency: O(c)
+		stamp++;
+		ChunkDirectory<C> copy = new ChunkDirectory<C>();
+		copy.slots = slots.clone();
+		copy.sizes = sizes.clone();
+		copy.tree = tree.clone();
+		copy.stamps = stamps.clone();
+		copy.stamp = stamp;
+		copy.first = first;
+		copy.count = count;
+		copy.total = total;
+		return copy;
+	}
+
+	/**
+	 * Move the chunks into the middle of the slots, doubling the number of slots
+	 * if they are more than half full, so there is room to add at both ends.
+	 */
+	private void relayout() { // Efficiency: O(c)
+		relayout(1);
+	}
+
+	/**
+	 * Like {@link #relayout()}, but make sure there is room for {@code extra}
+	 * more chunks after the last one.
+	 */
+	private void relayout(int extra) { // Efficiency: O(c + extra)
+		int capacity = slots.length;
+		while (2 * (count + extra) > capacity) {
+			capacity *= 2;
+		}
+		int newFirst = (capacity - count) / 2;
+		Object[] newSlots = new Object[capacity];
+		int[] newSizes = new int[capacity];
+		int[] newStamps = new int[capacity];
+		System.arraycopy(slots, first, newSlots, newFirst, count);
+		System.arraycopy(sizes, first, newSizes, newFirst, count);
+		System.arraycopy(stamps, first, newStamps, newFirst, count);
+		this.slots = newSlots;
+		this.sizes = newSizes;
+		this.stamps = newStamps;
+		this.tree = new int[capacity + 1];
+		this.first = newFirst;
+		rebuildTree();
+	}
+
+	/**
+	 * Build the Fenwick tree from sizes in linear time: each node passes its sum
+	 * up to its parent.
+	 */
+	private void rebuildTree() { // Efficiency: O(c)
+		Arrays.fill(tree, 0);
+		for (int i = 1; i < tree.length; i++) {
+			tree[i] += sizes[i - 1];
+			int parent = i + (i & -i);
+			if (parent < tree.length) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+}
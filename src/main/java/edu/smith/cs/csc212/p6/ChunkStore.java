@@ -0,0 +1,22 @@
+package edu.smith.cs.csc212.p6;
+
+/**
+ * Where a {@link ChunkyLinkedList} gets new chunks from and gives dropped ones
+ * back to, when they need to live somewhere special; see
+ * {@link MappedChunkyLinkedList}, whose chunks are pages of a file.
+ *
+ * @param <T> the type of item stored in the chunks.
+ */
+interface ChunkStore<T> {
+	/**
+	 * @return an empty chunk with room for chunkSize items.
+	 */
+	P6List<T> newChunk();
+
+	/**
+	 * The list no longer uses this chunk; its space can be handed out again.
+	 *
+	 * @param chunk - a chunk that came from {@link #newChunk()}.
+	 */
+	void release(P6List<T> chunk);
+}
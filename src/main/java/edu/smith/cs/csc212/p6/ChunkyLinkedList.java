@@ -1,5 +1,16 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
 
@@ -8,199 +19,943 @@ import edu.smith.cs.csc212.p6.errors.EmptyListError;
  * This is a data structure that has an array inside each node of a Linked List.
  * Therefore, we only make new nodes when they are full. Some remove operations
  * may be easier if you allow "chunks" to be partially filled.
- * 
+ *
+ * Each chunk is a {@link FixedSizeList}, or an {@link OffHeapChunk} when the
+ * list is made with a {@link RecordCodec}. The chunks are kept in order in a
+ * {@link ChunkDirectory}, which also knows how many items are in front of each
+ * chunk. In the efficiency comments, c is
+ * the number of chunks and k is the chunkSize.
+ *
+ * Like an unrolled linked list, the chunks are kept balanced: a full chunk is
+ * split in half when something is added in the middle of it, and a chunk that
+ * drops below a quarter full is merged with (or borrows from) a neighbor, so
+ * every chunk except the first and last is at least a quarter full.
+ *
+ * {@link #snapshot()} makes a copy that shares the chunks instead of copying
+ * them. Each side copies a shared chunk the first time it changes it, so a
+ * snapshot costs O(c) up front and then O(k) per chunk that gets written.
+ *
  * @author jfoley
  * @param <T> - the type of item stored in the list.
  */
 public class ChunkyLinkedList<T> implements P6List<T> {
 	private int chunkSize;
-	private SinglyLinkedList<FixedSizeList<T>> chunks;
+	/**
+	 * A chunk with fewer items than this gets merged or refilled.
+	 */
+	private int lowWater;
+	private ChunkDirectory<P6List<T>> chunks;
+	/**
+	 * If this is not null, chunks keep their items off the heap in this format.
+	 */
+	private RecordCodec<T> codec;
+	/**
+	 * If this is not null, chunks come from (and go back to) here instead.
+	 */
+	private final ChunkStore<T> store;
+	/**
+	 * Goes up every time items are added or removed, so a cursor can tell that
+	 * the list changed underneath it.
+	 */
+	private int modCount;
 
 	public ChunkyLinkedList(int chunkSize) {
+		this(chunkSize, null);
+	}
+
+	/**
+	 * Make a list whose chunks keep their items outside the Java heap, as
+	 * fixed-width records in direct ByteBuffers. The garbage collector then only
+	 * sees one buffer per chunk instead of one reference per item, so use a big
+	 * chunkSize. Items are copied in and out through the codec.
+	 *
+	 * @param chunkSize - how many items fit in each chunk.
+	 * @param codec     - how to turn an item into a record, or null to keep the
+	 *                  items on the heap like usual.
+	 */
+	public ChunkyLinkedList(int chunkSize, RecordCodec<T> codec) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		if (codec != null && (long) chunkSize * codec.width() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("chunkSize is too big for one buffer: " + chunkSize);
+		}
 		this.chunkSize = chunkSize;
+		this.lowWater = chunkSize / 4;
+		this.codec = codec;
+		this.store = null;
 		// We use chunks before creating it:
-		chunks = new SinglyLinkedList<>();
-		chunks.addBack(new FixedSizeList<>(chunkSize));
+		chunks = new ChunkDirectory<>();
+		chunks.insert(0, this.newChunk(), 0);
+	}
+
+	/**
+	 * Make a list whose chunks come from a store, starting with chunks that
+	 * already hold items (and are already balanced).
+	 *
+	 * @param chunkSize - how many items fit in each chunk.
+	 * @param store     - where new chunks come from.
+	 * @param existing  - the chunks to start with, in order; may be empty.
+	 */
+	ChunkyLinkedList(int chunkSize, ChunkStore<T> store, List<? extends P6List<T>> existing) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		this.lowWater = chunkSize / 4;
+		this.codec = null;
+		this.store = store;
+		chunks = new ChunkDirectory<>();
+		if (existing.isEmpty()) {
+			chunks.insert(0, this.newChunk(), 0);
+		} else {
+			int[] sizes = new int[existing.size()];
+			for (int i = 0; i < sizes.length; i++) {
+				sizes[i] = existing.get(i).size();
+			}
+			chunks.insertAll(0, existing.toArray(), sizes);
+		}
+	}
+
+	/**
+	 * Make a list with the same chunks as another one; see {@link #snapshot()}.
+	 *
+	 * @param original - the list to share chunks with.
+	 */
+	private ChunkyLinkedList(ChunkyLinkedList<T> original) {
+		this.chunkSize = original.chunkSize;
+		this.lowWater = original.lowWater;
+		this.codec = original.codec;
+		this.store = null;
+		this.chunks = original.chunks.share();
 	}
-	
-	// Efficiency: O(n) because it uses removeFront from FixedSizeList which is O(n). 
+
+	// Efficiency: O(log c) to update the directory; the first chunk is never
+	// empty (unless the list is), so there is nothing to search for.
 	@Override
-	public T removeFront() { 
-		// if the chunk is empty
+	public T removeFront() {
 		if (this.isEmpty()) {
 			throw new EmptyListError();
-		} else {
-			// find the first chunk
-			FixedSizeList<T> firstChunk = this.chunks.getFront();
-			// remove the first chunk and return its value
-			return firstChunk.removeFront();
 		}
+		this.modCount++;
+		T removed = this.writable(0).removeFront();
+		this.chunks.resized(0, -1);
+		this.rebalance(0);
+		return removed;
 	}
-	
-	// Efficiency: O(n) because of .getBack from SinglyLinkedList which is O(n)
+
+	// Efficiency: O(log c) to update the directory; the last chunk is never
+	// empty (unless the list is), so there is nothing to search for.
 	@Override
-	public T removeBack() { 
-		// if the chunk is empty
+	public T removeBack() {
 		if (this.isEmpty()) {
 			throw new EmptyListError();
-		} else {
-			// find the last chunk
-			FixedSizeList<T> lastChunk = this.chunks.getBack();
-			// remove the last chunk and return its value
-			return lastChunk.removeBack();
 		}
+		this.modCount++;
+		int last = this.chunks.count() - 1;
+		T removed = this.writable(last).removeBack();
+		this.chunks.resized(last, -1);
+		this.rebalance(last);
+		return removed;
 	}
-	// Efficiency: O(n) because of it has a for loop
-	// and it has removeIndex from FixedSizeList which both have O(n).
+
+	// Efficiency: O(log c + k), O(log c) to find the chunk
+	// and O(k) for removeIndex from the chunk and rebalancing;
+	// O(c) when a chunk in the middle of the directory goes away.
 	@Override
-	public T removeIndex(int index) { 
+	public T removeIndex(int index) {
 		// check if chunk is empty
 		if (this.isEmpty()) {
 			throw new EmptyListError();
 		}
-		// bookshelf counter
-		int start = 0;
-		// for every chunk in chunks
-		for (FixedSizeList<T> chunk : this.chunks) {
-			// calculate bounds of this chunk.
-			int end = start + chunk.size();
-
-			// check whether the index should be in this chunk:
-			if (start <= index && index < end) {
-				return chunk.removeIndex(index - start);
-			}
-
-			// update bounds of next chunk.
-			start = end;
-		}
-		throw new BadIndexError();
+		checkIndex(index, this.size() - 1);
+		this.modCount++;
+		// find the chunk and where the index is inside it
+		int chunkNum = this.chunks.find(index);
+		P6List<T> chunk = this.writable(chunkNum);
+		T removed = chunk.removeIndex(index - this.chunks.startOf(chunkNum));
+		this.chunks.resized(chunkNum, -1);
+		this.rebalance(chunkNum);
+		return removed;
 	}
-	// Efficiency: O(1), all extra methods are also O(1).
+
+	// Efficiency: O(log c) to update the directory, all extra methods are O(1).
 	@Override
 	public void addFront(T item) {
+		this.modCount++;
 		// find the first chunk
-		FixedSizeList<T> firstChunk = this.chunks.getFront();
+		P6List<T> firstChunk = this.chunks.get(0);
 		// if the first chunk is full
 		if (firstChunk.size() == chunkSize) {
 			// create a new chunk
-			FixedSizeList<T> newChunk = new FixedSizeList<T>(chunkSize);
-			// put the new chunk at the front of linked list
-			chunks.addFront(newChunk);
+			P6List<T> newChunk = this.newChunk();
+			// put the new chunk at the front of the directory
+			chunks.insert(0, newChunk, 0);
 			// add item to the front of new chunk
 			newChunk.addFront(item);
 			// if it's not full
 		} else {
 			// just add item to that first chunk
-			firstChunk.addFront(item);
+			this.writable(0).addFront(item);
 		}
+		chunks.resized(0, 1);
 	}
-	// Efficiency: O(n) because .getBack and .addBack from SinglyLinkedList
-	// have an efficiency of O(n).
+
+	// Efficiency: O(log c) to update the directory, all extra methods are O(1).
 	@Override
 	public void addBack(T item) {
+		this.modCount++;
 		// find the last chunk
-		FixedSizeList<T> lastChunk = this.chunks.getBack();
+		int last = this.chunks.count() - 1;
+		P6List<T> lastChunk = this.chunks.get(last);
 		// if the last chunk is full
 		if (lastChunk.size() == chunkSize) {
 			// create a new chunk
-			FixedSizeList<T> newChunk = new FixedSizeList<T>(chunkSize);
-			// put the new chunk at the back of the linked list
-			chunks.addBack(newChunk);
+			P6List<T> newChunk = this.newChunk();
+			// put the new chunk at the back of the directory
+			last++;
+			chunks.insert(last, newChunk, 0);
 			// add item to the back of the new chunk
 			newChunk.addBack(item);
 			// if it's not full
 		} else {
-			// just add item to that first chunk
-			lastChunk.addBack(item);
+			// just add item to that last chunk
+			this.writable(last).addBack(item);
 		}
-
+		chunks.resized(last, 1);
 	}
-	// Efficiency: O(n) because it has a for loop and it uses .addIndex 
-	// form SinglyLinkedList which is O(n).
+
+	// Efficiency: O(log c + k) to find the chunk and shift inside it;
+	// O(c) when a new chunk has to go in the middle of the directory.
 	@Override
 	public void addIndex(T item, int index) {
-		// check if chunk is empty
-		if (this.isEmpty()) {
-			this.addFront(item);
+		checkIndex(index, this.size());
+		this.modCount++;
+		// adding at the end is the same as addBack
+		if (index == this.size()) {
+			this.addBack(item);
 			return;
 		}
-		// start an index
-		int chunkNum = 0;
-		// something else
-		int start = 0;
-		// for every chunk in chunks
-		for (FixedSizeList<T> chunk : this.chunks) {
-			// calculate the bounds
-			int end = start + chunk.size();
-			// once we're at your index
-			if (chunkNum <= index && index <= end) {
-				// if the chunk is full
-				if (chunk.size() == chunkSize) {
-					// make a new chunk
-					FixedSizeList<T> newChunk = new FixedSizeList<T>(chunkSize);
-					// add the chunk to chunks
-					chunks.addIndex(newChunk, chunkNum + 1);
-					// add the item to the front of the chunk
-					newChunk.addFront(item);
-				// if the chunk is not full
-				} else {
-					// add the item to the front
-					chunk.addIndex(item, index - start);
-				}
-				// stop
-				return;
+		// find the chunk holding the item that is at index now
+		int chunkNum = this.chunks.find(index);
+		int offset = index - this.chunks.startOf(chunkNum);
+		// on the boundary, the previous chunk may have room at its back
+		if (offset == 0 && chunkNum > 0 && this.chunks.get(chunkNum - 1).size() < chunkSize) {
+			chunkNum--;
+			offset = this.chunks.get(chunkNum).size();
+		}
+		// if the chunk is full, split it in half
+		if (this.chunks.get(chunkNum).size() == chunkSize) {
+			this.split(chunkNum);
+			// the item might belong in the new, second half
+			int firstHalf = this.chunks.get(chunkNum).size();
+			if (offset > firstHalf) {
+				chunkNum++;
+				offset -= firstHalf;
 			}
-			// Bookkeeping so that we move on to the next chunk 
-			start = end;
-			// we have moved on to a new node so add 1
-			chunkNum++;
 		}
+		// add the item inside the chunk
+		this.writable(chunkNum).addIndex(item, offset);
+		chunks.resized(chunkNum, 1);
 	}
+
 	// Efficiency: O(1) because both getFronts use O(1).
 	@Override
 	public T getFront() {
-		return this.chunks.getFront().getFront();
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return this.chunks.get(0).getFront();
 	}
-	
-	// Efficiency: O(n) because .getBack() from SinglyLinkedList is O(n).
+
+	// Efficiency: O(1) because the directory knows the last chunk.
 	@Override
 	public T getBack() {
-		return this.chunks.getBack().getBack();
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return this.chunks.get(this.chunks.count() - 1).getBack();
 	}
-	
-	// Efficiency: O(n) because of for loop 
+
+	// Efficiency: O(log c) to find the chunk.
 	@Override
 	public T getIndex(int index) {
 		if (this.isEmpty()) {
 			throw new EmptyListError();
 		}
-		int start = 0;
-		for (FixedSizeList<T> chunk : this.chunks) {
-			// calculate bounds of this chunk.
-			int end = start + chunk.size();
+		checkIndex(index, this.size() - 1);
+		int chunkNum = this.chunks.find(index);
+		return this.chunks.get(chunkNum).getIndex(index - this.chunks.startOf(chunkNum));
+	}
+
+	// Efficiency: O(log c) to find the chunk.
+	@Override
+	public T setIndex(T item, int index) {
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		checkIndex(index, this.size() - 1);
+		int chunkNum = this.chunks.find(index);
+		return this.writable(chunkNum).setIndex(item, index - this.chunks.startOf(chunkNum));
+	}
+
+	// Efficiency: O(1) because the directory keeps the total.
+	@Override
+	public int size() {
+		return this.chunks.total();
+	}
+
+	// Efficiency: O(1)
+	@Override
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	// Efficiency: O(k + chunkSize + c); the batch fills whole new chunks, which
+	// go into the directory together.
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) {
+		checkIndex(index, this.size());
+		this.modCount++;
+		Object[] items = BulkItems.toArray(source);
+		if (items.length == 0) {
+			return;
+		}
+		// find the chunk to add to, preferring the back of the previous chunk on a boundary
+		int chunkNum;
+		int offset;
+		if (index == this.size()) {
+			chunkNum = this.chunks.count() - 1;
+			offset = this.chunks.sizeOf(chunkNum);
+		} else {
+			chunkNum = this.chunks.find(index);
+			offset = index - this.chunks.startOf(chunkNum);
+			if (offset == 0 && chunkNum > 0) {
+				chunkNum--;
+				offset = this.chunks.sizeOf(chunkNum);
+			}
+		}
+		// take the items after index out of the chunk; they go after the batch
+		P6List<T> chunk = this.writable(chunkNum);
+		Object[] tail = new Object[chunk.size() - offset];
+		for (int i = tail.length - 1; i >= 0; i--) {
+			tail[i] = chunk.removeBack();
+		}
+		// top up the chunk, then fill as many new chunks as it takes
+		int pending = items.length + tail.length;
+		int room = chunkSize - offset;
+		int extra = pending <= room ? 0 : (pending - room + chunkSize - 1) / chunkSize;
+		Object[] newChunks = new Object[extra];
+		int[] newSizes = new int[extra];
+		P6List<T> filling = chunk;
+		int made = -1;
+		for (int i = 0; i < pending; i++) {
+			if (filling.size() == chunkSize) {
+				filling = this.newChunk();
+				newChunks[++made] = filling;
+			}
+			@SuppressWarnings("unchecked")
+			T item = (T) (i < items.length ? items[i] : tail[i - items.length]);
+			filling.addBack(item);
+			if (made >= 0) {
+				newSizes[made]++;
+			}
+		}
+		this.chunks.resized(chunkNum, chunk.size() - this.chunks.sizeOf(chunkNum));
+		this.chunks.insertAll(chunkNum + 1, newChunks, newSizes);
+		// only the last chunk we filled can be short
+		this.rebalance(chunkNum + extra);
+	}
 
-			// Check whether the index should be in this chunk:
-			if (start <= index && index < end) {
-				return chunk.getIndex(index - start);
+	// Efficiency: O(log c + k) to trim the chunks at either end of the range,
+	// plus O(c) when whole chunks in between are dropped.
+	@Override
+	public void removeRange(int from, int to) {
+		BulkItems.checkRange(from, to, this.size());
+		this.modCount++;
+		if (from == to) {
+			return;
+		}
+		int firstNum = this.chunks.find(from);
+		int firstOffset = from - this.chunks.startOf(firstNum);
+		int lastNum = this.chunks.find(to - 1);
+		int lastOffset = to - 1 - this.chunks.startOf(lastNum);
+		if (firstNum == lastNum) {
+			this.writable(firstNum).removeRange(firstOffset, lastOffset + 1);
+			this.chunks.resized(firstNum, -(to - from));
+			this.rebalance(firstNum);
+			return;
+		}
+		// trim the back of the first chunk and the front of the last one ...
+		P6List<T> firstChunk = this.writable(firstNum);
+		int trimmed = firstChunk.size() - firstOffset;
+		firstChunk.removeRange(firstOffset, firstChunk.size());
+		this.chunks.resized(firstNum, -trimmed);
+		this.writable(lastNum).removeRange(0, lastOffset + 1);
+		this.chunks.resized(lastNum, -(lastOffset + 1));
+		// ... and drop every chunk in between without looking inside
+		if (this.store != null) {
+			for (int c = firstNum + 1; c < lastNum; c++) {
+				this.store.release(this.chunks.get(c));
 			}
+		}
+		this.chunks.removeAll(firstNum + 1, lastNum);
+		this.rebalance(firstNum + 1);
+		if (firstNum < this.chunks.count()) {
+			this.rebalance(firstNum);
+		}
+	}
 
-			// update bounds of next chunk.
-			start = end;
+	// Efficiency: O(1), the garbage collector takes the old chunks
+	// (O(c) when they go back to a store).
+	@Override
+	public void clear() {
+		this.modCount++;
+		if (this.store != null) {
+			for (int c = 0; c < this.chunks.count(); c++) {
+				this.store.release(this.chunks.get(c));
+			}
 		}
-		throw new BadIndexError();
+		this.chunks = new ChunkDirectory<>();
+		this.chunks.insert(0, this.newChunk(), 0);
 	}
-	// Efficiency: O(n) because of for loop 
+
+	// Efficiency: O(n); each chunk is one block of the snapshot, so readFrom
+	// can put the chunks back as they were.
 	@Override
-	public int size() {
+	public void writeTo(WritableByteChannel out, RecordCodec<T> codec) throws IOException {
+		Snapshot.Writer<T> writer = new Snapshot.Writer<T>(out, codec, Snapshot.CHUNKY, chunkSize, this.size(),
+				this.chunks.count());
+		for (int c = 0; c < this.chunks.count(); c++) {
+			P6List<T> chunk = this.chunks.get(c);
+			writer.beginBlock(chunk.size());
+			for (T item : chunk) {
+				writer.write(item);
+			}
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}. If a ChunkyLinkedList with the
+	 * same chunkSize saved it, every block becomes one chunk again, exactly as it
+	 * was; otherwise the items are packed into full chunks. Either way the
+	 * chunks are already balanced, so they all go into the directory at once.
+	 *
+	 * @param in        - where to read it from; it is not closed.
+	 * @param codec     - how the items were turned into bytes.
+	 * @param chunkSize - how many items fit in each chunk.
+	 * @return the list, with its chunks on the heap.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> ChunkyLinkedList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec, int chunkSize)
+			throws IOException { // Efficiency: O(n + c)
+		ChunkyLinkedList<T> list = new ChunkyLinkedList<T>(chunkSize);
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		boolean sameChunks = snapshot.kind() == Snapshot.CHUNKY && snapshot.layout() == chunkSize;
+		List<P6List<T>> loaded = new ArrayList<>();
+		P6List<T> filling = null;
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			if (sameChunks && n > 0) {
+				filling = new FixedSizeList<T>(chunkSize);
+				loaded.add(filling);
+			}
+			for (int i = 0; i < n; i++) {
+				if (filling == null || filling.size() == chunkSize) {
+					filling = new FixedSizeList<T>(chunkSize);
+					loaded.add(filling);
+				}
+				filling.addBack(snapshot.read());
+			}
+		}
+		if (!loaded.isEmpty()) {
+			int[] sizes = new int[loaded.size()];
+			for (int c = 0; c < sizes.length; c++) {
+				sizes[c] = loaded.get(c).size();
+			}
+			list.chunks = new ChunkDirectory<>();
+			list.chunks.insertAll(0, loaded.toArray(), sizes);
+		}
+		return list;
+	}
+
+	// Efficiency: O(1); each step is O(1) too, going chunk by chunk.
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int chunkNum = 0;
+			private int offset = 0;
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				checkForChanges();
+				return chunkNum < chunks.count() && offset < chunks.sizeOf(chunkNum);
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				T found = chunks.get(chunkNum).getIndex(offset++);
+				if (offset == chunks.sizeOf(chunkNum)) {
+					chunkNum++;
+					offset = 0;
+				}
+				return found;
+			}
+
+			private void checkForChanges() { // Efficiency: O(1)
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+			}
+		};
+	}
+
+	// Efficiency: O(1); it splits between chunks, and inside the last one.
+	@Override
+	public Spliterator<T> spliterator() {
+		return new ChunkSpliterator(0, this.chunks.count());
+	}
+
+	/**
+	 * Covers a run of whole chunks, maybe with the first one partly used up.
+	 * Splitting hands the front half of the chunks to a new spliterator; once
+	 * only one chunk is left, the chunk's own spliterator splits it by index.
+	 */
+	private class ChunkSpliterator implements Spliterator<T> {
+		/**
+		 * What is left of chunk {@code from}, or null if we haven't started it.
+		 */
+		private Spliterator<T> head;
+		private int from;
+		/**
+		 * One past the last chunk this spliterator covers.
+		 */
+		private final int to;
+
+		ChunkSpliterator(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) { // Efficiency: O(1) amortized
+			while (from < to) {
+				if (head == null) {
+					head = chunks.get(from).spliterator();
+				}
+				if (head.tryAdvance(action)) {
+					return true;
+				}
+				head = null;
+				from++;
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) { // Efficiency: O(n)
+			for (; from < to; from++) {
+				if (head == null) {
+					head = chunks.get(from).spliterator();
+				}
+				head.forEachRemaining(action);
+				head = null;
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() { // Efficiency: O(1)
+			if (to - from >= 2) {
+				int middle = (from + to) >>> 1;
+				ChunkSpliterator front = new ChunkSpliterator(from, middle);
+				front.head = head;
+				head = null;
+				from = middle;
+				return front;
+			}
+			if (from < to) {
+				if (head == null) {
+					head = chunks.get(from).spliterator();
+				}
+				return head.trySplit();
+			}
+			return null;
+		}
+
+		@Override
+		public long estimateSize() { // Efficiency: O(log c)
+			if (from >= to) {
+				return 0;
+			}
+			long rest = chunks.startOf(to) - chunks.startOf(from + 1);
+			return rest + (head == null ? chunks.sizeOf(from) : head.estimateSize());
+		}
+
+		@Override
+		public int characteristics() { // Efficiency: O(1)
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
+
+	/**
+	 * Make a copy of this list that shares its chunks. Neither list sees what
+	 * happens to the other afterwards: a shared chunk is copied by whichever
+	 * side changes it first (and by the other side too, if that one changes it
+	 * later). Shared chunks are never written, so a snapshot can be read on
+	 * other threads while this list keeps changing, as long as each list is
+	 * only used by one thread at a time.
+	 *
+	 * A list whose chunks come from a store can't share them, so it has to
+	 * override this; {@link MappedChunkyLinkedList} copies every item.
+	 *
+	 * @return the copy.
+	 * @throws UnsupportedOperationException if the chunks come from a store and
+	 *                                       this is not overridden.
+	 */
+	public ChunkyLinkedList<T> snapshot() { // Efficiency: O(c)
+		if (this.store != null) {
+			throw new UnsupportedOperationException("chunks that come from a store cannot be shared");
+		}
+		return new ChunkyLinkedList<T>(this);
+	}
+
+	/**
+	 * Make a cursor at the front of the list.
+	 *
+	 * @return a cursor whose next() is the first item.
+	 */
+	public P6Cursor<T> cursor() { // Efficiency: O(1)
+		return new Cursor();
+	}
+
+	/**
+	 * Remembers which chunk it is in and where, so stepping is O(1) and an edit
+	 * only shifts inside that chunk, O(k + log c). Only when the edit has to
+	 * split, merge or drop a chunk does it go through the list and look itself
+	 * up again in O(log c).
+	 */
+	private class Cursor implements P6Cursor<T> {
+		/**
+		 * How many items are in front of the cursor.
+		 */
+		int index;
+		/**
+		 * The cursor is just before item {@code offset} of this chunk (which may
+		 * be one past its last item).
+		 */
+		int chunkNum;
+		int offset;
+		/**
+		 * True when the item just before the cursor is the current item.
+		 */
+		boolean hasCurrent;
+		int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() { // Efficiency: O(1)
+			checkForChanges();
+			return index < size();
+		}
+
+		@Override
+		public T next() { // Efficiency: O(1)
+			checkForChanges();
+			if (index >= size()) {
+				throw new NoSuchElementException();
+			}
+			if (offset == chunks.sizeOf(chunkNum)) {
+				// chunks are never empty, so the next one has an item.
+				chunkNum++;
+				offset = 0;
+			}
+			T found = chunks.get(chunkNum).getIndex(offset);
+			offset++;
+			index++;
+			hasCurrent = true;
+			return found;
+		}
+
+		@Override
+		public void insertBefore(T item) { // Efficiency: O(k + log c)
+			insert(item, true);
+		}
+
+		@Override
+		public void insertAfter(T item) { // Efficiency: O(k + log c)
+			insert(item, false);
+		}
+
+		@Override
+		public void remove() { // Efficiency: O(k + log c)
+			checkCurrent();
+			P6List<T> chunk = writable(chunkNum);
+			chunk.removeIndex(offset - 1);
+			chunks.resized(chunkNum, -1);
+			offset--;
+			index--;
+			if (chunk.size() < Math.max(1, lowWater)) {
+				rebalance(chunkNum);
+				seek();
+			}
+			hasCurrent = false;
+			changed();
+		}
+
+		@Override
+		public T set(T item) { // Efficiency: O(1)
+			checkCurrent();
+			return writable(chunkNum).setIndex(item, offset - 1);
+		}
+
+		/**
+		 * Add an item at the cursor, inside this chunk if it has room, and
+		 * step over it if asked to.
+		 */
+		private void insert(T item, boolean stepOver) { // Efficiency: O(k + log c)
+			checkForChanges();
+			if (chunks.sizeOf(chunkNum) < chunkSize) {
+				writable(chunkNum).addIndex(item, offset);
+				chunks.resized(chunkNum, 1);
+				if (stepOver) {
+					offset++;
+					index++;
+				}
+			} else {
+				// the chunk has to split; let the list do it
+				addIndex(item, index);
+				if (stepOver) {
+					index++;
+				}
+				seek();
+			}
+			hasCurrent = false;
+			changed();
+		}
+
+		/**
+		 * Find chunkNum and offset again from index, after the chunks moved.
+		 * The cursor ends up at the back of the chunk holding the item before
+		 * it, so that item is still at offset - 1.
+		 */
+		private void seek() { // Efficiency: O(log c)
+			if (index == 0) {
+				chunkNum = 0;
+				offset = 0;
+			} else {
+				chunkNum = chunks.find(index - 1);
+				offset = index - chunks.startOf(chunkNum);
+			}
+		}
+
+		private void changed() { // Efficiency: O(1)
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+		private void checkCurrent() { // Efficiency: O(1)
+			checkForChanges();
+			if (!hasCurrent) {
+				throw new IllegalStateException("call next() first");
+			}
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Make an empty chunk, on or off the heap (or from the store) depending on
+	 * how this list was created.
+	 *
+	 * @return a chunk with room for chunkSize items.
+	 */
+	private P6List<T> newChunk() { // Efficiency: O(k)
+		ListProbe.chunkAllocated();
+		if (this.store != null) {
+			return this.store.newChunk();
+		}
+		if (this.codec == null) {
+			return new FixedSizeList<T>(chunkSize);
+		}
+		return new OffHeapChunk<T>(chunkSize, codec);
+	}
+
+	/**
+	 * Take a chunk out of the directory, giving it back to the store if there is
+	 * one.
+	 *
+	 * @param chunkNum - which chunk to drop.
+	 */
+	private void dropChunk(int chunkNum) { // Efficiency: O(log c), O(c) in the middle of the directory
+		P6List<T> dropped = this.chunks.remove(chunkNum);
+		if (this.store != null) {
+			this.store.release(dropped);
+		}
+	}
+
+	/**
+	 * Get a chunk in order to change it. If a snapshot might still be reading
+	 * it, it is copied first and the copy takes its place in the directory.
+	 *
+	 * @param chunkNum - which chunk.
+	 * @return that chunk, which this list alone can see.
+	 */
+	private P6List<T> writable(int chunkNum) { // Efficiency: O(1), or O(k) the first time a shared chunk changes
+		P6List<T> chunk = this.chunks.get(chunkNum);
+		if (!this.chunks.isShared(chunkNum)) {
+			return chunk;
+		}
+		P6List<T> copy = this.newChunk();
+		for (T item : chunk) {
+			copy.addBack(item);
+		}
+		this.chunks.set(chunkNum, copy);
+		return copy;
+	}
+
+	/**
+	 * Move the back half of a chunk into a new chunk right after it.
+	 *
+	 * @param chunkNum - which chunk to split.
+	 */
+	private void split(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle of the directory
+		P6List<T> chunk = this.writable(chunkNum);
+		P6List<T> newChunk = this.newChunk();
+		int moved = (chunk.size() + 1) / 2;
+		for (int i = 0; i < moved; i++) {
+			newChunk.addFront(chunk.removeBack());
+		}
+		this.chunks.resized(chunkNum, -moved);
+		this.chunks.insert(chunkNum + 1, newChunk, moved);
+	}
+
+	/**
+	 * After removing from a chunk, get rid of it if it is empty, and merge it
+	 * with a neighbor (or borrow items from one) if it is below the low-water
+	 * mark.
+	 *
+	 * @param chunkNum - the chunk that just lost an item.
+	 */
+	private void rebalance(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle of the directory
+		if (this.chunks.count() == 1) {
+			return;
+		}
+		P6List<T> chunk = this.chunks.get(chunkNum);
+		if (chunk.isEmpty()) {
+			this.dropChunk(chunkNum);
+			return;
+		}
+		if (chunk.size() >= lowWater) {
+			return;
+		}
+		// look at the chunk together with the neighbor after it (or before it, at the end)
+		int left = chunkNum + 1 < this.chunks.count() ? chunkNum : chunkNum - 1;
+		P6List<T> leftChunk = this.chunks.get(left);
+		P6List<T> rightChunk = this.chunks.get(left + 1);
+		int combined = leftChunk.size() + rightChunk.size();
+		if (combined <= chunkSize - lowWater) {
+			// merge: pour the smaller chunk into the bigger one, drop the empty one.
+			if (leftChunk.size() >= rightChunk.size()) {
+				moveAcross(left, rightChunk.size(), true);
+				this.dropChunk(left + 1);
+			} else {
+				moveAcross(left, leftChunk.size(), false);
+				this.dropChunk(left);
+			}
+		} else {
+			// borrow: even the two chunks out so neither is near the mark.
+			int half = combined / 2;
+			if (leftChunk.size() > half) {
+				moveAcross(left, leftChunk.size() - half, false);
+			} else {
+				moveAcross(left, rightChunk.size() - (combined - half), true);
+			}
+		}
+	}
+
+	/**
+	 * Move items across the boundary between two neighboring chunks.
+	 *
+	 * @param left     - the first of the two chunks; the other is left + 1.
+	 * @param howMany  - how many items to move.
+	 * @param leftward - true to move the front of the right chunk onto the back
+	 *                 of the left chunk, false for the other way around.
+	 */
+	private void moveAcross(int left, int howMany, boolean leftward) { // Efficiency: O(howMany + log c), plus O(k) to copy a shared chunk
+		P6List<T> leftChunk = this.writable(left);
+		P6List<T> rightChunk = this.writable(left + 1);
+		for (int i = 0; i < howMany; i++) {
+			if (leftward) {
+				leftChunk.addBack(rightChunk.removeFront());
+			} else {
+				rightChunk.addFront(leftChunk.removeBack());
+			}
+		}
+		int delta = leftward ? howMany : -howMany;
+		this.chunks.resized(left, delta);
+		this.chunks.resized(left + 1, -delta);
+	}
+
+	/**
+	 * @param chunkNum - which chunk, from 0 to chunkCount() (excluding
+	 *                 chunkCount()).
+	 * @return that chunk.
+	 */
+	P6List<T> chunk(int chunkNum) { // Efficiency: O(1)
+		return this.chunks.get(chunkNum);
+	}
+
+	/**
+	 * @return how many chunks this list is using right now.
+	 */
+	int chunkCount() { // Efficiency: O(1)
+		return this.chunks.count();
+	}
+
+	/**
+	 * Check that the directory agrees with the chunks and that the chunks are
+	 * balanced. This is for tests; it throws IllegalStateException when
+	 * something is wrong.
+	 */
+	void checkInvariants() { // Efficiency: O(c)
 		int total = 0;
-		for (FixedSizeList<T> chunk : this.chunks) {
+		for (int c = 0; c < this.chunks.count(); c++) {
+			P6List<T> chunk = this.chunks.get(c);
+			if (chunk.size() != this.chunks.sizeOf(c) || this.chunks.startOf(c) != total) {
+				throw new IllegalStateException("directory is out of date at chunk " + c);
+			}
+			if (chunk.size() > chunkSize) {
+				throw new IllegalStateException("chunk " + c + " is over-full");
+			}
+			if (this.chunks.count() > 1 && chunk.isEmpty()) {
+				throw new IllegalStateException("chunk " + c + " is empty");
+			}
+			if (c > 0 && c < this.chunks.count() - 1 && chunk.size() < lowWater) {
+				throw new IllegalStateException("chunk " + c + " is below the low-water mark");
+			}
 			total += chunk.size();
 		}
-		return total;
+		if (total != this.chunks.total()) {
+			throw new IllegalStateException("total is out of date");
+		}
 	}
-	// Efficiency: O(1) 
-	@Override
-	public boolean isEmpty() {
-		return this.chunks.getFront().isEmpty();
+
+	/**
+	 * Helper method to throw the right error for a bad index.
+	 *
+	 * @param index   - the index we were given.
+	 * @param highest - the biggest index that makes sense.
+	 */
+	private void checkIndex(int index, int highest) { // Efficiency: O(1)
+		if (index < 0 || index > highest) {
+			throw new BadIndexError();
+		}
 	}
 }
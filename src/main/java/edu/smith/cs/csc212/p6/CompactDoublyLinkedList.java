@@ -0,0 +1,551 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A {@link DoublyLinkedList} without Node objects: the value, the next link and
+ * the previous link of each item live at the same slot of three arrays, and the
+ * links are slot numbers instead of references. That is 12 bytes a slot instead
+ * of a 24 byte node plus its reference, and a walk reads neighboring memory.
+ *
+ * Removed slots go on a free list and are reused. When the arrays fill up, or
+ * when more slots are free than in use, the items are copied back into slot
+ * order (item i in slot i); while nothing has been added or removed anywhere but
+ * the back since then, getIndex is O(1).
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class CompactDoublyLinkedList<T> implements P6List<T> {
+	public static final int START_SIZE = 32;
+	/**
+	 * The link that means "no slot": the end of the list or of the free list.
+	 */
+	private static final int NONE = -1;
+
+	private Object[] values;
+	private int[] next;
+	private int[] prev;
+	private int head;
+	private int tail;
+	private int size;
+	/**
+	 * Slots from used on have never been handed out since the last compaction.
+	 */
+	private int used;
+	/**
+	 * The first free slot below used; the rest follow through next.
+	 */
+	private int free;
+	/**
+	 * True when item i is in slot i for every item.
+	 */
+	private boolean ordered;
+	/**
+	 * Goes up every time items are added, removed or moved to other slots, so
+	 * an iterator can tell that the list changed underneath it.
+	 */
+	private int modCount;
+
+	public CompactDoublyLinkedList() {
+		this(START_SIZE);
+	}
+
+	/**
+	 * Make an empty list with room for some items already.
+	 *
+	 * @param initialCapacity - how many items fit before the first resize.
+	 */
+	public CompactDoublyLinkedList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+		}
+		this.values = new Object[initialCapacity];
+		this.next = new int[initialCapacity];
+		this.prev = new int[initialCapacity];
+		this.head = NONE;
+		this.tail = NONE;
+		this.size = 0;
+		this.used = 0;
+		this.free = NONE;
+		this.ordered = true;
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: O(1)
+		checkNotEmpty();
+		ordered = ordered && size == 1;
+		return unlink(head);
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: O(1)
+		checkNotEmpty();
+		return unlink(tail);
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: O(1) in slot order, O(min(index, n-index)) otherwise
+		checkNotEmpty();
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
+		ordered = ordered && index == size - 1;
+		return unlink(slotOf(index));
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: O(1)
+		addIndex(item, 0);
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: O(1), O(n) when the arrays are copied
+		addIndex(item, size);
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: O(1) at either end, O(min(index, n-index)) otherwise
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
+		// make room first; compacting moves items to new slots
+		ensureRoom(1);
+		int after = index == size ? NONE : slotOf(index);
+		int before = after == NONE ? tail : prev[after];
+		ordered = ordered && index == size;
+		int slot = allocate(item);
+		link(slot, slot, before, after);
+		size++;
+	}
+
+	@Override
+	public T getFront() { // Efficiency: O(1)
+		checkNotEmpty();
+		return value(head);
+	}
+
+	@Override
+	public T getBack() { // Efficiency: O(1)
+		checkNotEmpty();
+		return value(tail);
+	}
+
+	@Override
+	public T getIndex(int index) { // Efficiency: O(1) in slot order, O(min(index, n-index)) otherwise
+		checkNotEmpty();
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
+		return value(slotOf(index));
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(1) in slot order, O(min(index, n-index)) otherwise
+		checkNotEmpty();
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
+		int slot = slotOf(index);
+		T old = value(slot);
+		values[slot] = item;
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return size == 0;
+	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(min(index, n-index) + k), one splice for the whole batch
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		if (items.length == 0) {
+			return;
+		}
+		ensureRoom(items.length);
+		int after = index == size ? NONE : slotOf(index);
+		int before = after == NONE ? tail : prev[after];
+		ordered = ordered && index == size;
+		// chain the new slots together, then hook the chain in
+		int first = NONE;
+		int last = NONE;
+		for (Object value : items) {
+			@SuppressWarnings("unchecked")
+			int slot = allocate((T) value);
+			if (last == NONE) {
+				first = slot;
+			} else {
+				next[last] = slot;
+				prev[slot] = last;
+			}
+			last = slot;
+		}
+		link(first, last, before, after);
+		size += items.length;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(min(from, n-to) + (to-from)), one splice for the whole range
+		BulkItems.checkRange(from, to, size);
+		if (from == to) {
+			return;
+		}
+		ordered = ordered && to == size;
+		modCount++;
+		int first = slotOf(from);
+		int last = first;
+		for (int i = from + 1; i < to; i++) {
+			last = next[last];
+		}
+		ListProbe.hops(to - from - 1);
+		int before = prev[first];
+		int after = next[last];
+		if (before == NONE) {
+			head = after;
+		} else {
+			next[before] = after;
+		}
+		if (after == NONE) {
+			tail = before;
+		} else {
+			prev[after] = before;
+		}
+		// free them back to front, so a range at the back just lowers used
+		for (int slot = last, stop = before; slot != stop;) {
+			int previous = prev[slot];
+			release(slot);
+			slot = previous;
+		}
+		size -= to - from;
+		maybeCompact();
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(n) to let go of the values
+		modCount++;
+		Arrays.fill(values, 0, used, null);
+		head = NONE;
+		tail = NONE;
+		size = 0;
+		used = 0;
+		free = NONE;
+		ordered = true;
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, slots in order, with arrays exactly big enough for it.
+	 * 
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> CompactDoublyLinkedList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		CompactDoublyLinkedList<T> list = new CompactDoublyLinkedList<T>(snapshot.count());
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.addBack(snapshot.read());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Copy the items into slot order now, so that getIndex is O(1) and a walk
+	 * reads the arrays front to back.
+	 */
+	public void compact() { // Efficiency: O(n)
+		relayout(values.length);
+	}
+
+	@Override
+	public Iterator<T> iterator() { // Efficiency: O(1); each step is O(1) too
+		return new Iter();
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1)
+		if (ordered) {
+			// getIndex is O(1), so split by index like the array lists do
+			return new IndexSpliterator<T>(this, 0, size);
+		}
+		return P6List.super.spliterator();
+	}
+
+	/**
+	 * Walks the links front to back, so a for loop is O(n) in total.
+	 */
+	private class Iter implements Iterator<T> {
+		/**
+		 * The slot whose value next() returns.
+		 */
+		int slot = head;
+		private final int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			checkForChanges();
+			return slot != NONE;
+		}
+
+		@Override
+		public T next() {
+			checkForChanges();
+			if (slot == NONE) {
+				throw new NoSuchElementException();
+			}
+			T found = value(slot);
+			slot = CompactDoublyLinkedList.this.next[slot];
+			return found;
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Find the slot holding an item.
+	 *
+	 * @param index - a number from 0 to size (excluding size).
+	 * @return its slot.
+	 */
+	private int slotOf(int index) { // Efficiency: O(1) in slot order, O(min(index, n-index)) otherwise
+		if (ordered) {
+			return index;
+		}
+		if (index < size / 2) {
+			int slot = head;
+			for (int at = 0; at < index; at++) {
+				slot = next[slot];
+			}
+			ListProbe.hops(index);
+			return slot;
+		} else {
+			int slot = tail;
+			for (int at = size - 1; at > index; at--) {
+				slot = prev[slot];
+			}
+			ListProbe.hops(size - 1 - index);
+			return slot;
+		}
+	}
+
+	/**
+	 * Put a chain of slots between two others.
+	 *
+	 * @param first  - the first slot of the chain.
+	 * @param last   - the last slot of the chain.
+	 * @param before - the slot to put it after, or NONE for the front.
+	 * @param after  - the slot to put it before, or NONE for the back.
+	 */
+	private void link(int first, int last, int before, int after) { // Efficiency: O(1)
+		modCount++;
+		prev[first] = before;
+		next[last] = after;
+		if (before == NONE) {
+			head = first;
+		} else {
+			next[before] = first;
+		}
+		if (after == NONE) {
+			tail = last;
+		} else {
+			prev[after] = last;
+		}
+	}
+
+	/**
+	 * Take one slot out of the list and free it.
+	 *
+	 * @param slot - a slot in the list.
+	 * @return the value it held.
+	 */
+	private T unlink(int slot) { // Efficiency: O(1), O(n) when it compacts
+		modCount++;
+		int before = prev[slot];
+		int after = next[slot];
+		if (before == NONE) {
+			head = after;
+		} else {
+			next[before] = after;
+		}
+		if (after == NONE) {
+			tail = before;
+		} else {
+			prev[after] = before;
+		}
+		T removed = value(slot);
+		release(slot);
+		size--;
+		maybeCompact();
+		return removed;
+	}
+
+	/**
+	 * Hand out a slot, reusing a free one if there is one. Call
+	 * {@link #ensureRoom(int)} first.
+	 *
+	 * @param item - the value to put in it.
+	 * @return the slot.
+	 */
+	private int allocate(T item) { // Efficiency: O(1)
+		int slot;
+		if (free != NONE) {
+			slot = free;
+			free = next[slot];
+		} else {
+			slot = used++;
+		}
+		values[slot] = item;
+		return slot;
+	}
+
+	/**
+	 * Give a slot back, forgetting its value so it can be garbage collected.
+	 *
+	 * @param slot - a slot that is no longer in the list.
+	 */
+	private void release(int slot) { // Efficiency: O(1)
+		values[slot] = null;
+		if (slot == used - 1) {
+			used--;
+		} else {
+			next[slot] = free;
+			free = slot;
+		}
+	}
+
+	/**
+	 * Grow the arrays if fewer than extra slots are left, free or unused.
+	 *
+	 * @param extra - how many slots are about to be allocated.
+	 */
+	private void ensureRoom(int extra) { // Efficiency: O(1), O(n) when it grows
+		if (size + extra > values.length) {
+			relayout(Math.max(START_SIZE, Math.max(values.length * 2, size + extra)));
+		}
+	}
+
+	/**
+	 * After a remove, compact once more slots are free than in use, shrinking
+	 * the arrays if they are mostly empty. Each compaction follows at least n
+	 * removes, so it is O(1) amortized.
+	 */
+	private void maybeCompact() { // Efficiency: O(1) amortized
+		if (used - size > size && used > START_SIZE) {
+			int capacity = values.length;
+			if (size < capacity / 4) {
+				capacity = Math.max(START_SIZE, capacity / 2);
+			}
+			relayout(capacity);
+		}
+	}
+
+	/**
+	 * Copy the items into new arrays in list order, so item i is in slot i.
+	 *
+	 * @param capacity - how many slots the new arrays have (at least size).
+	 */
+	private void relayout(int capacity) { // Efficiency: O(n)
+		modCount++;
+		Object[] newValues = new Object[capacity];
+		int[] newNext = new int[capacity];
+		int[] newPrev = new int[capacity];
+		int i = 0;
+		for (int slot = head; slot != NONE; slot = next[slot], i++) {
+			newValues[i] = values[slot];
+			newNext[i] = i + 1;
+			newPrev[i] = i - 1;
+		}
+		if (size > 0) {
+			newNext[size - 1] = NONE;
+		}
+		this.values = newValues;
+		this.next = newNext;
+		this.prev = newPrev;
+		this.head = size == 0 ? NONE : 0;
+		this.tail = size - 1;
+		this.used = size;
+		this.free = NONE;
+		this.ordered = true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T value(int slot) { // Efficiency: O(1)
+		return (T) values[slot];
+	}
+
+	/**
+	 * @return how many slots the arrays have.
+	 */
+	int capacity() { // Efficiency: O(1)
+		return values.length;
+	}
+
+	/**
+	 * @return true if item i is in slot i for every item.
+	 */
+	boolean isOrdered() { // Efficiency: O(1)
+		return ordered;
+	}
+
+	/**
+	 * Check that the links agree in both directions and that every slot is
+	 * either in the list or free. This is for tests; it throws
+	 * IllegalStateException when something is wrong.
+	 */
+	void checkInvariants() { // Efficiency: O(n)
+		int count = 0;
+		int before = NONE;
+		for (int slot = head; slot != NONE; slot = next[slot]) {
+			if (prev[slot] != before) {
+				throw new IllegalStateException("prev of slot " + slot + " is wrong");
+			}
+			if (ordered && slot != count) {
+				throw new IllegalStateException("item " + count + " is not in its own slot");
+			}
+			before = slot;
+			count++;
+		}
+		if (before != tail || count != size) {
+			throw new IllegalStateException("tail or size is out of date");
+		}
+		int freeCount = 0;
+		for (int slot = free; slot != NONE; slot = next[slot]) {
+			if (slot >= used || values[slot] != null) {
+				throw new IllegalStateException("free slot " + slot + " is not free");
+			}
+			freeCount++;
+		}
+		if (size + freeCount != used) {
+			throw new IllegalStateException("some slots are lost");
+		}
+	}
+
+	private void checkNotEmpty() { // Efficiency: O(1)
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+	}
+}
@@ -0,0 +1,898 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A {@link ChunkyLinkedList} that many threads can use at once. Every chunk has
+ * its own lock, and an operation only locks the one chunk it touches, so
+ * threads working on different chunks (e.g. one at the front and one at the
+ * back) do not wait for each other.
+ *
+ * Adding or removing a whole chunk (a split, a merge, a new chunk at either
+ * end, or a chunk that became empty) takes a short structural lock that keeps
+ * everyone else out; every other operation shares that lock with the others.
+ *
+ * Chunk sizes are kept in a Fenwick tree of atomic counters, like
+ * {@link ChunkDirectory}, so finding the chunk for an index is O(log c). That
+ * lookup does not stop other threads from adding or removing in front of the
+ * index, so an index is only as exact as the operations racing with it allow;
+ * size() is likewise a snapshot that may already be out of date.
+ *
+ * The batch operations (addAllAt, removeRange, clear) hold the structural lock
+ * for the whole batch, so other threads see all of it or none of it.
+ *
+ * iterator() and spliterator() are weakly consistent, like the collections in
+ * java.util.concurrent: they copy out one chunk at a time, locking only that
+ * chunk, and never throw ConcurrentModificationException. They walk by index,
+ * so an item added or removed in front of a scan while it runs can make it
+ * repeat or miss an item near there. Use snapshot() to see the whole list as it
+ * was at one moment.
+ *
+ * @param <T> - the type of item stored in the list.
+ */
+public class ConcurrentChunkyLinkedList<T> implements P6List<T> {
+	/**
+	 * How many times an index lookup retries against a moving tree before it
+	 * takes the structural lock to get an exact answer.
+	 */
+	private static final int LOOKUP_TRIES = 4;
+	private static final int START_SLOTS = 8;
+
+	private final int chunkSize;
+	/**
+	 * A chunk in the middle with fewer items than this gets merged or refilled.
+	 */
+	private final int lowWater;
+	/**
+	 * Shared by every operation; held exclusively to add or remove chunks.
+	 */
+	private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+
+	// These only change under the exclusive (write) lock.
+	private Object[] slots;
+	private AtomicIntegerArray tree;
+	private int first;
+	private int count;
+
+	private final AtomicInteger total = new AtomicInteger();
+
+	/**
+	 * One chunk and the lock that guards its items.
+	 */
+	private static final class Chunk<T> {
+		final ReentrantLock lock = new ReentrantLock();
+		final FixedSizeList<T> items;
+
+		Chunk(int chunkSize) {
+			this.items = new FixedSizeList<T>(chunkSize);
+		}
+	}
+
+	public ConcurrentChunkyLinkedList(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		this.lowWater = chunkSize / 4;
+		this.slots = new Object[START_SLOTS];
+		this.tree = new AtomicIntegerArray(START_SLOTS + 1);
+		this.first = START_SLOTS / 2;
+		this.count = 0;
+		insertChunk(0, new Chunk<T>(chunkSize));
+	}
+
+	// Efficiency: O(log c); takes the structural lock when the first chunk empties.
+	@Override
+	public T removeFront() {
+		structure.readLock().lock();
+		try {
+			Chunk<T> chunk = chunk(0);
+			chunk.lock.lock();
+			try {
+				if (chunk.items.size() > 1 || (count == 1 && chunk.items.size() == 1)) {
+					T removed = chunk.items.removeFront();
+					counted(0, -1);
+					return removed;
+				}
+				if (count == 1) {
+					throw new EmptyListError();
+				}
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		return exclusiveRemove(Where.FRONT, 0);
+	}
+
+	// Efficiency: O(log c); takes the structural lock when the last chunk empties.
+	@Override
+	public T removeBack() {
+		structure.readLock().lock();
+		try {
+			int last = count - 1;
+			Chunk<T> chunk = chunk(last);
+			chunk.lock.lock();
+			try {
+				if (chunk.items.size() > 1 || (count == 1 && chunk.items.size() == 1)) {
+					T removed = chunk.items.removeBack();
+					counted(last, -1);
+					return removed;
+				}
+				if (count == 1) {
+					throw new EmptyListError();
+				}
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		return exclusiveRemove(Where.BACK, 0);
+	}
+
+	// Efficiency: O(log c + k); takes the structural lock to merge or drop a chunk.
+	@Override
+	public T removeIndex(int index) {
+		checkIndex(index, false);
+		structure.readLock().lock();
+		try {
+			for (int tries = 0; tries < LOOKUP_TRIES; tries++) {
+				int chunkNum = find(index);
+				if (chunkNum < 0 || chunkNum >= count) {
+					continue;
+				}
+				Chunk<T> chunk = chunk(chunkNum);
+				chunk.lock.lock();
+				try {
+					int offset = index - startOf(chunkNum);
+					int size = chunk.items.size();
+					if (offset < 0 || offset >= size) {
+						continue;
+					}
+					boolean end = chunkNum == 0 || chunkNum == count - 1;
+					if (size - 1 >= (end ? 1 : Math.max(1, lowWater))) {
+						T removed = chunk.items.removeIndex(offset);
+						counted(chunkNum, -1);
+						return removed;
+					}
+					// this chunk needs rebalancing afterwards.
+					break;
+				} finally {
+					chunk.lock.unlock();
+				}
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		return exclusiveRemove(Where.INDEX, index);
+	}
+
+	// Efficiency: O(log c); takes the structural lock when the first chunk is full.
+	@Override
+	public void addFront(T item) {
+		structure.readLock().lock();
+		try {
+			Chunk<T> chunk = chunk(0);
+			chunk.lock.lock();
+			try {
+				if (chunk.items.size() < chunkSize) {
+					chunk.items.addFront(item);
+					counted(0, 1);
+					return;
+				}
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		exclusiveAdd(item, Where.FRONT, 0);
+	}
+
+	// Efficiency: O(log c); takes the structural lock when the last chunk is full.
+	@Override
+	public void addBack(T item) {
+		structure.readLock().lock();
+		try {
+			int last = count - 1;
+			Chunk<T> chunk = chunk(last);
+			chunk.lock.lock();
+			try {
+				if (chunk.items.size() < chunkSize) {
+					chunk.items.addBack(item);
+					counted(last, 1);
+					return;
+				}
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		exclusiveAdd(item, Where.BACK, 0);
+	}
+
+	// Efficiency: O(log c + k); takes the structural lock to split a full chunk.
+	@Override
+	public void addIndex(T item, int index) {
+		checkIndex(index, true);
+		structure.readLock().lock();
+		try {
+			for (int tries = 0; tries < LOOKUP_TRIES; tries++) {
+				// the chunk holding the item before the index always has room to
+				// take the new one at its back, if it isn't full.
+				int chunkNum = index == 0 ? 0 : find(index - 1);
+				if (chunkNum < 0 || chunkNum >= count) {
+					continue;
+				}
+				Chunk<T> chunk = chunk(chunkNum);
+				chunk.lock.lock();
+				try {
+					int offset = index - startOf(chunkNum);
+					int size = chunk.items.size();
+					if (offset < 0 || offset > size) {
+						continue;
+					}
+					if (size < chunkSize) {
+						chunk.items.addIndex(item, offset);
+						counted(chunkNum, 1);
+						return;
+					}
+					// this chunk needs to split first.
+					break;
+				} finally {
+					chunk.lock.unlock();
+				}
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		exclusiveAdd(item, Where.INDEX, index);
+	}
+
+	// Efficiency: O(1)
+	@Override
+	public T getFront() {
+		structure.readLock().lock();
+		try {
+			Chunk<T> chunk = chunk(0);
+			chunk.lock.lock();
+			try {
+				return chunk.items.getFront();
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+	}
+
+	// Efficiency: O(1)
+	@Override
+	public T getBack() {
+		structure.readLock().lock();
+		try {
+			Chunk<T> chunk = chunk(count - 1);
+			chunk.lock.lock();
+			try {
+				return chunk.items.getBack();
+			} finally {
+				chunk.lock.unlock();
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+	}
+
+	// Efficiency: O(log c)
+	@Override
+	public T getIndex(int index) {
+		checkIndex(index, false);
+		structure.readLock().lock();
+		try {
+			for (int tries = 0; tries < LOOKUP_TRIES; tries++) {
+				int chunkNum = find(index);
+				if (chunkNum < 0 || chunkNum >= count) {
+					continue;
+				}
+				Chunk<T> chunk = chunk(chunkNum);
+				chunk.lock.lock();
+				try {
+					int offset = index - startOf(chunkNum);
+					if (offset >= 0 && offset < chunk.items.size()) {
+						return chunk.items.getIndex(offset);
+					}
+				} finally {
+					chunk.lock.unlock();
+				}
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		// the tree kept moving under us; look again with everyone else kept out.
+		structure.writeLock().lock();
+		try {
+			checkIndex(index, false);
+			int chunkNum = find(index);
+			return chunk(chunkNum).items.getIndex(index - startOf(chunkNum));
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	// Efficiency: O(log c); the item is swapped under its chunk's lock, in one step.
+	@Override
+	public T setIndex(T item, int index) {
+		checkIndex(index, false);
+		structure.readLock().lock();
+		try {
+			for (int tries = 0; tries < LOOKUP_TRIES; tries++) {
+				int chunkNum = find(index);
+				if (chunkNum < 0 || chunkNum >= count) {
+					continue;
+				}
+				Chunk<T> chunk = chunk(chunkNum);
+				chunk.lock.lock();
+				try {
+					int offset = index - startOf(chunkNum);
+					if (offset >= 0 && offset < chunk.items.size()) {
+						return chunk.items.setIndex(item, offset);
+					}
+				} finally {
+					chunk.lock.unlock();
+				}
+			}
+		} finally {
+			structure.readLock().unlock();
+		}
+		// the tree kept moving under us; look again with everyone else kept out.
+		structure.writeLock().lock();
+		try {
+			checkIndex(index, false);
+			int chunkNum = find(index);
+			return chunk(chunkNum).items.setIndex(item, index - startOf(chunkNum));
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	// Efficiency: O(1), but only a snapshot while other threads are working.
+	@Override
+	public int size() {
+		return total.get();
+	}
+
+	// Efficiency: O(1), but only a snapshot while other threads are working.
+	@Override
+	public boolean isEmpty() {
+		return total.get() == 0;
+	}
+
+	// Efficiency: O(k (log c + chunkSize)), with everyone else kept out.
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) {
+		// copy first: the source may be this list, and iterating it takes the lock too.
+		Object[] items = BulkItems.toArray(source);
+		structure.writeLock().lock();
+		try {
+			checkIndex(index, true);
+			for (Object item : items) {
+				@SuppressWarnings("unchecked")
+				T next = (T) item;
+				// the write lock is reentrant, so this adds inside the same batch.
+				exclusiveAdd(next, Where.INDEX, index++);
+			}
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	// Efficiency: O(k (log c + chunkSize)), with everyone else kept out.
+	@Override
+	public void removeRange(int from, int to) {
+		structure.writeLock().lock();
+		try {
+			BulkItems.checkRange(from, to, total.get());
+			for (int i = from; i < to; i++) {
+				exclusiveRemove(Where.INDEX, from);
+			}
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	// Efficiency: O(1), with everyone else kept out; the garbage collector takes the chunks.
+	@Override
+	public void clear() {
+		structure.writeLock().lock();
+		try {
+			this.slots = new Object[START_SLOTS];
+			this.tree = new AtomicIntegerArray(START_SLOTS + 1);
+			this.first = START_SLOTS / 2;
+			this.count = 0;
+			this.total.set(0);
+			insertChunk(0, new Chunk<T>(chunkSize));
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	// Efficiency: O(1); each step is O(1) amortized, plus O(log c) per chunk.
+	@Override
+	public Iterator<T> iterator() {
+		return Spliterators.iterator(spliterator());
+	}
+
+	// Efficiency: O(1); it splits by index range.
+	@Override
+	public Spliterator<T> spliterator() {
+		return new ChunkScan(0, total.get());
+	}
+
+	/**
+	 * Copy the whole list, with everyone else kept out for the copy, so it holds
+	 * the items as they were at one moment. The copy is a plain
+	 * {@link ChunkyLinkedList}, for one thread at a time.
+	 *
+	 * @return a new list with the same items.
+	 */
+	public ChunkyLinkedList<T> snapshot() { // Efficiency: O(n), with everyone else kept out
+		ChunkyLinkedList<T> copy = new ChunkyLinkedList<T>(chunkSize);
+		structure.writeLock().lock();
+		try {
+			for (int c = 0; c < count; c++) {
+				FixedSizeList<T> items = chunk(c).items;
+				for (int i = 0; i < items.size(); i++) {
+					copy.addBack(items.getIndex(i));
+				}
+			}
+		} finally {
+			structure.writeLock().unlock();
+		}
+		return copy;
+	}
+
+	/**
+	 * Walks a range of indexes one chunk at a time: it finds the chunk holding
+	 * the next index under the shared structural lock, and copies the rest of
+	 * that chunk into a small buffer under the chunk's own lock. Nobody waits on
+	 * it for longer than one chunk takes to copy.
+	 */
+	private class ChunkScan implements Spliterator<T> {
+		/**
+		 * The next index to copy from the list.
+		 */
+		private int index;
+		/**
+		 * One past the last index this scan covers; it stops sooner if the list
+		 * shrinks.
+		 */
+		private final int fence;
+		/**
+		 * Items already copied out, waiting to be handed over.
+		 */
+		private Object[] buffer;
+		private int bufferAt;
+		private int bufferEnd;
+
+		ChunkScan(int index, int fence) {
+			this.index = index;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) { // Efficiency: O(1) amortized
+			if (bufferAt == bufferEnd && !refill()) {
+				return false;
+			}
+			@SuppressWarnings("unchecked")
+			T item = (T) buffer[bufferAt];
+			buffer[bufferAt++] = null;
+			action.accept(item);
+			return true;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() { // Efficiency: O(1)
+			// only before it starts, so the front part really comes first.
+			int middle = (index + fence) >>> 1;
+			if (bufferAt < bufferEnd || middle <= index) {
+				return null;
+			}
+			Spliterator<T> front = new ChunkScan(index, middle);
+			index = middle;
+			return front;
+		}
+
+		@Override
+		public long estimateSize() { // Efficiency: O(1)
+			return Math.max(0, fence - index) + bufferEnd - bufferAt;
+		}
+
+		@Override
+		public int characteristics() { // Efficiency: O(1)
+			return Spliterator.ORDERED;
+		}
+
+		/**
+		 * Copy the rest of the chunk holding the next index into the buffer.
+		 *
+		 * @return false if the scan has reached its fence or the end of the list.
+		 */
+		private boolean refill() { // Efficiency: O(log c + k)
+			if (buffer == null) {
+				buffer = new Object[chunkSize];
+			}
+			bufferAt = 0;
+			bufferEnd = 0;
+			structure.readLock().lock();
+			try {
+				for (int tries = 0; tries < LOOKUP_TRIES; tries++) {
+					if (index >= fence || index >= total.get()) {
+						return false;
+					}
+					int chunkNum = find(index);
+					if (chunkNum < 0 || chunkNum >= count) {
+						continue;
+					}
+					Chunk<T> chunk = chunk(chunkNum);
+					chunk.lock.lock();
+					try {
+						int offset = index - startOf(chunkNum);
+						if (offset >= 0 && offset < chunk.items.size()) {
+							copyOut(chunk.items, offset);
+							return true;
+						}
+					} finally {
+						chunk.lock.unlock();
+					}
+				}
+			} finally {
+				structure.readLock().unlock();
+			}
+			// the tree kept moving under us; look again with everyone else kept out.
+			structure.writeLock().lock();
+			try {
+				if (index >= fence || index >= total.get()) {
+					return false;
+				}
+				int chunkNum = find(index);
+				copyOut(chunk(chunkNum).items, index - startOf(chunkNum));
+				return true;
+			} finally {
+				structure.writeLock().unlock();
+			}
+		}
+
+		private void copyOut(FixedSizeList<T> items, int offset) { // Efficiency: O(k)
+			int end = Math.min(items.size(), offset + (fence - index));
+			for (int i = offset; i < end; i++) {
+				buffer[bufferEnd++] = items.getIndex(i);
+			}
+			index += end - offset;
+		}
+	}
+
+	/**
+	 * Where an operation that needed the structural lock was aimed.
+	 */
+	private enum Where {
+		FRONT, BACK, INDEX
+	}
+
+	/**
+	 * Add with the structural lock held, splitting or adding chunks as needed.
+	 */
+	private void exclusiveAdd(T item, Where where, int index) { // Efficiency: O(log c + k), O(c) in the middle
+		structure.writeLock().lock();
+		try {
+			if (where == Where.FRONT) {
+				index = 0;
+			} else if (where == Where.BACK) {
+				index = total.get();
+			}
+			checkIndex(index, true);
+			int chunkNum;
+			int offset;
+			if (index == total.get()) {
+				chunkNum = count - 1;
+				offset = chunk(chunkNum).items.size();
+				if (offset == chunkSize) {
+					chunkNum++;
+					offset = 0;
+					insertChunk(chunkNum, new Chunk<T>(chunkSize));
+				}
+			} else if (index == 0 && chunk(0).items.size() == chunkSize) {
+				chunkNum = 0;
+				offset = 0;
+				insertChunk(0, new Chunk<T>(chunkSize));
+			} else {
+				chunkNum = find(index);
+				offset = index - startOf(chunkNum);
+				// on the boundary, the previous chunk may have room at its back
+				if (offset == 0 && chunkNum > 0 && chunk(chunkNum - 1).items.size() < chunkSize) {
+					chunkNum--;
+					offset = chunk(chunkNum).items.size();
+				}
+				if (chunk(chunkNum).items.size() == chunkSize) {
+					split(chunkNum);
+					int firstHalf = chunk(chunkNum).items.size();
+					if (offset > firstHalf) {
+						chunkNum++;
+						offset -= firstHalf;
+					}
+				}
+			}
+			chunk(chunkNum).items.addIndex(item, offset);
+			counted(chunkNum, 1);
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove with the structural lock held, then drop, merge or refill the
+	 * chunk that lost the item.
+	 */
+	private T exclusiveRemove(Where where, int index) { // Efficiency: O(log c + k), O(c) in the middle
+		structure.writeLock().lock();
+		try {
+			if (total.get() == 0) {
+				throw new EmptyListError();
+			}
+			if (where == Where.FRONT) {
+				index = 0;
+			} else if (where == Where.BACK) {
+				index = total.get() - 1;
+			}
+			checkIndex(index, false);
+			int chunkNum = find(index);
+			T removed = chunk(chunkNum).items.removeIndex(index - startOf(chunkNum));
+			counted(chunkNum, -1);
+			rebalance(chunkNum);
+			return removed;
+		} finally {
+			structure.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Same rules as {@link ChunkyLinkedList}: drop an empty chunk, and merge or
+	 * even out a chunk that fell below the low-water mark. Needs the structural
+	 * lock.
+	 */
+	private void rebalance(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle
+		if (count == 1) {
+			return;
+		}
+		FixedSizeList<T> items = chunk(chunkNum).items;
+		if (items.isEmpty()) {
+			removeChunk(chunkNum);
+			return;
+		}
+		if (items.size() >= lowWater) {
+			return;
+		}
+		int left = chunkNum + 1 < count ? chunkNum : chunkNum - 1;
+		FixedSizeList<T> leftItems = chunk(left).items;
+		FixedSizeList<T> rightItems = chunk(left + 1).items;
+		int combined = leftItems.size() + rightItems.size();
+		if (combined <= chunkSize - lowWater) {
+			int moved = rightItems.size();
+			while (!rightItems.isEmpty()) {
+				leftItems.addBack(rightItems.removeFront());
+			}
+			counted(left, moved);
+			counted(left + 1, -moved);
+			removeChunk(left + 1);
+		} else {
+			int half = combined / 2;
+			int moved = 0;
+			while (leftItems.size() > half) {
+				rightItems.addFront(leftItems.removeBack());
+				moved--;
+			}
+			while (leftItems.size() < half) {
+				leftItems.addBack(rightItems.removeFront());
+				moved++;
+			}
+			counted(left, moved);
+			counted(left + 1, -moved);
+		}
+	}
+
+	/**
+	 * Move the back half of a chunk into a new chunk after it. Needs the
+	 * structural lock.
+	 */
+	private void split(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle
+		// insert it empty first, since inserting in the middle rebuilds the tree.
+		insertChunk(chunkNum + 1, new Chunk<T>(chunkSize));
+		FixedSizeList<T> items = chunk(chunkNum).items;
+		FixedSizeList<T> newItems = chunk(chunkNum + 1).items;
+		int moved = (items.size() + 1) / 2;
+		for (int i = 0; i < moved; i++) {
+			newItems.addFront(items.removeBack());
+		}
+		counted(chunkNum, -moved);
+		counted(chunkNum + 1, moved);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Chunk<T> chunk(int chunkNum) { // Efficiency: O(1)
+		return (Chunk<T>) slots[first + chunkNum];
+	}
+
+	/**
+	 * Record that a chunk gained or lost items. Safe to call from any thread
+	 * holding that chunk's lock.
+	 */
+	private void counted(int chunkNum, int delta) { // Efficiency: O(log c)
+		total.addAndGet(delta);
+		for (int i = first + chunkNum + 1; i < tree.length(); i += i & -i) {
+			tree.addAndGet(i, delta);
+		}
+	}
+
+	/**
+	 * Which chunk holds the index-th item, according to the tree right now.
+	 */
+	private int find(int index) { // Efficiency: O(log c)
+		int pos = 0;
+		int rest = index;
+		int n = tree.length() - 1;
+		for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+			int next = pos + step;
+			if (next <= n) {
+				int here = tree.get(next);
+				if (here <= rest) {
+					pos = next;
+					rest -= here;
+				}
+			}
+		}
+		return pos - first;
+	}
+
+	/**
+	 * How many items are in front of a chunk, according to the tree right now.
+	 */
+	private int startOf(int chunkNum) { // Efficiency: O(log c)
+		int sum = 0;
+		for (int i = first + chunkNum; i > 0; i -= i & -i) {
+			sum += tree.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Put an empty chunk into the slots. Needs the structural lock (or the
+	 * constructor).
+	 */
+	private void insertChunk(int chunkNum, Chunk<T> chunk) { // Efficiency: O(1) at either end, O(c) in the middle
+		if (chunkNum == 0 && count > 0) {
+			if (first == 0) {
+				relayout();
+			}
+			first--;
+			slots[first] = chunk;
+		} else {
+			if (first + count == slots.length) {
+				relayout();
+			}
+			int at = first + chunkNum;
+			System.arraycopy(slots, at, slots, at + 1, count - chunkNum);
+			slots[at] = chunk;
+			if (chunkNum < count) {
+				count++;
+				rebuildTree();
+				return;
+			}
+		}
+		count++;
+	}
+
+	/**
+	 * Take an empty chunk out of the slots. Needs the structural lock.
+	 */
+	private void removeChunk(int chunkNum) { // Efficiency: O(1) at either end, O(c) in the middle
+		int at = first + chunkNum;
+		if (chunkNum == 0) {
+			slots[at] = null;
+			first++;
+			count--;
+		} else {
+			System.arraycopy(slots, at + 1, slots, at, count - chunkNum - 1);
+			slots[first + count - 1] = null;
+			count--;
+			if (chunkNum < count) {
+				rebuildTree();
+			}
+		}
+	}
+
+	/**
+	 * Spread the chunks out in the middle of (maybe twice as many) slots.
+	 */
+	private void relayout() { // Efficiency: O(c)
+		int capacity = slots.length;
+		if (2 * (count + 1) > capacity) {
+			capacity *= 2;
+		}
+		int newFirst = (capacity - count) / 2;
+		Object[] newSlots = new Object[capacity];
+		System.arraycopy(slots, first, newSlots, newFirst, count);
+		slots = newSlots;
+		first = newFirst;
+		tree = new AtomicIntegerArray(capacity + 1);
+		rebuildTree();
+	}
+
+	/**
+	 * Rebuild the tree from the chunk sizes. Needs the structural lock.
+	 */
+	private void rebuildTree() { // Efficiency: O(c)
+		int n = tree.length() - 1;
+		int[] sums = new int[n + 1];
+		for (int c = 0; c < count; c++) {
+			sums[first + c + 1] = chunk(c).items.size();
+		}
+		for (int i = 1; i <= n; i++) {
+			int parent = i + (i & -i);
+			if (parent <= n) {
+				sums[parent] += sums[i];
+			}
+			tree.set(i, sums[i]);
+		}
+	}
+
+	/**
+	 * Throw the right error for a bad index, as far as the current size can
+	 * tell.
+	 */
+	private void checkIndex(int index, boolean forAdd) { // Efficiency: O(1)
+		int size = total.get();
+		if (!forAdd && size == 0) {
+			throw new EmptyListError();
+		}
+		if (index < 0 || index > (forAdd ? size : size - 1)) {
+			throw new BadIndexError();
+		}
+	}
+
+	/**
+	 * Check that the tree agrees with the chunks and that the chunks are
+	 * balanced; for tests, with no other threads running.
+	 */
+	void checkInvariants() { // Efficiency: O(c)
+		int sum = 0;
+		for (int c = 0; c < count; c++) {
+			int size = chunk(c).items.size();
+			if (startOf(c) != sum) {
+				throw new IllegalStateException("tree is out of date at chunk " + c);
+			}
+			if (count > 1 && size == 0) {
+				throw new IllegalStateException("chunk " + c + " is empty");
+			}
+			if (c > 0 && c < count - 1 && size < lowWater) {
+				throw new IllegalStateException("chunk " + c + " is below the low-water mark");
+			}
+			sum += size;
+		}
+		if (sum != total.get()) {
+			throw new IllegalStateException("total is out of date");
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A lock-free deque made of the same before/after nodes as
+ * {@link DoublyLinkedList}, for many threads adding and removing at the ends
+ * (e.g. producers addBack, workers removeFront, stealers removeBack).
+ *
+ * This is Maged Michael's CAS deque: one immutable {@link Anchor} points at
+ * the front and back nodes and says whether a push is half done. A push swings
+ * the anchor to the new node first and links the old end node to it
+ * afterwards; any thread that sees a half-done push finishes it before doing
+ * its own work, so nobody ever waits on a lock. Removed nodes are simply left
+ * to the garbage collector, which is what keeps the anchor from ever seeing
+ * the same node come back (the ABA problem). The node left at the end points
+ * away from the removed one and the removed one lets go of its item, so a
+ * long-lived deque only keeps what is still in it.
+ *
+ * There is no indexing; size() is a running count that may be a little behind
+ * while other threads are working.
+ *
+ * @param <T> - the type of item stored in the deque; must not be null.
+ */
+public class ConcurrentDoublyLinkedDeque<T> {
+	private static final int STABLE = 0;
+	/**
+	 * A node was just put at the back; the node before it may not point at it
+	 * yet.
+	 */
+	private static final int BACK_PUSH = 1;
+	/**
+	 * A node was just put at the front; the node after it may not point at it
+	 * yet.
+	 */
+	private static final int FRONT_PUSH = 2;
+
+	private final AtomicReference<Anchor<T>> anchor;
+	private final LongAdder size = new LongAdder();
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Node, Node> BEFORE = AtomicReferenceFieldUpdater
+			.newUpdater(Node.class, Node.class, "before");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Node, Node> AFTER = AtomicReferenceFieldUpdater
+			.newUpdater(Node.class, Node.class, "after");
+
+	/**
+	 * A deque starts empty.
+	 */
+	public ConcurrentDoublyLinkedDeque() {
+		this.anchor = new AtomicReference<>(new Anchor<T>(null, null, STABLE));
+	}
+
+	public void addFront(T item) { // Efficiency: O(1), lock-free
+		Node<T> node = newNode(item);
+		while (true) {
+			Anchor<T> a = anchor.get();
+			if (a.start == null) {
+				if (anchor.compareAndSet(a, new Anchor<T>(node, node, STABLE))) {
+					break;
+				}
+			} else if (a.status == STABLE) {
+				node.after = a.start;
+				Anchor<T> pushed = new Anchor<T>(node, a.end, FRONT_PUSH);
+				if (anchor.compareAndSet(a, pushed)) {
+					stabilizeFront(pushed);
+					break;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+		size.increment();
+	}
+
+	public void addBack(T item) { // Efficiency: O(1), lock-free
+		Node<T> node = newNode(item);
+		while (true) {
+			Anchor<T> a = anchor.get();
+			if (a.end == null) {
+				if (anchor.compareAndSet(a, new Anchor<T>(node, node, STABLE))) {
+					break;
+				}
+			} else if (a.status == STABLE) {
+				node.before = a.end;
+				Anchor<T> pushed = new Anchor<T>(a.start, node, BACK_PUSH);
+				if (anchor.compareAndSet(a, pushed)) {
+					stabilizeBack(pushed);
+					break;
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+		size.increment();
+	}
+
+	/**
+	 * @return the front item, or null if the deque was empty.
+	 */
+	public T pollFront() { // Efficiency: O(1), lock-free
+		while (true) {
+			Anchor<T> a = anchor.get();
+			if (a.start == null) {
+				return null;
+			}
+			if (a.start == a.end) {
+				if (anchor.compareAndSet(a, new Anchor<T>(null, null, STABLE))) {
+					return taken(a.start);
+				}
+			} else if (a.status == STABLE) {
+				Node<T> next = a.start.after;
+				if (anchor.compareAndSet(a, new Anchor<T>(next, a.end, STABLE))) {
+					// a front push may already point next somewhere new; then leave it.
+					BEFORE.compareAndSet(next, a.start, null);
+					return taken(a.start);
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	/**
+	 * @return the back item, or null if the deque was empty.
+	 */
+	public T pollBack() { // Efficiency: O(1), lock-free
+		while (true) {
+			Anchor<T> a = anchor.get();
+			if (a.end == null) {
+				return null;
+			}
+			if (a.start == a.end) {
+				if (anchor.compareAndSet(a, new Anchor<T>(null, null, STABLE))) {
+					return taken(a.end);
+				}
+			} else if (a.status == STABLE) {
+				Node<T> previous = a.end.before;
+				if (anchor.compareAndSet(a, new Anchor<T>(a.start, previous, STABLE))) {
+					// a back push may already point previous somewhere new; then leave it.
+					AFTER.compareAndSet(previous, a.end, null);
+					return taken(a.end);
+				}
+			} else {
+				stabilize(a);
+			}
+		}
+	}
+
+	public T removeFront() { // Efficiency: O(1), lock-free
+		T removed = pollFront();
+		if (removed == null) {
+			throw new EmptyListError();
+		}
+		return removed;
+	}
+
+	public T removeBack() { // Efficiency: O(1), lock-free
+		T removed = pollBack();
+		if (removed == null) {
+			throw new EmptyListError();
+		}
+		return removed;
+	}
+
+	/**
+	 * @return how many items were in the deque recently; exact when no other
+	 *         thread is adding or removing.
+	 */
+	public int size() { // Efficiency: O(threads)
+		long count = size.sum();
+		return (int) Math.max(0, Math.min(count, Integer.MAX_VALUE));
+	}
+
+	public boolean isEmpty() { // Efficiency: O(1)
+		return anchor.get().start == null;
+	}
+
+	private Node<T> newNode(T item) { // Efficiency: O(1)
+		if (item == null) {
+			throw new IllegalArgumentException("ConcurrentDoublyLinkedDeque cannot hold null");
+		}
+		return new Node<T>(item);
+	}
+
+	/**
+	 * Count a node as removed and take its item out of it, so the node does not
+	 * keep the item alive.
+	 *
+	 * @param node - a node that this thread just took off one end.
+	 * @return its item.
+	 */
+	private T taken(Node<T> node) { // Efficiency: O(1)
+		size.decrement();
+		T value = node.value;
+		node.value = null;
+		return value;
+	}
+
+	/**
+	 * Count the nodes that can be reached from the front by following before,
+	 * and from the back by following after. Those are only ever nodes that were
+	 * removed but are still linked; this is for tests, with no other thread
+	 * working.
+	 *
+	 * @return how many there are.
+	 */
+	int staleLinks() { // Efficiency: O(stale nodes)
+		Anchor<T> a = anchor.get();
+		int count = 0;
+		for (Node<T> n = a.start == null ? null : a.start.before; n != null; n = n.before) {
+			count++;
+		}
+		for (Node<T> n = a.end == null ? null : a.end.after; n != null; n = n.after) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Finish somebody else's half-done push.
+	 */
+	private void stabilize(Anchor<T> a) { // Efficiency: O(1)
+		if (a.status == BACK_PUSH) {
+			stabilizeBack(a);
+		} else {
+			stabilizeFront(a);
+		}
+	}
+
+	/**
+	 * Point the old back node at the new one, then mark the anchor stable.
+	 */
+	private void stabilizeBack(Anchor<T> a) { // Efficiency: O(1)
+		Node<T> previous = a.end.before;
+		if (anchor.get() != a) {
+			return;
+		}
+		Node<T> previousAfter = previous.after;
+		if (previousAfter != a.end) {
+			if (anchor.get() != a) {
+				return;
+			}
+			if (!AFTER.compareAndSet(previous, previousAfter, a.end)) {
+				return;
+			}
+		}
+		anchor.compareAndSet(a, new Anchor<T>(a.start, a.end, STABLE));
+	}
+
+	/**
+	 * Point the old front node at the new one, then mark the anchor stable.
+	 */
+	private void stabilizeFront(Anchor<T> a) { // Efficiency: O(1)
+		Node<T> next = a.start.after;
+		if (anchor.get() != a) {
+			return;
+		}
+		Node<T> nextBefore = next.before;
+		if (nextBefore != a.start) {
+			if (anchor.get() != a) {
+				return;
+			}
+			if (!BEFORE.compareAndSet(next, nextBefore, a.start)) {
+				return;
+			}
+		}
+		anchor.compareAndSet(a, new Anchor<T>(a.start, a.end, STABLE));
+	}
+
+	/**
+	 * The front node, the back node and whether a push is half done; replaced
+	 * as a whole with one compareAndSet.
+	 */
+	private static final class Anchor<T> {
+		final Node<T> start;
+		final Node<T> end;
+		final int status;
+
+		Anchor(Node<T> start, Node<T> end, int status) {
+			this.start = start;
+			this.end = end;
+			this.status = status;
+		}
+	}
+
+	/**
+	 * Like the DoublyLinkedList node, but its links can be swapped with
+	 * compareAndSet.
+	 */
+	private static final class Node<T> {
+		volatile Node<T> before;
+		volatile Node<T> after;
+		/**
+		 * Set to null once the node is removed.
+		 */
+		T value;
+
+		Node(T value) {
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+import edu.smith.cs.csc212.p6.errors.RanOutOfSpaceError;
+
+/**
+ * A {@link FixedSizeList} of doubles that keeps them in a {@code double[]}
+ * instead of boxing each one into a Double. Use the methods ending in Double
+ * (getDouble, addBackDouble, ...) to avoid boxing entirely; the
+ * {@link P6List} methods still work but box and unbox on every call.
+ */
+public class DoubleFixedSizeList implements P6List<Double> {
+	private double[] array;
+	/**
+	 * Where in the array the front of the list is; the items wrap around.
+	 */
+	private int start;
+	private int fill;
+
+	public DoubleFixedSizeList(int maximumSize) {
+		this.array = new double[maximumSize];
+		this.start = 0;
+		this.fill = 0;
+	}
+
+	public double removeFrontDouble() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		double value = array[start];
+		start = wrap(start, 1);
+		fill--;
+		return value;
+	}
+
+	public double removeBackDouble() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		fill--;
+		return array[slot(fill)];
+	}
+
+	public double removeIndexDouble(int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		double removed = getDouble(index);
+		if (index < fill / 2) {
+			for (int i = index; i > 0; i--) {
+				array[slot(i)] = array[slot(i - 1)];
+			}
+			start = wrap(start, 1);
+		} else {
+			for (int i = index; i < fill - 1; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		}
+		fill--;
+		return removed;
+	}
+
+	public void addFrontDouble(double item) { // Efficiency: O(1)
+		if (fill >= array.length) {
+			throw new RanOutOfSpaceError();
+		}
+		start = wrap(start, -1);
+		array[start] = item;
+		fill++;
+	}
+
+	public void addBackDouble(double item) { // Efficiency: O(1)
+		if (fill >= array.length) {
+			throw new RanOutOfSpaceError();
+		}
+		array[slot(fill++)] = item;
+	}
+
+	public void addIndexDouble(double item, int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (fill >= array.length) {
+			throw new RanOutOfSpaceError();
+		}
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		if (index < fill / 2) {
+			start = wrap(start, -1);
+			for (int i = 0; i < index; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		} else {
+			for (int j = fill; j > index; j--) {
+				array[slot(j)] = array[slot(j - 1)];
+			}
+		}
+		array[slot(index)] = item;
+		fill++;
+	}
+
+	public double getFrontDouble() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return array[start];
+	}
+
+	public double getBackDouble() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return array[slot(fill - 1)];
+	}
+
+	public double getDouble(int index) { // Efficiency: O(1)
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		return array[slot(index)];
+	}
+
+	public double setDouble(double item, int index) { // Efficiency: O(1)
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		int slot = slot(index);
+		double old = array[slot];
+		array[slot] = item;
+		return old;
+	}
+
+	@Override
+	public Double removeFront() { // Efficiency: O(1)
+		return removeFrontDouble();
+	}
+
+	@Override
+	public Double removeBack() { // Efficiency: O(1)
+		return removeBackDouble();
+	}
+
+	@Override
+	public Double removeIndex(int index) { // Efficiency: O(min(index, n-index))
+		return removeIndexDouble(index);
+	}
+
+	@Override
+	public void addFront(Double item) { // Efficiency: O(1)
+		addFrontDouble(item);
+	}
+
+	@Override
+	public void addBack(Double item) { // Efficiency: O(1)
+		addBackDouble(item);
+	}
+
+	@Override
+	public void addIndex(Double item, int index) { // Efficiency: O(min(index, n-index))
+		addIndexDouble(item, index);
+	}
+
+	@Override
+	public Double getFront() { // Efficiency: O(1)
+		return getFrontDouble();
+	}
+
+	@Override
+	public Double getBack() { // Efficiency: O(1)
+		return getBackDouble();
+	}
+
+	@Override
+	public Double getIndex(int index) { // Efficiency: O(1)
+		return getDouble(index);
+	}
+
+	@Override
+	public Double setIndex(Double item, int index) { // Efficiency: O(1)
+		return setDouble(item, index);
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return fill;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return fill == 0;
+	}
+
+	@Override
+	public Spliterator<Double> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<Double>(this, 0, size());
+	}
+
+	private int slot(int index) { // Efficiency: O(1)
+		return wrap(start, index);
+	}
+
+	private int wrap(int position, int by) { // Efficiency: O(1)
+		if (by >= array.length - position) {
+			return by - (array.length - position);
+		}
+		if (by < -position) {
+			return position + by + array.length;
+		}
+		return position + by;
+	}
+}
@@ -1,18 +1,67 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
 
 public class DoublyLinkedList<T> implements P6List<T> {
 	private Node<T> start;
 	private Node<T> end;
+	/**
+	 * How many nodes there are, so size() doesn't need a loop.
+	 */
+	private int size;
+	/**
+	 * Goes up every time nodes are added or removed, so a cursor can tell that
+	 * the list changed underneath it.
+	 */
+	private int modCount;
+	/**
+	 * The node the last lookup by index stopped at, so the next lookup near it
+	 * can walk from there instead of from an end. It only counts while
+	 * fingerModCount is still modCount.
+	 */
+	private Node<T> finger;
+	private int fingerIndex;
+	private int fingerModCount;
+	/**
+	 * The most removed nodes this list keeps around to reuse; 0 turns recycling
+	 * off.
+	 */
+	private final int poolLimit;
+	/**
+	 * Removed nodes waiting to be reused, linked through their after fields.
+	 */
+	private Node<T> pool;
+	private int pooled;
 
 	/**
 	 * A doubly-linked list starts empty.
 	 */
 	public DoublyLinkedList() {
+		this(0);
+	}
+
+	/**
+	 * Make a list that recycles its nodes: up to poolLimit removed nodes are kept
+	 * on a free list and reused by the next adds, so a list that keeps adding and
+	 * removing stops making garbage.
+	 * 
+	 * @param poolLimit - how many spare nodes to keep, or 0 for none.
+	 */
+	public DoublyLinkedList(int poolLimit) {
+		if (poolLimit < 0) {
+			throw new IllegalArgumentException("poolLimit must not be negative: " + poolLimit);
+		}
 		this.start = null;
 		this.end = null;
+		this.size = 0;
+		this.poolLimit = poolLimit;
 	}
 
 	@Override
@@ -20,14 +69,21 @@ public class DoublyLinkedList<T> implements P6List<T> {
 		// checks if list is empty
 		checkNotEmpty();
 		// find the front
-		T removed = start.value;
+		Node<T> front = start;
+		T removed = front.value;
 		// set front to next value
 		start = start.after;
+		recycle(front);
 
 		// if the start is not pointing to null, point its before to null
 		if (start != null) {
 			start.before = null;
+		} else {
+			// that was the only node
+			end = null;
 		}
+		size--;
+		modCount++;
 		// return previous
 		return removed;
 
@@ -37,57 +93,53 @@ public class DoublyLinkedList<T> implements P6List<T> {
 	public T removeBack() { // Efficiency: O(1)
 		// if empty
 		checkNotEmpty();
-		// if there is only one value
-		if (this.size() == 1) {
-			T removed = start.value;
-			start = null;
-			return removed;
+		// find the back
+		Node<T> back = end;
+		T removed = back.value;
+		// set back to previous value
+		end = end.before;
+		recycle(back);
+		// if the end is not pointing to null, point it to null
+		if (end != null) {
+			end.after = null;
 		} else {
-			// find the back
-			T removed = end.value;
-			// set back to previous value
-			end = end.before;
-			// if the end is not pointing to null, point it to null
-			if (end != null) {
-				end.after = null;
-			}
-
-			// return our previous end
-			return removed;
+			// that was the only node
+			start = null;
 		}
+		size--;
+		modCount++;
+		// return our previous end
+		return removed;
 	}
 
 	@Override
-	public T removeIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T removeIndex(int index) { // Efficiency: O(min(index, n-index)) because we walk from the closer end, O(1) next to the last lookup
 		// if empty
 		checkNotEmpty();
+		// if the index doesn't exist
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
 
 		// if removing the first item
 		if (index == 0) {
 			return this.removeFront();
 		}
 		// if removing last item
-		if (index == this.size()) {
+		if (index == size - 1) {
 			return this.removeBack();
 		}
-		// if removing from the middle
-		// index counter
-		int at = 0;
-		// go through every node
-		for (Node<T> current = start; current != null; current = current.after) {
-			// find the node before the one we want to delete
-			if (at == index - 1) {
-				// save the node that will be deleted
-				T removed = current.after.value;
-				// set our current node to skip the one to be deleted
-				current.after = current.after.after;
-				// return deleted node
-				return removed;
-			}
-			at++;
-		}
-		// if nothing else could happen, your index doesn't exist
-		throw new BadIndexError();
+		// if removing from the middle, find the node
+		Node<T> removed = nodeAt(index);
+		// point its neighbors at each other, in both directions
+		removed.before.after = removed.after;
+		removed.after.before = removed.before;
+		size--;
+		modCount++;
+		pinFinger(removed.after, index);
+		T value = removed.value;
+		recycle(removed);
+		return value;
 	}
 
 	@Override
@@ -95,13 +147,18 @@ public class DoublyLinkedList<T> implements P6List<T> {
 		// save what it was before
 		Node<T> before = this.start;
 		// set start to the new node
-		this.start = new Node<T>(item);
+		this.start = newNode(item);
 		// set start to point to the previous start
 		start.after = before;
-		// if it's not pointing to null, point its before to null
-		if (start != null) {
-			start.before = null;
+		// point the previous start back at the new one
+		if (before != null) {
+			before.before = start;
+		} else {
+			// the first node is also the last one
+			end = start;
 		}
+		size++;
+		modCount++;
 	}
 
 	@Override
@@ -112,7 +169,7 @@ public class DoublyLinkedList<T> implements P6List<T> {
 			// otherwise
 		} else {	
 			//save the new node in a variable
-			Node<T> newNode = new Node<T>(item);
+			Node<T> newNode = newNode(item);
 			// set the before of the new node to the previous end
 			newNode.before = end;
 			// set the after of the new node to null
@@ -121,77 +178,80 @@ public class DoublyLinkedList<T> implements P6List<T> {
 			this.end.after = newNode;
 			// set the end to the new node
 			this.end = newNode;	
+			size++;
+			modCount++;
 		}
 	}
 
 	@Override
-	public void addIndex(T item, int index) { // Efficiency: O(n) because of for loop 
+	public void addIndex(T item, int index) { // Efficiency: O(min(index, n-index)) because we walk from the closer end, O(1) next to the last lookup
+		// if the index doesn't exist
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
 		// if adding at the front or to an empty list
-		if (index == 0 || this.isEmpty()) {
+		if (index == 0) {
 			addFront(item);
+		// if adding at the back
+		} else if (index == size) {
+			addBack(item);
 		} else {
-			// if adding in the middle
-			// index counter
-			int at = 0;
-			// go through every node
-			for (Node<T> current = start; current != null; current = current.after) {
-				// find the node before the one we want to add
-				if (at == index - 1) {
-					// save the new node in a variable
-					Node<T> newNode = new Node<T>(item);
-					// point new node's after to the node next to the current one
-					newNode.after = current.after;
-					// point new node's before to our current node
-					newNode.before = current;
-					// point the node after the current one back to our new node
-					current.after.before = newNode;
-					// point our current node to the new node
-					current.after = newNode;	
-				}
-				at++;
-			}
+			// if adding in the middle, find the node that will come after it
+			Node<T> current = nodeAt(index);
+			// save the new node in a variable
+			Node<T> newNode = newNode(item);
+			// point new node's after to the node at index now
+			newNode.after = current;
+			// point new node's before to the node in front of it
+			newNode.before = current.before;
+			// point the node in front of it to our new node
+			current.before.after = newNode;
+			// point the node at index back to our new node
+			current.before = newNode;
+			size++;
+			modCount++;
+			pinFinger(newNode, index);
 		}
 	}
 
 	@Override
 	public T getFront() { // Efficiency: O(1)
+		checkNotEmpty();
 		return start.value;
 	}
 
 	@Override
 	public T getBack() { // Efficiency: O(1)
+		checkNotEmpty();
 		return end.value;
 	}
 
 	@Override
-	public T getIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T getIndex(int index) { // Efficiency: O(min(index, n-index)) because we walk from the closer end, O(1) next to the last lookup
 		// if empty
-		if (this.isEmpty()) {
-			throw new EmptyListError();
-		} else {
-			// if the index exists
-			// index counter
-			int at = 0;
-			// go through every node
-			for (Node<T> current = start; current != null; current = current.after) {
-				// if we are at the given index
-				if (at == index) {
-					// return its value
-					return current.value;
-				}
-				at++;
-			} // we couldn't find the index
+		checkNotEmpty();
+		// if the index doesn't exist
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
 		}
-		throw new BadIndexError();
+		return nodeAt(index).value;
 	}
 
 	@Override
-	public int size() { // Efficiency: O(n) because of for loop 
-		int count = 0;
-		for (Node<T> n = start; n != null; n = n.after) {
-			count++;
+	public T setIndex(T item, int index) { // Efficiency: O(min(index, n-index)) because we walk from the closer end, O(1) next to the last lookup
+		checkNotEmpty();
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
 		}
-		return count;
+		Node<T> node = nodeAt(index);
+		T old = node.value;
+		node.value = item;
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1) because we keep count
+		return size;
 	}
 
 	@Override
@@ -199,6 +259,198 @@ public class DoublyLinkedList<T> implements P6List<T> {
 		return start == null;
 	}
 
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(min(index, n-index) + k), one splice for the whole batch
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		if (items.length == 0) {
+			return;
+		}
+		// build the new nodes into a chain of their own
+		Node<T> chainStart = null;
+		Node<T> chainEnd = null;
+		for (Object value : items) {
+			@SuppressWarnings("unchecked")
+			Node<T> newNode = newNode((T) value);
+			if (chainEnd == null) {
+				chainStart = newNode;
+			} else {
+				chainEnd.after = newNode;
+				newNode.before = chainEnd;
+			}
+			chainEnd = newNode;
+		}
+		// then hook it in between the nodes on either side of index
+		Node<T> after = index == size ? null : nodeAt(index);
+		Node<T> before = index == 0 ? null : (after == null ? end : after.before);
+		chainStart.before = before;
+		chainEnd.after = after;
+		if (before == null) {
+			start = chainStart;
+		} else {
+			before.after = chainStart;
+		}
+		if (after == null) {
+			end = chainEnd;
+		} else {
+			after.before = chainEnd;
+		}
+		size += items.length;
+		modCount++;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(min(from, n-to) + (to-from)), one splice for the whole range
+		BulkItems.checkRange(from, to, size);
+		if (from == to) {
+			return;
+		}
+		// find the nodes on either side of the range
+		Node<T> first = nodeAt(from);
+		Node<T> last = first;
+		for (int i = from + 1; i < to; i++) {
+			last = last.after;
+		}
+		ListProbe.hops(to - from - 1);
+		Node<T> before = first.before;
+		Node<T> after = last.after;
+		if (before == null) {
+			start = after;
+		} else {
+			before.after = after;
+		}
+		if (after == null) {
+			end = before;
+		} else {
+			after.before = before;
+		}
+		size -= to - from;
+		modCount++;
+		// keep as many of the removed nodes as the pool has room for
+		for (Node<T> current = first; current != after && pooled < poolLimit;) {
+			Node<T> next = current.after;
+			recycle(current);
+			current = next;
+		}
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(1), the garbage collector takes the nodes
+		start = null;
+		end = null;
+		finger = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, adding each item at the back.
+	 * 
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> DoublyLinkedList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		DoublyLinkedList<T> list = new DoublyLinkedList<T>();
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.addBack(snapshot.read());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Find the node at an index, walking from the start, the end or the finger,
+	 * whichever is closest. The finger stays on the node we found, so a loop
+	 * over the indexes in order (either way) takes one step each.
+	 * 
+	 * @param index - a number from 0 to size (excluding size).
+	 * @return the node at that index.
+	 */
+	private Node<T> nodeAt(int index) { // Efficiency: O(min(index, n-index, distance from the finger))
+		Node<T> current;
+		int at;
+		if (finger != null && fingerModCount == modCount
+				&& Math.abs(index - fingerIndex) < Math.min(index, size - 1 - index)) {
+			current = finger;
+			at = fingerIndex;
+		} else if (index < size / 2) {
+			current = start;
+			at = 0;
+		} else {
+			current = end;
+			at = size - 1;
+		}
+		ListProbe.hops(Math.abs(index - at));
+		for (; at < index; at++) {
+			current = current.after;
+		}
+		for (; at > index; at--) {
+			current = current.before;
+		}
+		pinFinger(current, index);
+		return current;
+	}
+
+	/**
+	 * Remember where a node is, until the next time nodes are added or removed.
+	 * 
+	 * @param node  - a node in the list.
+	 * @param index - where it is.
+	 */
+	private void pinFinger(Node<T> node, int index) { // Efficiency: O(1)
+		finger = node;
+		fingerIndex = index;
+		fingerModCount = modCount;
+	}
+
+	/**
+	 * Make a node, reusing one from the pool if there is one.
+	 * 
+	 * @param value - the value to put in it.
+	 * @return a node with no friends.
+	 */
+	private Node<T> newNode(T value) { // Efficiency: O(1)
+		Node<T> node = pool;
+		if (node == null) {
+			return new Node<T>(value);
+		}
+		pool = node.after;
+		pooled--;
+		node.value = value;
+		node.after = null;
+		return node;
+	}
+
+	/**
+	 * Put a removed node on the pool, if recycling is on and there is room.
+	 * 
+	 * @param node - a node that is no longer in the list.
+	 */
+	private void recycle(Node<T> node) { // Efficiency: O(1)
+		if (pooled >= poolLimit) {
+			return;
+		}
+		// forget the value so the pool does not keep it alive
+		node.value = null;
+		node.before = null;
+		node.after = pool;
+		pool = node;
+		pooled++;
+	}
+
+	/**
+	 * @return how many spare nodes are waiting on the pool.
+	 */
+	int pooled() { // Efficiency: O(1)
+		return pooled;
+	}
+
 	private void checkNotEmpty() { // Efficiency: O(1)
 		if (this.isEmpty()) {
 			throw new EmptyListError();
@@ -236,4 +488,184 @@ public class DoublyLinkedList<T> implements P6List<T> {
 			this.after = null;
 		}
 	}
+
+	/**
+	 * Walks the nodes front to back, so a for loop is O(n) in total instead of
+	 * calling getIndex for every item.
+	 *
+	 * @param <T> the type of the values stored.
+	 */
+	private static class Iter<T> implements Iterator<T> {
+		/**
+		 * The node whose value next() returns.
+		 */
+		Node<T> current;
+		/**
+		 * The list being looped over, to notice if it changes underneath us.
+		 */
+		final DoublyLinkedList<T> list;
+		final int expectedModCount;
+
+		public Iter(DoublyLinkedList<T> list) {
+			this.current = list.start;
+			this.list = list;
+			this.expectedModCount = list.modCount;
+		}
+
+		@Override
+		public boolean hasNext() {
+			checkForChanges();
+			return current != null;
+		}
+
+		@Override
+		public T next() {
+			checkForChanges();
+			if (current == null) {
+				throw new NoSuchElementException();
+			}
+			T found = current.value;
+			current = current.after;
+			return found;
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (list.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() { // Efficiency: O(1); each step is O(1) too
+		return new Iter<>(this);
+	}
+
+	/**
+	 * Make a cursor at the front of the list.
+	 * 
+	 * @return a cursor whose next() is the first item.
+	 */
+	public P6Cursor<T> cursor() { // Efficiency: O(1)
+		return new Cursor();
+	}
+
+	/**
+	 * Remembers the nodes on either side of it, so every edit is O(1).
+	 */
+	private class Cursor implements P6Cursor<T> {
+		/**
+		 * The node just before the cursor, or null at the front.
+		 */
+		Node<T> before;
+		/**
+		 * The node just after the cursor, or null at the back.
+		 */
+		Node<T> after = start;
+		/**
+		 * True when {@code before} is the current item.
+		 */
+		boolean hasCurrent;
+		int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() { // Efficiency: O(1)
+			checkForChanges();
+			return after != null;
+		}
+
+		@Override
+		public T next() { // Efficiency: O(1)
+			checkForChanges();
+			if (after == null) {
+				throw new NoSuchElementException();
+			}
+			before = after;
+			after = after.after;
+			hasCurrent = true;
+			return before.value;
+		}
+
+		@Override
+		public void insertBefore(T item) { // Efficiency: O(1)
+			before = link(item);
+		}
+
+		@Override
+		public void insertAfter(T item) { // Efficiency: O(1)
+			after = link(item);
+		}
+
+		@Override
+		public void remove() { // Efficiency: O(1)
+			checkCurrent();
+			// point the nodes on either side of the current one at each other
+			Node<T> removed = before;
+			before = removed.before;
+			if (before == null) {
+				start = after;
+			} else {
+				before.after = after;
+			}
+			if (after == null) {
+				end = before;
+			} else {
+				after.before = before;
+			}
+			hasCurrent = false;
+			size--;
+			changed();
+			recycle(removed);
+		}
+
+		@Override
+		public T set(T item) { // Efficiency: O(1)
+			checkCurrent();
+			T old = before.value;
+			before.value = item;
+			return old;
+		}
+
+		/**
+		 * Put a new node at the cursor, between before and after.
+		 */
+		private Node<T> link(T item) { // Efficiency: O(1)
+			checkForChanges();
+			Node<T> node = newNode(item);
+			node.before = before;
+			node.after = after;
+			if (before == null) {
+				start = node;
+			} else {
+				before.after = node;
+			}
+			if (after == null) {
+				end = node;
+			} else {
+				after.before = node;
+			}
+			hasCurrent = false;
+			size++;
+			changed();
+			return node;
+		}
+
+		private void changed() { // Efficiency: O(1)
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+		private void checkCurrent() { // Efficiency: O(1)
+			checkForChanges();
+			if (!hasCurrent) {
+				throw new IllegalStateException("call next() first");
+			}
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
 }
@@ -1,21 +1,43 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Spliterator;
+
 import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
 import edu.smith.cs.csc212.p6.errors.RanOutOfSpaceError;
 
+/**
+ * A list inside an array that never grows. The items are kept as a ring: item
+ * 0 lives at {@code array[start]} and later items wrap around past the end of
+ * the array, so both ends can be added to or removed from without shifting.
+ */
 public class FixedSizeList<T> implements P6List<T> {
 	private Object[] array;
+	/**
+	 * Where in the array the front of the list is.
+	 */
+	private int start;
 	private int fill;
 
 	public FixedSizeList(int maximumSize) {
 		this.array = new Object[maximumSize];
+		this.start = 0;
 		this.fill = 0;
 	}
 
 	@Override
-	public T removeFront() { // Efficiency: O(n) because removeIndex is O(n)
-		return removeIndex(0);
+	public T removeFront() { // Efficiency: O(1)
+		if (this.size() == 0) {
+			throw new EmptyListError();
+		}
+		T value = this.getIndex(0);
+		this.array[start] = null;
+		start = wrap(start, 1);
+		fill--;
+		return value;
 	}
 
 	@Override
@@ -25,48 +47,76 @@ public class FixedSizeList<T> implements P6List<T> {
 		}
 		T value = this.getIndex(fill - 1);
 		fill--;
-		this.array[fill] = null;
+		this.array[slot(fill)] = null;
 		return value;
 	}
 
 	@Override
-	public T removeIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T removeIndex(int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
 		if (this.size() == 0) {
 			throw new EmptyListError();
 		}
 		T removed = this.getIndex(index);
-		fill--;
-		for (int i = index; i < fill; i++) {
-			this.array[i] = this.array[i + 1];
+		ListProbe.shifts(index < fill / 2 ? index : fill - 1 - index);
+		if (index < fill / 2) {
+			// shift the front half right by one, over the removed item.
+			for (int i = index; i > 0; i--) {
+				this.array[slot(i)] = this.array[slot(i - 1)];
+			}
+			this.array[start] = null;
+			start = wrap(start, 1);
+		} else {
+			// shift the back half left by one, over the removed item.
+			for (int i = index; i < fill - 1; i++) {
+				this.array[slot(i)] = this.array[slot(i + 1)];
+			}
+			this.array[slot(fill - 1)] = null;
 		}
-		this.array[fill] = null;
+		fill--;
 		return removed;
 	}
 
 	@Override
-	public void addFront(T item) { // Efficiency: O(n) because addIndex is O(n)
-		addIndex(item, 0);
+	public void addFront(T item) { // Efficiency: O(1)
+		if (fill >= array.length) {
+			throw new RanOutOfSpaceError();
+		}
+		start = wrap(start, -1);
+		array[start] = item;
+		fill++;
 	}
 
 	@Override
 	public void addBack(T item) { // Efficiency: O(1)
 		if (fill < array.length) {
-			array[fill++] = item;
+			array[slot(fill++)] = item;
 		} else {
 			throw new RanOutOfSpaceError();
 		}
 	}
 
 	@Override
-	public void addIndex(T item, int index) {// Efficiency: O(n)  because of for loop 
+	public void addIndex(T item, int index) {// Efficiency: O(min(index, n-index)) because it shifts the closer end
 		if (fill >= array.length) {
 			throw new RanOutOfSpaceError();
 		}
-		// loop backwards, shifting items to the right.
-		for (int j = fill; j > index; j--) {
-			array[j] = array[j - 1];
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		ListProbe.shifts(index < fill / 2 ? index : fill - index);
+		if (index < fill / 2) {
+			// open a slot before the front and shift the front half left.
+			start = wrap(start, -1);
+			for (int i = 0; i < index; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		} else {
+			// loop backwards, shifting the back half to the right.
+			for (int j = fill; j > index; j--) {
+				array[slot(j)] = array[slot(j - 1)];
+			}
 		}
-		array[index] = item;
+		array[slot(index)] = item;
 		fill++;
 	}
 
@@ -81,7 +131,14 @@ public class FixedSizeList<T> implements P6List<T> {
 		if (index < 0 || index >= fill) {
 			throw new BadIndexError();
 		}
-		return (T) this.array[index];
+		return (T) this.array[slot(index)];
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(1)
+		T old = this.getIndex(index);
+		this.array[slot(index)] = item;
+		return old;
 	}
 
 	@Override
@@ -109,4 +166,137 @@ public class FixedSizeList<T> implements P6List<T> {
 		}
 		return this.getIndex(this.size() - 1);
 	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(k + min(index, n-index)), one shift for the whole batch
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		int k = items.length;
+		if (k > array.length - fill) {
+			throw new RanOutOfSpaceError();
+		}
+		ListProbe.shifts(index < fill / 2 ? index : fill - index);
+		if (index < fill / 2) {
+			// open k slots before the front and shift the front part left.
+			start = wrap(start, -k);
+			for (int i = 0; i < index; i++) {
+				array[slot(i)] = array[slot(i + k)];
+			}
+		} else {
+			// shift the back part right by k, starting from the end.
+			for (int j = fill - 1; j >= index; j--) {
+				array[slot(j + k)] = array[slot(j)];
+			}
+		}
+		for (int i = 0; i < k; i++) {
+			array[slot(index + i)] = items[i];
+		}
+		fill += k;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(k + min(from, n-to)), one shift for the whole range
+		BulkItems.checkRange(from, to, fill);
+		int k = to - from;
+		ListProbe.shifts(from < fill - to ? from : fill - to);
+		if (from < fill - to) {
+			// shift the front part right by k, over the removed items.
+			for (int i = from - 1; i >= 0; i--) {
+				array[slot(i + k)] = array[slot(i)];
+			}
+			for (int i = 0; i < k; i++) {
+				array[slot(i)] = null;
+			}
+			start = wrap(start, k);
+		} else {
+			// shift the back part left by k, over the removed items.
+			for (int i = to; i < fill; i++) {
+				array[slot(i - k)] = array[slot(i)];
+			}
+			for (int i = fill - k; i < fill; i++) {
+				array[slot(i)] = null;
+			}
+		}
+		fill -= k;
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(n)
+		for (int i = 0; i < fill; i++) {
+			array[slot(i)] = null;
+		}
+		start = 0;
+		fill = 0;
+	}
+
+	@Override
+	public void writeTo(WritableByteChannel out, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		// the capacity is saved too, so the list comes back with the same room
+		if (this.array.length > Math.max(2L * fill, Snapshot.MAX_FIXED_SPARE)) {
+			throw new IOException("a FixedSizeList with room for " + this.array.length + " items but only " + fill
+					+ " in it is too empty to save");
+		}
+		Snapshot.write(this, out, codec, Snapshot.FIXED, this.array.length);
+	}
+
+	/**
+	 * Load a list saved by {@link #writeTo}, straight into an array of the
+	 * capacity it was saved with (or just big enough, if another kind of list
+	 * saved it).
+	 * 
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> FixedSizeList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		int capacity = snapshot.count();
+		if (snapshot.kind() == Snapshot.FIXED) {
+			capacity = Math.max(capacity, snapshot.layout());
+		}
+		FixedSizeList<T> list = new FixedSizeList<T>(capacity);
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.array[list.fill++] = snapshot.read();
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<T>(this, 0, size());
+	}
+
+	/**
+	 * Find where the index-th item of the list lives in the array.
+	 * 
+	 * @param index - a position in the list, from 0 to size (including size).
+	 * @return a position in the array.
+	 */
+	private int slot(int index) { // Efficiency: O(1)
+		return wrap(start, index);
+	}
+
+	/**
+	 * Move a position in the array forwards or backwards, going around the end
+	 * of the array to the other side.
+	 * 
+	 * @param position - a position in the array.
+	 * @param by       - how far to move it, from -array.length to array.length.
+	 * @return the new position inside the array.
+	 */
+	private int wrap(int position, int by) { // Efficiency: O(1)
+		// compare with the room left instead of adding first, so huge arrays can't overflow
+		if (by >= array.length - position) {
+			return by - (array.length - position);
+		}
+		if (by < -position) {
+			return position + by + array.length;
+		}
+		return position + by;
+	}
 }
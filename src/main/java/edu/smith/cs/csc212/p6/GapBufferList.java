@@ -0,0 +1,292 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * An array list whose free space is a gap that sits wherever the last edit
+ * was, like the buffer of a text editor. The items before the gap are at the
+ * front of the array and the items after it are at the back.
+ *
+ * Adding or removing at the gap is O(1); editing somewhere else first moves the
+ * gap there, copying only the items in between. So a run of edits at or near
+ * one place (typing, deleting, a cursor that drifts) costs O(1) each, where
+ * {@link GrowableList} would shift half the list every time. Reads by index
+ * are O(1) either way.
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class GapBufferList<T> implements P6List<T> {
+	public static final int START_SIZE = 32;
+	/**
+	 * Some JVMs refuse to allocate arrays right up to Integer.MAX_VALUE.
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private Object[] array;
+	/**
+	 * The first free slot; the items before it are the front of the list.
+	 */
+	private int gapStart;
+	/**
+	 * The first item after the gap; from here to the end of the array is the
+	 * back of the list.
+	 */
+	private int gapEnd;
+
+	public GapBufferList() {
+		this(START_SIZE);
+	}
+
+	/**
+	 * Make an empty list with room for some items already.
+	 *
+	 * @param initialCapacity - how many items fit before the first resize.
+	 */
+	public GapBufferList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+		}
+		this.array = new Object[initialCapacity];
+		this.gapStart = 0;
+		this.gapEnd = initialCapacity;
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: O(1) if the gap is at the front, otherwise O(gap) to move it
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return removeIndex(0);
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: O(1) if the gap is at the back, otherwise O(n-gap) to move it
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return removeIndex(size() - 1);
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: O(1) at the gap, O(distance to the gap) elsewhere
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		T removed = this.getIndex(index);
+		moveGap(index);
+		// the removed item is the first one after the gap; the gap swallows it.
+		array[gapEnd++] = null;
+		return removed;
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: O(1) if the gap is at the front, otherwise O(gap) to move it
+		addIndex(item, 0);
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: O(1) if the gap is at the back, otherwise O(n-gap) to move it
+		addIndex(item, size());
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: O(1) amortized at the gap, O(distance to the gap) elsewhere
+		if (index < 0 || index > size()) {
+			throw new BadIndexError();
+		}
+		if (gapStart == gapEnd) {
+			grow(1);
+		}
+		moveGap(index);
+		array[gapStart++] = item;
+	}
+
+	@Override
+	public T getFront() { // Efficiency: O(1)
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return this.getIndex(0);
+	}
+
+	@Override
+	public T getBack() { // Efficiency: O(1)
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+		return this.getIndex(size() - 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T getIndex(int index) { // Efficiency: O(1)
+		if (index < 0 || index >= size()) {
+			throw new BadIndexError();
+		}
+		return (T) array[slot(index)];
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(1)
+		T old = this.getIndex(index);
+		array[slot(index)] = item;
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return array.length - (gapEnd - gapStart);
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return size() == 0;
+	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(k + distance to the gap), or O(n + k) when the array has to grow
+		if (index < 0 || index > size()) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		int k = items.length;
+		if (k > gapEnd - gapStart) {
+			grow(k);
+		}
+		moveGap(index);
+		System.arraycopy(items, 0, array, gapStart, k);
+		gapStart += k;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(k + distance to the gap), the gap swallows the whole range
+		BulkItems.checkRange(from, to, size());
+		moveGap(from);
+		Arrays.fill(array, gapEnd, gapEnd + (to - from), null);
+		gapEnd += to - from;
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(n)
+		Arrays.fill(array, null);
+		gapStart = 0;
+		gapEnd = array.length;
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, straight into an array
+	 * exactly big enough for it.
+	 *
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> GapBufferList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		GapBufferList<T> list = new GapBufferList<T>(snapshot.count());
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.array[list.gapStart++] = snapshot.read();
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<T>(this, 0, size());
+	}
+
+	/**
+	 * How many items fit before the array has to grow again.
+	 *
+	 * @return the length of the backing array.
+	 */
+	public int capacity() { // Efficiency: O(1)
+		return array.length;
+	}
+
+	/**
+	 * @return the index an add would go to without moving anything.
+	 */
+	int gap() { // Efficiency: O(1)
+		return gapStart;
+	}
+
+	/**
+	 * Check that the gap is inside the array and holds no old references. This
+	 * is for tests; it throws IllegalStateException when something is wrong.
+	 */
+	void checkInvariants() { // Efficiency: O(capacity)
+		if (gapStart < 0 || gapStart > gapEnd || gapEnd > array.length) {
+			throw new IllegalStateException("the gap is out of the array");
+		}
+		for (int i = gapStart; i < gapEnd; i++) {
+			if (array[i] != null) {
+				throw new IllegalStateException("slot " + i + " of the gap is not empty");
+			}
+		}
+	}
+
+	/**
+	 * Move the gap so that it starts at index, copying the items between the old
+	 * place and the new one across it.
+	 *
+	 * @param index - a position in the list, from 0 to size (including size).
+	 */
+	private void moveGap(int index) { // Efficiency: O(|index - gapStart|)
+		int gapSize = gapEnd - gapStart;
+		if (index < gapStart) {
+			// the items from index up to the gap move to just before gapEnd.
+			int moved = gapStart - index;
+			System.arraycopy(array, index, array, index + gapSize, moved);
+			Arrays.fill(array, index, Math.min(gapStart, index + gapSize), null);
+			ListProbe.shifts(moved);
+		} else if (index > gapStart) {
+			// the items from gapEnd onward move down to fill from gapStart.
+			int moved = index - gapStart;
+			System.arraycopy(array, gapEnd, array, gapStart, moved);
+			Arrays.fill(array, Math.max(gapEnd, index), index + gapSize, null);
+			ListProbe.shifts(moved);
+		}
+		gapStart = index;
+		gapEnd = index + gapSize;
+	}
+
+	/**
+	 * Make the gap at least extra slots wide, at least doubling the array.
+	 *
+	 * @param extra - how many items need to fit.
+	 */
+	private void grow(int extra) { // Efficiency: O(n)
+		int size = size();
+		if ((long) size + extra > MAX_CAPACITY) {
+			throw new OutOfMemoryError("GapBufferList cannot grow past " + MAX_CAPACITY);
+		}
+		long wanted = Math.max(Math.max((long) array.length * 2, (long) size + extra), START_SIZE);
+		Object[] bigger = new Object[(int) Math.min(wanted, MAX_CAPACITY)];
+		int back = array.length - gapEnd;
+		System.arraycopy(array, 0, bigger, 0, gapStart);
+		System.arraycopy(array, gapEnd, bigger, bigger.length - back, back);
+		ListProbe.shifts(size);
+		gapEnd = bigger.length - back;
+		array = bigger;
+	}
+
+	/**
+	 * Find where the index-th item of the list lives in the array.
+	 *
+	 * @param index - a position in the list, from 0 to size (excluding size).
+	 * @return a position in the array.
+	 */
+	private int slot(int index) { // Efficiency: O(1)
+		return index < gapStart ? index : index + (gapEnd - gapStart);
+	}
+}
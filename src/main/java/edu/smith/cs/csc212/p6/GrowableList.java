@@ -1,78 +1,172 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
-import edu.smith.cs.csc212.p6.errors.P6NotImplemented;
 
 public class GrowableList<T> implements P6List<T> {
 	public static final int START_SIZE = 32;
+	/**
+	 * By default the array doubles every time it fills up.
+	 */
+	public static final double DEFAULT_GROWTH_FACTOR = 2.0;
+	/**
+	 * Some JVMs refuse to allocate arrays right up to Integer.MAX_VALUE.
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
 	private Object[] array;
+	/**
+	 * Where in the array the front of the list is. Like {@link FixedSizeList},
+	 * the items form a ring that wraps around the end of the array.
+	 */
+	private int start;
 	private int fill;
-	
+	/**
+	 * How much bigger the array gets each time it runs out of room.
+	 */
+	private final double growthFactor;
+
 	public GrowableList() {
-		this.array = new Object[START_SIZE];
+		this(START_SIZE, DEFAULT_GROWTH_FACTOR);
+	}
+
+	/**
+	 * Make an empty list with room for some items already.
+	 * 
+	 * @param initialCapacity - how many items fit before the first resize.
+	 */
+	public GrowableList(int initialCapacity) {
+		this(initialCapacity, DEFAULT_GROWTH_FACTOR);
+	}
+
+	/**
+	 * Make an empty list with room for some items already.
+	 * 
+	 * @param initialCapacity - how many items fit before the first resize.
+	 * @param growthFactor    - the array is multiplied by this much when it is
+	 *                        full; must be bigger than 1.
+	 */
+	public GrowableList(int initialCapacity, double growthFactor) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+		}
+		if (!(growthFactor > 1.0)) {
+			throw new IllegalArgumentException("growthFactor must be bigger than 1: " + growthFactor);
+		}
+		this.array = new Object[initialCapacity];
+		this.start = 0;
 		this.fill = 0;
+		this.growthFactor = growthFactor;
 	}
 
 	@Override
-	public T removeFront() { // Efficiency: O(n) because it uses removeIndex which is O(n)
-		return removeIndex(0);
+	public T removeFront() { // Efficiency: O(1)
+		if (this.size() == 0) {
+			throw new EmptyListError();
+		}
+		T value = this.getIndex(0);
+		this.array[start] = null;
+		start = wrap(start, 1);
+		fill--;
+		return value;
 	}
 
 	@Override
-	public T removeBack() { // Efficiency: O(1)s
+	public T removeBack() { // Efficiency: O(1)
 		if (this.size() == 0) {
 			throw new EmptyListError();
-		} 	
-			T value = this.getIndex( fill - 1);
-			fill--;
-			this.array[fill] = null;
-			return value;
+		}
+		T value = this.getIndex(fill - 1);
+		fill--;
+		this.array[slot(fill)] = null;
+		return value;
 	}
 
 	@Override
-	public T removeIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T removeIndex(int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
 		if (this.size() == 0) {
 			throw new EmptyListError();
 		}
 		T removed = this.getIndex(index);
-		fill--;
-		for (int i=index; i<fill; i++) {
-			this.array[i] = this.array[i+1];
+		ListProbe.shifts(index < fill / 2 ? index : fill - 1 - index);
+		if (index < fill / 2) {
+			// shift the front half right by one, over the removed item.
+			for (int i = index; i > 0; i--) {
+				this.array[slot(i)] = this.array[slot(i - 1)];
+			}
+			this.array[start] = null;
+			start = wrap(start, 1);
+		} else {
+			// shift the back half left by one, over the removed item.
+			for (int i = index; i < fill - 1; i++) {
+				this.array[slot(i)] = this.array[slot(i + 1)];
+			}
+			this.array[slot(fill - 1)] = null;
 		}
-		this.array[fill] = null;
+		fill--;
 		return removed;
 	}
 
 	@Override
-	public void addFront(T item) { // Efficiency: O(n) it uses addIndex which is O(n)
-		addIndex( item, 0 );
+	public void addFront(T item) { // Efficiency: O(1) amortized; O(n) when the array has to grow
+		if (fill >= this.array.length) {
+			grow();
+		}
+		start = wrap(start, -1);
+		array[start] = item;
+		fill++;
 	}
 
 	@Override
-	public void addBack(T item) { // Efficiency: O(1)
-		// I've implemented part of this for you.
+	public void addBack(T item) { // Efficiency: O(1) amortized; O(n) when the array has to grow
 		if (fill >= this.array.length) { 
-			throw new P6NotImplemented();
+			grow();
 		}
-		this.array[fill++] = item;
+		this.array[slot(fill++)] = item;
 	}
 
 	@Override
-	public void addIndex(T item, int index) { // Efficiency: O(n) because of for loop 
-		for (int j=fill; j>index; j--) {
-			array[j] = array[j-1];
+	public void addIndex(T item, int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		if (fill >= this.array.length) {
+			grow();
+		}
+		ListProbe.shifts(index < fill / 2 ? index : fill - index);
+		if (index < fill / 2) {
+			// open a slot before the front and shift the front half left.
+			start = wrap(start, -1);
+			for (int i = 0; i < index; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		} else {
+			// loop backwards, shifting the back half to the right.
+			for (int j = fill; j > index; j--) {
+				array[slot(j)] = array[slot(j - 1)];
+			}
 		}
-			array[index] = item;
-			fill++;		
+		array[slot(index)] = item;
+		fill++;
 	}
 	
 	@Override
 	public T getFront() { // Efficiency: O(1)
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
 		return this.getIndex(0);
 	}
 
 	@Override
 	public T getBack() { // Efficiency: O(1)
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
 		return this.getIndex(this.fill-1);
 	}
 
@@ -84,7 +178,17 @@ public class GrowableList<T> implements P6List<T> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public T getIndex(int index) { // Efficiency: O(1)
-		return (T) this.array[index];
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		return (T) this.array[slot(index)];
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(1)
+		T old = this.getIndex(index);
+		this.array[slot(index)] = item;
+		return old;
 	}
 
 	@Override
@@ -97,5 +201,198 @@ public class GrowableList<T> implements P6List<T> {
 		return fill == 0;
 	}
 
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(k + min(index, n-index)), or O(n + k) when the array has to grow
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		int k = items.length;
+		if (k > this.array.length - fill) {
+			// grow once, leaving the gap for the batch in the new array.
+			long wanted = Math.max((long) fill + k, (long) (this.array.length * growthFactor));
+			if ((long) fill + k > MAX_CAPACITY) {
+				throw new OutOfMemoryError("GrowableList cannot grow past " + MAX_CAPACITY);
+			}
+			Object[] bigger = new Object[(int) Math.min(wanted, MAX_CAPACITY)];
+			for (int i = 0; i < index; i++) {
+				bigger[i] = this.array[slot(i)];
+			}
+			for (int i = index; i < fill; i++) {
+				bigger[i + k] = this.array[slot(i)];
+			}
+			ListProbe.shifts(fill);
+			this.array = bigger;
+			this.start = 0;
+		} else if (index < fill / 2) {
+			// open k slots before the front and shift the front part left.
+			start = wrap(start, -k);
+			for (int i = 0; i < index; i++) {
+				this.array[slot(i)] = this.array[slot(i + k)];
+			}
+			ListProbe.shifts(index);
+		} else {
+			// shift the back part right by k, starting from the end.
+			for (int j = fill - 1; j >= index; j--) {
+				this.array[slot(j + k)] = this.array[slot(j)];
+			}
+			ListProbe.shifts(fill - index);
+		}
+		for (int i = 0; i < k; i++) {
+			this.array[slot(index + i)] = items[i];
+		}
+		fill += k;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(k + min(from, n-to)), one shift for the whole range
+		BulkItems.checkRange(from, to, fill);
+		int k = to - from;
+		ListProbe.shifts(from < fill - to ? from : fill - to);
+		if (from < fill - to) {
+			// shift the front part right by k, over the removed items.
+			for (int i = from - 1; i >= 0; i--) {
+				this.array[slot(i + k)] = this.array[slot(i)];
+			}
+			for (int i = 0; i < k; i++) {
+				this.array[slot(i)] = null;
+			}
+			start = wrap(start, k);
+		} else {
+			// shift the back part left by k, over the removed items.
+			for (int i = to; i < fill; i++) {
+				this.array[slot(i - k)] = this.array[slot(i)];
+			}
+			for (int i = fill - k; i < fill; i++) {
+				this.array[slot(i)] = null;
+			}
+		}
+		fill -= k;
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(n)
+		for (int i = 0; i < fill; i++) {
+			this.array[slot(i)] = null;
+		}
+		start = 0;
+		fill = 0;
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, straight into an array
+	 * exactly big enough for it.
+	 * 
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> GrowableList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		GrowableList<T> list = new GrowableList<T>(snapshot.count());
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.array[list.fill++] = snapshot.read();
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<T>(this, 0, size());
+	}
+
+	/**
+	 * How many items fit before the array has to grow again.
+	 * 
+	 * @return the length of the backing array.
+	 */
+	public int capacity() { // Efficiency: O(1)
+		return this.array.length;
+	}
+
+	/**
+	 * Make sure at least {@code minCapacity} items fit without resizing; call
+	 * this before adding a big batch whose size you already know.
+	 * 
+	 * @param minCapacity - the number of items that should fit.
+	 */
+	public void ensureCapacity(int minCapacity) { // Efficiency: O(n) if it resizes, O(1) otherwise
+		if (minCapacity > this.array.length) {
+			resize(minCapacity);
+		}
+	}
+
+	/**
+	 * Shrink the array to exactly {@code size()}, giving the unused slots back
+	 * to the garbage collector (e.g., after removing most of a big list).
+	 */
+	public void trimToSize() { // Efficiency: O(n)
+		if (fill < this.array.length) {
+			resize(fill);
+		}
+	}
+
+	/**
+	 * Make room for at least one more item, multiplying the capacity by the
+	 * growth factor so that a run of addBack calls is O(1) amortized.
+	 */
+	private void grow() { // Efficiency: O(n)
+		int old = this.array.length;
+		if (old >= MAX_CAPACITY) {
+			throw new OutOfMemoryError("GrowableList cannot grow past " + MAX_CAPACITY);
+		}
+		long wanted = (long) (old * growthFactor);
+		// tiny arrays (and factors close to 1) might not grow at all otherwise.
+		wanted = Math.max(wanted, old + 1L);
+		resize((int) Math.min(wanted, MAX_CAPACITY));
+	}
+
+	/**
+	 * Copy the items into a new array of exactly this capacity, unwrapping the
+	 * ring so the front lands at index 0 again.
+	 * 
+	 * @param newCapacity - at least {@code size()}.
+	 */
+	private void resize(int newCapacity) { // Efficiency: O(n)
+		Object[] bigger = new Object[newCapacity];
+		int firstPart = Math.min(fill, this.array.length - start);
+		System.arraycopy(this.array, start, bigger, 0, firstPart);
+		System.arraycopy(this.array, 0, bigger, firstPart, fill - firstPart);
+		ListProbe.shifts(fill);
+		this.array = bigger;
+		this.start = 0;
+	}
+
+	/**
+	 * Find where the index-th item of the list lives in the array.
+	 * 
+	 * @param index - a position in the list, from 0 to size (including size).
+	 * @return a position in the array.
+	 */
+	private int slot(int index) { // Efficiency: O(1)
+		return wrap(start, index);
+	}
+
+	/**
+	 * Move a position in the array forwards or backwards, going around the end
+	 * of the array to the other side.
+	 * 
+	 * @param position - a position in the array.
+	 * @param by       - how far to move it, from -array.length to array.length.
+	 * @return the new position inside the array.
+	 */
+	private int wrap(int position, int by) { // Efficiency: O(1)
+		// compare with the room left instead of adding first, so huge arrays can't overflow
+		if (by >= array.length - position) {
+			return by - (array.length - position);
+		}
+		if (by < -position) {
+			return position + by + array.length;
+		}
+		return position + by;
+	}
 
 }
@@ -0,0 +1,63 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator for lists with an O(1) getIndex: it covers a range of indexes
+ * and splits by cutting the range in half, so a parallel stream gets even
+ * pieces without copying anything.
+ *
+ * @param <T> the type of item in the list.
+ */
+final class IndexSpliterator<T> implements Spliterator<T> {
+	private final P6List<T> list;
+	private int index;
+	/**
+	 * One past the last index this spliterator covers.
+	 */
+	private final int fence;
+
+	IndexSpliterator(P6List<T> list, int index, int fence) {
+		this.list = list;
+		this.index = index;
+		this.fence = fence;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) { // Efficiency: O(1)
+		if (index >= fence) {
+			return false;
+		}
+		action.accept(list.getIndex(index++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) { // Efficiency: O(n)
+		for (; index < fence; index++) {
+			action.accept(list.getIndex(index));
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() { // Efficiency: O(1)
+		int middle = (index + fence) >>> 1;
+		if (middle <= index) {
+			return null;
+		}
+		Spliterator<T> front = new IndexSpliterator<T>(list, index, middle);
+		index = middle;
+		return front;
+	}
+
+	@Override
+	public long estimateSize() { // Efficiency: O(1)
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() { // Efficiency: O(1)
+		return ORDERED | SIZED | SUBSIZED;
+	}
+}
@@ -0,0 +1,398 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Wraps any {@link P6List} and keeps, for each kind of call, how many times it
+ * was made and a histogram of how long it took. When {@link ListProbe} is
+ * enabled it also keeps how many node hops, element shifts and new chunks those
+ * calls cost inside the list.
+ *
+ * The counters are safe to bump from many threads at once, so a concurrent list
+ * can be wrapped too. Call {@link #report()} whenever the numbers should be
+ * dumped; it copies them, so the list can keep going.
+ *
+ * Loops (iterator, spliterator, streams) and writeTo go straight to the list
+ * and are not counted.
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class InstrumentedList<T> implements P6List<T> {
+	/**
+	 * The calls that are counted.
+	 */
+	public enum Op {
+		REMOVE_FRONT, REMOVE_BACK, REMOVE_INDEX, ADD_FRONT, ADD_BACK, ADD_INDEX, GET_FRONT, GET_BACK, GET_INDEX,
+		SET_INDEX, SIZE, IS_EMPTY, ADD_ALL_AT, REMOVE_RANGE, CLEAR
+	}
+
+	/**
+	 * Latency bucket b counts calls that took from 2^b to 2^(b+1) - 1 nanoseconds.
+	 */
+	static final int BUCKETS = 64;
+
+	private final P6List<T> list;
+	private final Counter[] counters;
+
+	/**
+	 * @param list - the list to count calls on; it should not be used directly
+	 *             afterwards, or those calls will be missed.
+	 */
+	public InstrumentedList(P6List<T> list) {
+		if (list == null) {
+			throw new IllegalArgumentException("list must not be null");
+		}
+		this.list = list;
+		this.counters = new Counter[Op.values().length];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = new Counter();
+		}
+	}
+
+	/**
+	 * @return the list being counted.
+	 */
+	public P6List<T> unwrap() { // Efficiency: O(1)
+		return list;
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: the list's, plus O(1)
+		return time(Op.REMOVE_FRONT, () -> list.removeFront());
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: the list's, plus O(1)
+		return time(Op.REMOVE_BACK, () -> list.removeBack());
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: the list's, plus O(1)
+		return time(Op.REMOVE_INDEX, () -> list.removeIndex(index));
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: the list's, plus O(1)
+		run(Op.ADD_FRONT, () -> list.addFront(item));
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: the list's, plus O(1)
+		run(Op.ADD_BACK, () -> list.addBack(item));
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: the list's, plus O(1)
+		run(Op.ADD_INDEX, () -> list.addIndex(item, index));
+	}
+
+	@Override
+	public T getFront() { // Efficiency: the list's, plus O(1)
+		return time(Op.GET_FRONT, () -> list.getFront());
+	}
+
+	@Override
+	public T getBack() { // Efficiency: the list's, plus O(1)
+		return time(Op.GET_BACK, () -> list.getBack());
+	}
+
+	@Override
+	public T getIndex(int index) { // Efficiency: the list's, plus O(1)
+		return time(Op.GET_INDEX, () -> list.getIndex(index));
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: the list's, plus O(1)
+		return time(Op.SET_INDEX, () -> list.setIndex(item, index));
+	}
+
+	@Override
+	public int size() { // Efficiency: the list's, plus O(1)
+		return time(Op.SIZE, () -> list.size());
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: the list's, plus O(1)
+		return time(Op.IS_EMPTY, () -> list.isEmpty());
+	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: the list's, plus O(1)
+		run(Op.ADD_ALL_AT, () -> list.addAllAt(index, source));
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: the list's, plus O(1)
+		run(Op.REMOVE_RANGE, () -> list.removeRange(from, to));
+	}
+
+	@Override
+	public void clear() { // Efficiency: the list's, plus O(1)
+		run(Op.CLEAR, () -> list.clear());
+	}
+
+	@Override
+	public void writeTo(WritableByteChannel out, RecordCodec<T> codec) throws IOException {
+		list.writeTo(out, codec);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return list.iterator();
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return list.spliterator();
+	}
+
+	/**
+	 * Copy every counter.
+	 *
+	 * @return what has been counted since this list was made or last reset.
+	 */
+	public Report report() { // Efficiency: O(1), it copies a fixed number of counters
+		Map<Op, Stats> stats = new EnumMap<Op, Stats>(Op.class);
+		for (Op op : Op.values()) {
+			stats.put(op, counters[op.ordinal()].stats());
+		}
+		return new Report(stats);
+	}
+
+	/**
+	 * Start every counter again from zero. Calls that are running at the same
+	 * time may be counted partly before and partly after.
+	 */
+	public void reset() { // Efficiency: O(1), it zeroes a fixed number of counters
+		for (Counter counter : counters) {
+			counter.reset();
+		}
+	}
+
+	/**
+	 * Make a call, counting it as op.
+	 */
+	private <R> R time(Op op, Supplier<R> call) {
+		ListProbe.Counts probe = ListProbe.ENABLED ? ListProbe.current() : null;
+		long hops = 0, shifts = 0, chunks = 0;
+		if (probe != null) {
+			hops = probe.hops();
+			shifts = probe.shifts();
+			chunks = probe.chunks();
+		}
+		long began = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			Counter counter = counters[op.ordinal()];
+			counter.record(System.nanoTime() - began);
+			if (probe != null) {
+				counter.probed(probe.hops() - hops, probe.shifts() - shifts, probe.chunks() - chunks);
+			}
+		}
+	}
+
+	private void run(Op op, Runnable call) {
+		time(op, () -> {
+			call.run();
+			return null;
+		});
+	}
+
+	/**
+	 * The live counters of one op.
+	 */
+	private static final class Counter {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder hops = new LongAdder();
+		private final LongAdder shifts = new LongAdder();
+		private final LongAdder chunks = new LongAdder();
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		void record(long took) {
+			calls.increment();
+			nanos.add(took);
+			buckets.incrementAndGet(bucket(took));
+		}
+
+		void probed(long hops, long shifts, long chunks) {
+			this.hops.add(hops);
+			this.shifts.add(shifts);
+			this.chunks.add(chunks);
+		}
+
+		Stats stats() {
+			long[] histogram = new long[BUCKETS];
+			for (int b = 0; b < BUCKETS; b++) {
+				histogram[b] = buckets.get(b);
+			}
+			return new Stats(calls.sum(), nanos.sum(), hops.sum(), shifts.sum(), chunks.sum(), histogram);
+		}
+
+		void reset() {
+			calls.reset();
+			nanos.reset();
+			hops.reset();
+			shifts.reset();
+			chunks.reset();
+			for (int b = 0; b < BUCKETS; b++) {
+				buckets.set(b, 0);
+			}
+		}
+	}
+
+	/**
+	 * @param nanos - how long a call took.
+	 * @return which latency bucket it goes in.
+	 */
+	static int bucket(long nanos) { // Efficiency: O(1)
+		return 63 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+	}
+
+	/**
+	 * What was counted for one op, copied at one moment.
+	 */
+	public static final class Stats {
+		private final long calls;
+		private final long nanos;
+		private final long hops;
+		private final long shifts;
+		private final long chunks;
+		private final long[] histogram;
+
+		Stats(long calls, long nanos, long hops, long shifts, long chunks, long[] histogram) {
+			this.calls = calls;
+			this.nanos = nanos;
+			this.hops = hops;
+			this.shifts = shifts;
+			this.chunks = chunks;
+			this.histogram = histogram;
+		}
+
+		public long calls() {
+			return calls;
+		}
+
+		/**
+		 * @return how long all the calls took together.
+		 */
+		public long totalNanos() {
+			return nanos;
+		}
+
+		public double meanNanos() {
+			return calls == 0 ? 0 : (double) nanos / calls;
+		}
+
+		/**
+		 * @return node hops, always 0 unless {@link ListProbe#ENABLED}.
+		 */
+		public long hops() {
+			return hops;
+		}
+
+		/**
+		 * @return element shifts, always 0 unless {@link ListProbe#ENABLED}.
+		 */
+		public long shifts() {
+			return shifts;
+		}
+
+		/**
+		 * @return chunks made, always 0 unless {@link ListProbe#ENABLED}.
+		 */
+		public long chunks() {
+			return chunks;
+		}
+
+		/**
+		 * @param b - a bucket from 0 to 63.
+		 * @return how many calls took from 2^b to 2^(b+1) - 1 nanoseconds.
+		 */
+		public long bucket(int b) {
+			return histogram[b];
+		}
+
+		/**
+		 * Read a percentile off the histogram; it is only as exact as the buckets,
+		 * so it can be up to twice the real value.
+		 *
+		 * @param p - from 0 to 1, e.g. 0.99.
+		 * @return the most nanoseconds the fastest p of the calls took, or 0 if
+		 *         there were none.
+		 */
+		public long percentileNanos(double p) { // Efficiency: O(1), there are 64 buckets
+			if (p < 0 || p > 1) {
+				throw new IllegalArgumentException("p must be from 0 to 1: " + p);
+			}
+			long seen = 0;
+			long total = 0;
+			for (long count : histogram) {
+				total += count;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long wanted = Math.max(1, (long) Math.ceil(p * total));
+			for (int b = 0; b < BUCKETS; b++) {
+				seen += histogram[b];
+				if (seen >= wanted) {
+					return b >= 62 ? Long.MAX_VALUE : (2L << b) - 1;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("calls=%d mean=%.0fns p50<=%dns p99<=%dns hops=%d shifts=%d chunks=%d", calls,
+					meanNanos(), percentileNanos(0.5), percentileNanos(0.99), hops, shifts, chunks);
+		}
+	}
+
+	/**
+	 * What was counted for every op, copied at one moment.
+	 */
+	public static final class Report {
+		private final Map<Op, Stats> stats;
+
+		Report(Map<Op, Stats> stats) {
+			this.stats = Collections.unmodifiableMap(stats);
+		}
+
+		public Stats get(Op op) {
+			return stats.get(op);
+		}
+
+		/**
+		 * @return the stats of every op, in the order of {@link Op}.
+		 */
+		public Map<Op, Stats> all() {
+			return stats;
+		}
+
+		/**
+		 * @return one line for each op that was called at least once.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder out = new StringBuilder();
+			for (Map.Entry<Op, Stats> entry : stats.entrySet()) {
+				if (entry.getValue().calls() > 0) {
+					out.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+				}
+			}
+			return out.toString();
+		}
+	}
+}
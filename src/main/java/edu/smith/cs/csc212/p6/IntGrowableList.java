@@ -0,0 +1,280 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A {@link GrowableList} of ints that keeps them in an {@code int[]} instead of
+ * boxing each one into an Integer. Use the methods ending in Int (getInt,
+ * addBackInt, ...) to avoid boxing entirely; the {@link P6List} methods still
+ * work but box and unbox on every call.
+ */
+public class IntGrowableList implements P6List<Integer> {
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private int[] array;
+	/**
+	 * Where in the array the front of the list is; the items wrap around.
+	 */
+	private int start;
+	private int fill;
+	/**
+	 * How much bigger the array gets each time it runs out of room.
+	 */
+	private final double growthFactor;
+
+	public IntGrowableList() {
+		this(GrowableList.START_SIZE, GrowableList.DEFAULT_GROWTH_FACTOR);
+	}
+
+	/**
+	 * Make an empty list with room for some items already.
+	 *
+	 * @param initialCapacity - how many items fit before the first resize.
+	 * @param growthFactor    - the array is multiplied by this much when it is
+	 *                        full; must be bigger than 1.
+	 */
+	public IntGrowableList(int initialCapacity, double growthFactor) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+		}
+		if (!(growthFactor > 1.0)) {
+			throw new IllegalArgumentException("growthFactor must be bigger than 1: " + growthFactor);
+		}
+		this.array = new int[initialCapacity];
+		this.start = 0;
+		this.fill = 0;
+		this.growthFactor = growthFactor;
+	}
+
+	public int removeFrontInt() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		int value = array[start];
+		start = wrap(start, 1);
+		fill--;
+		return value;
+	}
+
+	public int removeBackInt() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		fill--;
+		return array[slot(fill)];
+	}
+
+	public int removeIndexInt(int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		int removed = getInt(index);
+		if (index < fill / 2) {
+			for (int i = index; i > 0; i--) {
+				array[slot(i)] = array[slot(i - 1)];
+			}
+			start = wrap(start, 1);
+		} else {
+			for (int i = index; i < fill - 1; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		}
+		fill--;
+		return removed;
+	}
+
+	public void addFrontInt(int item) { // Efficiency: O(1) amortized
+		if (fill >= array.length) {
+			grow();
+		}
+		start = wrap(start, -1);
+		array[start] = item;
+		fill++;
+	}
+
+	public void addBackInt(int item) { // Efficiency: O(1) amortized
+		if (fill >= array.length) {
+			grow();
+		}
+		array[slot(fill++)] = item;
+	}
+
+	public void addIndexInt(int item, int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		if (fill >= array.length) {
+			grow();
+		}
+		if (index < fill / 2) {
+			start = wrap(start, -1);
+			for (int i = 0; i < index; i++) {
+				array[slot(i)] = array[slot(i + 1)];
+			}
+		} else {
+			for (int j = fill; j > index; j--) {
+				array[slot(j)] = array[slot(j - 1)];
+			}
+		}
+		array[slot(index)] = item;
+		fill++;
+	}
+
+	public int getFrontInt() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return array[start];
+	}
+
+	public int getBackInt() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return array[slot(fill - 1)];
+	}
+
+	public int getInt(int index) { // Efficiency: O(1)
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		return array[slot(index)];
+	}
+
+	public int setInt(int item, int index) { // Efficiency: O(1)
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		int slot = slot(index);
+		int old = array[slot];
+		array[slot] = item;
+		return old;
+	}
+
+	@Override
+	public Integer removeFront() { // Efficiency: O(1)
+		return removeFrontInt();
+	}
+
+	@Override
+	public Integer removeBack() { // Efficiency: O(1)
+		return removeBackInt();
+	}
+
+	@Override
+	public Integer removeIndex(int index) { // Efficiency: O(min(index, n-index))
+		return removeIndexInt(index);
+	}
+
+	@Override
+	public void addFront(Integer item) { // Efficiency: O(1) amortized
+		addFrontInt(item);
+	}
+
+	@Override
+	public void addBack(Integer item) { // Efficiency: O(1) amortized
+		addBackInt(item);
+	}
+
+	@Override
+	public void addIndex(Integer item, int index) { // Efficiency: O(min(index, n-index))
+		addIndexInt(item, index);
+	}
+
+	@Override
+	public Integer getFront() { // Efficiency: O(1)
+		return getFrontInt();
+	}
+
+	@Override
+	public Integer getBack() { // Efficiency: O(1)
+		return getBackInt();
+	}
+
+	@Override
+	public Integer getIndex(int index) { // Efficiency: O(1)
+		return getInt(index);
+	}
+
+	@Override
+	public Integer setIndex(Integer item, int index) { // Efficiency: O(1)
+		return setInt(item, index);
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return fill;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return fill == 0;
+	}
+
+	@Override
+	public Spliterator<Integer> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<Integer>(this, 0, size());
+	}
+
+	/**
+	 * @return the length of the backing array.
+	 */
+	public int capacity() { // Efficiency: O(1)
+		return array.length;
+	}
+
+	/**
+	 * Make sure at least {@code minCapacity} items fit without resizing.
+	 *
+	 * @param minCapacity - the number of items that should fit.
+	 */
+	public void ensureCapacity(int minCapacity) { // Efficiency: O(n) if it resizes, O(1) otherwise
+		if (minCapacity > array.length) {
+			resize(minCapacity);
+		}
+	}
+
+	/**
+	 * Shrink the array to exactly {@code size()}.
+	 */
+	public void trimToSize() { // Efficiency: O(n)
+		if (fill < array.length) {
+			resize(fill);
+		}
+	}
+
+	private void grow() { // Efficiency: O(n)
+		int old = array.length;
+		if (old >= MAX_CAPACITY) {
+			throw new OutOfMemoryError("IntGrowableList cannot grow past " + MAX_CAPACITY);
+		}
+		long wanted = Math.max((long) (old * growthFactor), old + 1L);
+		resize((int) Math.min(wanted, MAX_CAPACITY));
+	}
+
+	private void resize(int newCapacity) { // Efficiency: O(n)
+		int[] bigger = new int[newCapacity];
+		int firstPart = Math.min(fill, array.length - start);
+		System.arraycopy(array, start, bigger, 0, firstPart);
+		System.arraycopy(array, 0, bigger, firstPart, fill - firstPart);
+		array = bigger;
+		start = 0;
+	}
+
+	private int slot(int index) { // Efficiency: O(1)
+		return wrap(start, index);
+	}
+
+	private int wrap(int position, int by) { // Efficiency: O(1)
+		if (by >= array.length - position) {
+			return by - (array.length - position);
+		}
+		if (by < -position) {
+			return position + by + array.length;
+		}
+		return position + by;
+	}
+}
@@ -0,0 +1,86 @@
+package edu.smith.cs.csc212.p6;
+
+/**
+ * Counters the lists bump from inside their own loops: how many nodes a walk
+ * stepped over, how many array elements were shifted, how many chunks were
+ * made. {@link InstrumentedList} reads them around each call to see how much
+ * work that call really did.
+ *
+ * They only count when the JVM is started with {@code -Dp6.instrument=true}.
+ * Otherwise {@link #ENABLED} is a false constant, and the JIT drops every call
+ * to this class as dead code, so the lists pay nothing for it.
+ *
+ * Counts are kept per thread, so calls on other threads don't get mixed in.
+ */
+public final class ListProbe {
+	private ListProbe() {
+		// static counters only.
+	}
+
+	/**
+	 * Whether the counters count; read once, when this class is loaded.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("p6.instrument");
+
+	private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+	/**
+	 * @param n - how many nodes a walk just stepped over.
+	 */
+	static void hops(int n) { // Efficiency: O(1)
+		if (ENABLED) {
+			COUNTS.get().hops += n;
+		}
+	}
+
+	/**
+	 * @param n - how many array elements just moved to make or close a gap.
+	 */
+	static void shifts(int n) { // Efficiency: O(1)
+		if (ENABLED) {
+			COUNTS.get().shifts += n;
+		}
+	}
+
+	/**
+	 * A chunk was just made.
+	 */
+	static void chunkAllocated() { // Efficiency: O(1)
+		if (ENABLED) {
+			COUNTS.get().chunks++;
+		}
+	}
+
+	/**
+	 * @return this thread's counts since it started; they keep going up, so
+	 *         compare two reads to measure what happened in between.
+	 */
+	public static Counts current() { // Efficiency: O(1)
+		return COUNTS.get();
+	}
+
+	/**
+	 * The running totals of one thread.
+	 */
+	public static final class Counts {
+		private long hops;
+		private long shifts;
+		private long chunks;
+
+		private Counts() {
+			// one per thread, made by ListProbe.
+		}
+
+		public long hops() {
+			return hops;
+		}
+
+		public long shifts() {
+			return shifts;
+		}
+
+		public long chunks() {
+			return chunks;
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package edu.smith.cs.csc212.p6;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A {@link ChunkyLinkedList} of longs where every chunk is a plain
+ * {@code long[]} instead of a list of boxed Longs. Use the methods ending in
+ * Long (getLong, addBackLong, ...) to avoid boxing entirely; the
+ * {@link P6List} methods still work but box and unbox on every call.
+ *
+ * Each chunk keeps its items packed at the front of its array, and the
+ * {@link ChunkDirectory} remembers how many there are. Chunks are split and
+ * merged the same way as in {@link ChunkyLinkedList}. In the efficiency
+ * comments, c is the number of chunks and k is the chunkSize.
+ */
+public class LongChunkyList implements P6List<Long> {
+	private final int chunkSize;
+	/**
+	 * A chunk with fewer items than this gets merged or refilled.
+	 */
+	private final int lowWater;
+	private final ChunkDirectory<long[]> chunks;
+
+	public LongChunkyList(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		this.lowWater = chunkSize / 4;
+		this.chunks = new ChunkDirectory<>();
+		this.chunks.insert(0, new long[chunkSize], 0);
+	}
+
+	public long removeFrontLong() { // Efficiency: O(k + log c)
+		checkNotEmpty();
+		return removeFrom(0, 0);
+	}
+
+	public long removeBackLong() { // Efficiency: O(log c)
+		checkNotEmpty();
+		int last = chunks.count() - 1;
+		return removeFrom(last, chunks.sizeOf(last) - 1);
+	}
+
+	public long removeIndexLong(int index) { // Efficiency: O(k + log c)
+		checkNotEmpty();
+		checkIndex(index, size() - 1);
+		int chunkNum = chunks.find(index);
+		return removeFrom(chunkNum, index - chunks.startOf(chunkNum));
+	}
+
+	public void addFrontLong(long item) { // Efficiency: O(k + log c)
+		if (chunks.sizeOf(0) == chunkSize) {
+			chunks.insert(0, new long[chunkSize], 0);
+		}
+		addTo(0, 0, item);
+	}
+
+	public void addBackLong(long item) { // Efficiency: O(log c)
+		int last = chunks.count() - 1;
+		if (chunks.sizeOf(last) == chunkSize) {
+			last++;
+			chunks.insert(last, new long[chunkSize], 0);
+		}
+		addTo(last, chunks.sizeOf(last), item);
+	}
+
+	public void addIndexLong(long item, int index) { // Efficiency: O(k + log c), O(c) when a chunk splits in the middle
+		checkIndex(index, size());
+		if (index == size()) {
+			addBackLong(item);
+			return;
+		}
+		int chunkNum = chunks.find(index);
+		int offset = index - chunks.startOf(chunkNum);
+		// on the boundary, the previous chunk may have room at its back
+		if (offset == 0 && chunkNum > 0 && chunks.sizeOf(chunkNum - 1) < chunkSize) {
+			chunkNum--;
+			offset = chunks.sizeOf(chunkNum);
+		}
+		// if the chunk is full, split it in half
+		if (chunks.sizeOf(chunkNum) == chunkSize) {
+			split(chunkNum);
+			int firstHalf = chunks.sizeOf(chunkNum);
+			if (offset > firstHalf) {
+				chunkNum++;
+				offset -= firstHalf;
+			}
+		}
+		addTo(chunkNum, offset, item);
+	}
+
+	public long getFrontLong() { // Efficiency: O(1)
+		checkNotEmpty();
+		return chunks.get(0)[0];
+	}
+
+	public long getBackLong() { // Efficiency: O(1)
+		checkNotEmpty();
+		int last = chunks.count() - 1;
+		return chunks.get(last)[chunks.sizeOf(last) - 1];
+	}
+
+	public long getLong(int index) { // Efficiency: O(log c)
+		checkNotEmpty();
+		checkIndex(index, size() - 1);
+		int chunkNum = chunks.find(index);
+		return chunks.get(chunkNum)[index - chunks.startOf(chunkNum)];
+	}
+
+	public long setLong(long item, int index) { // Efficiency: O(log c)
+		checkNotEmpty();
+		checkIndex(index, size() - 1);
+		int chunkNum = chunks.find(index);
+		long[] chunk = chunks.get(chunkNum);
+		int offset = index - chunks.startOf(chunkNum);
+		long old = chunk[offset];
+		chunk[offset] = item;
+		return old;
+	}
+
+	@Override
+	public Long removeFront() { // Efficiency: O(k + log c)
+		return removeFrontLong();
+	}
+
+	@Override
+	public Long removeBack() { // Efficiency: O(log c)
+		return removeBackLong();
+	}
+
+	@Override
+	public Long removeIndex(int index) { // Efficiency: O(k + log c)
+		return removeIndexLong(index);
+	}
+
+	@Override
+	public void addFront(Long item) { // Efficiency: O(k + log c)
+		addFrontLong(item);
+	}
+
+	@Override
+	public void addBack(Long item) { // Efficiency: O(log c)
+		addBackLong(item);
+	}
+
+	@Override
+	public void addIndex(Long item, int index) { // Efficiency: O(k + log c)
+		addIndexLong(item, index);
+	}
+
+	@Override
+	public Long getFront() { // Efficiency: O(1)
+		return getFrontLong();
+	}
+
+	@Override
+	public Long getBack() { // Efficiency: O(1)
+		return getBackLong();
+	}
+
+	@Override
+	public Long getIndex(int index) { // Efficiency: O(log c)
+		return getLong(index);
+	}
+
+	@Override
+	public Long setIndex(Long item, int index) { // Efficiency: O(log c)
+		return setLong(item, index);
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return chunks.total();
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return chunks.total() == 0;
+	}
+
+	/**
+	 * Put an item into a chunk that has room, shifting the ones after it.
+	 */
+	private void addTo(int chunkNum, int offset, long item) { // Efficiency: O(k + log c)
+		long[] chunk = chunks.get(chunkNum);
+		int fill = chunks.sizeOf(chunkNum);
+		System.arraycopy(chunk, offset, chunk, offset + 1, fill - offset);
+		chunk[offset] = item;
+		chunks.resized(chunkNum, 1);
+	}
+
+	/**
+	 * Take an item out of a chunk, shifting the ones after it, then rebalance.
+	 */
+	private long removeFrom(int chunkNum, int offset) { // Efficiency: O(k + log c)
+		long[] chunk = chunks.get(chunkNum);
+		int fill = chunks.sizeOf(chunkNum);
+		long removed = chunk[offset];
+		System.arraycopy(chunk, offset + 1, chunk, offset, fill - offset - 1);
+		chunks.resized(chunkNum, -1);
+		rebalance(chunkNum);
+		return removed;
+	}
+
+	/**
+	 * Move the back half of a chunk into a new chunk right after it.
+	 */
+	private void split(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle of the directory
+		long[] chunk = chunks.get(chunkNum);
+		int fill = chunks.sizeOf(chunkNum);
+		int moved = (fill + 1) / 2;
+		long[] newChunk = new long[chunkSize];
+		System.arraycopy(chunk, fill - moved, newChunk, 0, moved);
+		chunks.resized(chunkNum, -moved);
+		chunks.insert(chunkNum + 1, newChunk, moved);
+	}
+
+	/**
+	 * Drop a chunk that became empty; merge or refill one below the low-water
+	 * mark, just like {@link ChunkyLinkedList}.
+	 */
+	private void rebalance(int chunkNum) { // Efficiency: O(k + log c), O(c) in the middle of the directory
+		if (chunks.count() == 1) {
+			return;
+		}
+		int fill = chunks.sizeOf(chunkNum);
+		if (fill == 0) {
+			chunks.remove(chunkNum);
+			return;
+		}
+		if (fill >= lowWater) {
+			return;
+		}
+		int left = chunkNum + 1 < chunks.count() ? chunkNum : chunkNum - 1;
+		long[] leftChunk = chunks.get(left);
+		long[] rightChunk = chunks.get(left + 1);
+		int leftFill = chunks.sizeOf(left);
+		int rightFill = chunks.sizeOf(left + 1);
+		int combined = leftFill + rightFill;
+		if (combined <= chunkSize - lowWater) {
+			// merge: everything goes into the left chunk.
+			System.arraycopy(rightChunk, 0, leftChunk, leftFill, rightFill);
+			chunks.resized(left, rightFill);
+			chunks.resized(left + 1, -rightFill);
+			chunks.remove(left + 1);
+		} else if (leftFill > combined / 2) {
+			// borrow: the back of the left chunk moves to the front of the right one.
+			int moved = leftFill - combined / 2;
+			System.arraycopy(rightChunk, 0, rightChunk, moved, rightFill);
+			System.arraycopy(leftChunk, leftFill - moved, rightChunk, 0, moved);
+			chunks.resized(left, -moved);
+			chunks.resized(left + 1, moved);
+		} else {
+			// borrow: the front of the right chunk moves to the back of the left one.
+			int moved = rightFill - (combined - combined / 2);
+			System.arraycopy(rightChunk, 0, leftChunk, leftFill, moved);
+			System.arraycopy(rightChunk, moved, rightChunk, 0, rightFill - moved);
+			chunks.resized(left, moved);
+			chunks.resized(left + 1, -moved);
+		}
+	}
+
+	private void checkNotEmpty() { // Efficiency: O(1)
+		if (isEmpty()) {
+			throw new EmptyListError();
+		}
+	}
+
+	private void checkIndex(int index, int highest) { // Efficiency: O(1)
+		if (index < 0 || index > highest) {
+			throw new BadIndexError();
+		}
+	}
+}
@@ -0,0 +1,618 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link ChunkyLinkedList} that lives in a file, so it does not have to be
+ * rebuilt every time a program starts. Each chunk is one fixed-size page of the
+ * file, holding fixed-width records written by a {@link RecordCodec}. A
+ * directory, kept together in one run of pages, lists which page holds each
+ * chunk (in order, with where its records start and how many there are) and
+ * which pages are free; a header at the front of the file says where the
+ * directory is.
+ *
+ * Opening a file reads the header and the directory, in one read each; a page
+ * is mapped into memory the first time the list touches its chunk, and the
+ * operating system reads it in from there.
+ *
+ * The file always holds the list as it was at the last checkpoint:
+ * {@link #force()} or {@link #close()}. Pages work like shadow paging: the
+ * first change to a page after a checkpoint copies it to a free page and
+ * changes the copy, so the pages of the checkpoint are never written, and
+ * pages the list lets go of are only reused after the next checkpoint. force()
+ * writes the new directory into a spare run of pages, waits for it and the
+ * changed pages to reach the disk, then switches to them by writing the header.
+ * There are two header slots, each with a checksum, and force() writes the one
+ * that is not in use, so a header that is only half written is ignored. So if
+ * the program stops at any point, opening the file again gives back the list
+ * as it was at the last checkpoint (an empty list, for a file that was never
+ * forced). Don't use the list after closing it.
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class MappedChunkyLinkedList<T> extends ChunkyLinkedList<T> implements Closeable {
+	/**
+	 * "P6MC": the first four bytes of every list file.
+	 */
+	private static final int MAGIC = 0x50364D43;
+	private static final int VERSION = 2;
+	/**
+	 * Each header slot: magic, version, record width, chunkSize, sequence
+	 * number, page count, chunk count, size, free page count, directory page,
+	 * directory pages, spare page, spare pages, the directory's CRC32, one
+	 * unused int and the CRC32 of the slot before it, as ints. The slot with the
+	 * highest sequence number and a good checksum is the one in use.
+	 */
+	private static final int SLOT_BYTES = 64;
+	private static final int HEADER_BYTES = 2 * SLOT_BYTES;
+	/**
+	 * Each chunk in the directory: page, start and count, as ints. The free
+	 * pages come after the chunks, one int each.
+	 */
+	private static final int ENTRY_BYTES = 12;
+	/**
+	 * The page number that means "no page".
+	 */
+	private static final int NONE = -1;
+
+	private final PageFile<T> pages;
+
+	private MappedChunkyLinkedList(PageFile<T> pages) {
+		super(pages.chunkSize, pages, pages.chain);
+		this.pages = pages;
+		// an empty first chunk for an empty file is no change, so closing writes nothing
+		pages.unsaved = false;
+	}
+
+	/**
+	 * Open a list file, or create an empty one if the file is missing or empty.
+	 *
+	 * @param file      - where the list lives.
+	 * @param chunkSize - how many items fit in each page; must match the file.
+	 * @param codec     - how items are turned into records; its width must
+	 *                  match the file.
+	 * @return the list as it was at the last checkpoint in the file.
+	 * @throws IOException if the file cannot be opened or is not a list file.
+	 */
+	public static <T> MappedChunkyLinkedList<T> open(Path file, int chunkSize, RecordCodec<T> codec)
+			throws IOException {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		return new MappedChunkyLinkedList<T>(new PageFile<T>(file, chunkSize, codec));
+	}
+
+	/**
+	 * Make a checkpoint: wait until every changed page and a new directory are
+	 * on disk, then switch the header over to them. If the program stops after
+	 * this, opening the file again gives back the list as it is now, until the
+	 * next checkpoint.
+	 *
+	 * @throws IOException if the file could not be written.
+	 */
+	public void force() throws IOException { // Efficiency: O(c) plus the pages that changed
+		List<Page<T>> chain = new ArrayList<>(this.chunkCount());
+		for (int c = 0; c < this.chunkCount(); c++) {
+			chain.add((Page<T>) this.chunk(c));
+		}
+		pages.force(chain, this.size());
+	}
+
+	/**
+	 * Copy the list onto the heap. Pages can't be shared like the chunks of a
+	 * plain ChunkyLinkedList, because a page this list lets go of is reused for
+	 * other items, so every item is copied instead.
+	 *
+	 * @return a ChunkyLinkedList with the same chunks, each a
+	 *         {@link FixedSizeList}.
+	 */
+	@Override
+	public ChunkyLinkedList<T> snapshot() { // Efficiency: O(n)
+		List<FixedSizeList<T>> copies = new ArrayList<>(this.chunkCount());
+		for (int c = 0; c < this.chunkCount(); c++) {
+			FixedSizeList<T> copy = new FixedSizeList<T>(pages.chunkSize);
+			for (T item : this.chunk(c)) {
+				copy.addBack(item);
+			}
+			copies.add(copy);
+		}
+		return new ChunkyLinkedList<T>(pages.chunkSize, null, copies);
+	}
+
+	/**
+	 * {@link #force()}, then close the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			force();
+		} finally {
+			pages.channel.close();
+		}
+	}
+
+	/**
+	 * @return how many pages have been mapped into memory so far.
+	 */
+	int mappedPages() { // Efficiency: O(c)
+		int mapped = 0;
+		for (int c = 0; c < this.chunkCount(); c++) {
+			if (((Page<T>) this.chunk(c)).mapped != null) {
+				mapped++;
+			}
+		}
+		return mapped;
+	}
+
+	/**
+	 * The file: hands out pages as chunks, and remembers which pages are free.
+	 */
+	private static final class PageFile<T> implements ChunkStore<T> {
+		final FileChannel channel;
+		final RecordCodec<T> codec;
+		final int chunkSize;
+		final int pageBytes;
+		final MappedByteBuffer header;
+		/**
+		 * The chunks that were in the file when it was opened, in order.
+		 */
+		final List<Page<T>> chain = new ArrayList<>();
+		/**
+		 * Pages that neither the list nor the last checkpoint is using.
+		 */
+		final IntGrowableList freePages = new IntGrowableList();
+		/**
+		 * Pages the last checkpoint uses but the list doesn't any more; they are
+		 * free after the next one.
+		 */
+		final IntGrowableList retired = new IntGrowableList();
+		/**
+		 * How many pages the file has room for, used or free.
+		 */
+		int pageCount;
+		/**
+		 * The sequence number of the header slot in use.
+		 */
+		int sequence;
+		/**
+		 * The run of pages holding the directory of the last checkpoint.
+		 */
+		int directoryPage = NONE;
+		int directoryPages;
+		/**
+		 * The run of pages the next directory goes in.
+		 */
+		int sparePage = NONE;
+		int sparePages;
+		/**
+		 * True when something changed since the last checkpoint.
+		 */
+		boolean unsaved;
+
+		PageFile(Path file, int chunkSize, RecordCodec<T> codec) throws IOException {
+			this.codec = codec;
+			this.chunkSize = chunkSize;
+			long bytes = (long) chunkSize * codec.width();
+			if (bytes > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("chunkSize is too big for one page: " + chunkSize);
+			}
+			this.pageBytes = (int) bytes;
+			this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE);
+			try {
+				boolean fresh = channel.size() == 0;
+				this.header = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES);
+				if (fresh) {
+					// an empty checkpoint, so the file can be opened even if it is never forced
+					writeSlot(0, 0, 0, 0, new CRC32());
+				} else {
+					load(file);
+				}
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Read the header slot in use, then the whole directory in one go.
+		 */
+		private void load(Path file) throws IOException { // Efficiency: O(c) from one read
+			int at = NONE;
+			for (int slot = 0; slot < 2; slot++) {
+				int start = slot * SLOT_BYTES;
+				if (header.getInt(start) == MAGIC && header.getInt(start + 4) == VERSION
+						&& header.getInt(start + 60) == checksum(header, start)
+						&& (at == NONE || header.getInt(start + 16) - header.getInt(at + 16) > 0)) {
+					at = start;
+				}
+			}
+			if (at == NONE) {
+				if (header.getInt(0) == MAGIC || header.getInt(SLOT_BYTES) == MAGIC) {
+					throw new IOException(file + " is damaged: neither header slot is whole");
+				}
+				throw new IOException(file + " is not a list file");
+			}
+			if (header.getInt(at + 8) != codec.width() || header.getInt(at + 12) != chunkSize) {
+				throw new IllegalArgumentException(file + " holds " + header.getInt(at + 8) + " byte records, "
+						+ header.getInt(at + 12) + " to a chunk");
+			}
+			this.sequence = header.getInt(at + 16);
+			this.pageCount = header.getInt(at + 20);
+			int chunks = header.getInt(at + 24);
+			int size = header.getInt(at + 28);
+			int frees = header.getInt(at + 32);
+			this.directoryPage = header.getInt(at + 36);
+			this.directoryPages = header.getInt(at + 40);
+			this.sparePage = header.getInt(at + 44);
+			this.sparePages = header.getInt(at + 48);
+			if (chunks < 0 || frees < 0 || (long) chunks + frees > pageCount) {
+				throw new IOException(file + " is damaged: the header is out of range");
+			}
+
+			ByteBuffer directory = ByteBuffer.allocate(chunks * ENTRY_BYTES + frees * Integer.BYTES);
+			long from = directoryPage == NONE ? 0 : offsetOf(directoryPage);
+			while (directory.hasRemaining()) {
+				if (channel.read(directory, from + directory.position()) < 0) {
+					throw new EOFException("the directory is past the end of " + file);
+				}
+			}
+			directory.flip();
+			CRC32 crc = new CRC32();
+			crc.update(directory.duplicate());
+			if ((int) crc.getValue() != header.getInt(at + 52)) {
+				throw new IOException(file + " is damaged: the directory does not match its checksum");
+			}
+			int total = 0;
+			for (int c = 0; c < chunks; c++) {
+				int page = directory.getInt();
+				int start = directory.getInt();
+				int count = directory.getInt();
+				if (page < 0 || page >= pageCount || start < 0 || start >= chunkSize || count < 0
+						|| count > chunkSize) {
+					throw new IOException(file + " is damaged: chunk " + c + " is out of range");
+				}
+				chain.add(new Page<T>(this, page, count, start, true));
+				total += count;
+			}
+			for (int i = 0; i < frees; i++) {
+				freePages.addBackInt(directory.getInt());
+			}
+			if (total != size) {
+				throw new IOException(file + " is damaged: the chunks don't add up to its size");
+			}
+		}
+
+		long offsetOf(int page) { // Efficiency: O(1)
+			return HEADER_BYTES + (long) page * pageBytes;
+		}
+
+		MappedByteBuffer map(int page) { // Efficiency: O(1)
+			try {
+				return channel.map(MapMode.READ_WRITE, offsetOf(page), pageBytes);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Note that something changed since the last checkpoint.
+		 */
+		void changing() { // Efficiency: O(1)
+			unsaved = true;
+		}
+
+		/**
+		 * @return a page that nothing, not even the last checkpoint, is using.
+		 */
+		int allocate() { // Efficiency: O(1) amortized
+			return freePages.isEmpty() ? pageCount++ : freePages.removeBackInt();
+		}
+
+		@Override
+		public P6List<T> newChunk() { // Efficiency: O(1); the page is mapped when it is first used
+			changing();
+			return new Page<T>(this, allocate(), 0, 0, false);
+		}
+
+		@Override
+		public void release(P6List<T> chunk) { // Efficiency: O(1)
+			changing();
+			Page<T> page = (Page<T>) chunk;
+			if (page.committed) {
+				retired.addBackInt(page.number);
+			} else {
+				freePages.addBackInt(page.number);
+			}
+		}
+
+		/**
+		 * Write the changed pages and a new directory, wait for the disk, then
+		 * switch to them by writing the header slot that is not in use.
+		 */
+		void force(List<Page<T>> chunks, int size) throws IOException { // Efficiency: O(c) plus the pages that changed
+			if (!unsaved) {
+				return;
+			}
+			for (Page<T> page : chunks) {
+				page.force();
+			}
+			// after the switch, the retired pages are free too.
+			int frees = freePages.size() + retired.size();
+			int bytes = chunks.size() * ENTRY_BYTES + frees * Integer.BYTES;
+			if ((long) sparePages * pageBytes < bytes) {
+				// no checkpoint uses the spare run, so trade it for a bigger one
+				for (int i = 0; i < sparePages; i++) {
+					freePages.addBackInt(sparePage + i);
+				}
+				frees += sparePages;
+				bytes += sparePages * Integer.BYTES;
+				// as big as the run in use, too, since the two take turns
+				sparePages = Math.max(directoryPages, 2 * (int) ((bytes + pageBytes - 1L) / pageBytes));
+				sparePage = pageCount;
+				pageCount += sparePages;
+				// take the whole run now, so the file doesn't grow as the directory does
+				channel.write(ByteBuffer.allocate(1), offsetOf(pageCount) - 1);
+			}
+			ByteBuffer directory = ByteBuffer.allocate(bytes);
+			for (Page<T> page : chunks) {
+				directory.putInt(page.number);
+				directory.putInt(page.start());
+				directory.putInt(page.size());
+			}
+			for (int i = 0; i < freePages.size(); i++) {
+				directory.putInt(freePages.getInt(i));
+			}
+			for (int i = 0; i < retired.size(); i++) {
+				directory.putInt(retired.getInt(i));
+			}
+			directory.flip();
+			CRC32 crc = new CRC32();
+			crc.update(directory.duplicate());
+			while (directory.hasRemaining()) {
+				channel.write(directory, offsetOf(sparePage) + directory.position());
+			}
+			channel.force(true);
+
+			writeSlot(sequence + 1, chunks.size(), size, frees, crc);
+			sequence++;
+			int oldPage = directoryPage;
+			int oldPages = directoryPages;
+			directoryPage = sparePage;
+			directoryPages = sparePages;
+			sparePage = oldPage;
+			sparePages = oldPages;
+			for (int i = 0; i < retired.size(); i++) {
+				freePages.addBackInt(retired.getInt(i));
+			}
+			retired.clear();
+			for (Page<T> page : chunks) {
+				page.committed = true;
+			}
+			unsaved = false;
+		}
+
+		/**
+		 * Fill in a header slot for a directory just written to the spare run, and
+		 * wait for it. The old directory run becomes the spare.
+		 */
+		private void writeSlot(int sequence, int chunks, int size, int frees, CRC32 directory) { // Efficiency: O(1)
+			int at = (sequence & 1) * SLOT_BYTES;
+			header.putInt(at, MAGIC);
+			header.putInt(at + 4, VERSION);
+			header.putInt(at + 8, codec.width());
+			header.putInt(at + 12, chunkSize);
+			header.putInt(at + 16, sequence);
+			header.putInt(at + 20, pageCount);
+			header.putInt(at + 24, chunks);
+			header.putInt(at + 28, size);
+			header.putInt(at + 32, frees);
+			header.putInt(at + 36, sparePage);
+			header.putInt(at + 40, sparePages);
+			header.putInt(at + 44, directoryPage);
+			header.putInt(at + 48, directoryPages);
+			header.putInt(at + 52, (int) directory.getValue());
+			header.putInt(at + 56, 0);
+			header.putInt(at + 60, checksum(header, at));
+			header.force();
+		}
+
+		/**
+		 * @return the CRC32 of a header slot, up to its own checksum.
+		 */
+		private static int checksum(ByteBuffer header, int at) { // Efficiency: O(1)
+			ByteBuffer fields = header.duplicate();
+			fields.limit(at + SLOT_BYTES - Integer.BYTES);
+			fields.position(at);
+			CRC32 crc = new CRC32();
+			crc.update(fields);
+			return (int) crc.getValue();
+		}
+	}
+
+	/**
+	 * A chunk that is a page of the file. Until the list touches it, it only
+	 * knows its start and count; then it maps the page and hands everything to
+	 * an {@link OffHeapChunk} over the records.
+	 */
+	private static final class Page<T> implements P6List<T> {
+		final PageFile<T> file;
+		/**
+		 * Which page of the file the records are in; it moves when a page the
+		 * last checkpoint uses is first changed.
+		 */
+		int number;
+		/**
+		 * True when the last checkpoint uses this page, so it can't be changed in
+		 * place.
+		 */
+		boolean committed;
+		/**
+		 * True when the records changed since the last checkpoint.
+		 */
+		boolean dirty;
+		/**
+		 * Where the records start and how many there are, until chunk exists.
+		 */
+		private final int start;
+		private final int count;
+		MappedByteBuffer mapped;
+		private OffHeapChunk<T> chunk;
+
+		Page(PageFile<T> file, int number, int count, int start, boolean committed) {
+			this.file = file;
+			this.number = number;
+			this.count = count;
+			this.start = start;
+			this.committed = committed;
+		}
+
+		/**
+		 * Get ready for a change: copy the page first if the last checkpoint
+		 * uses it.
+		 */
+		private void changed() { // Efficiency: O(1), or O(k) for the first change after a checkpoint
+			if (committed) {
+				OffHeapChunk<T> records = chunk();
+				int copy = file.allocate();
+				MappedByteBuffer target = file.map(copy);
+				ByteBuffer source = mapped.duplicate();
+				source.clear();
+				target.duplicate().put(source);
+				file.retired.addBackInt(number);
+				number = copy;
+				mapped = target;
+				chunk = new OffHeapChunk<T>(target.duplicate(), file.chunkSize, file.codec, records.start(),
+						records.size());
+				committed = false;
+			}
+			dirty = true;
+			file.changing();
+		}
+
+		/**
+		 * Map the page (the first time) and wrap its records.
+		 */
+		private OffHeapChunk<T> chunk() { // Efficiency: O(1)
+			if (chunk == null) {
+				mapped = file.map(number);
+				chunk = new OffHeapChunk<T>(mapped.duplicate(), file.chunkSize, file.codec, start, count);
+			}
+			return chunk;
+		}
+
+		/**
+		 * @return where the records start, without mapping the page.
+		 */
+		int start() { // Efficiency: O(1)
+			return chunk == null ? start : chunk.start();
+		}
+
+		/**
+		 * Wait for the page to reach the disk, if it changed.
+		 */
+		void force() { // Efficiency: O(1) plus writing the page
+			if (dirty) {
+				mapped.force();
+				dirty = false;
+			}
+		}
+
+		@Override
+		public T removeFront() { // Efficiency: O(1)
+			changed();
+			return chunk().removeFront();
+		}
+
+		@Override
+		public T removeBack() { // Efficiency: O(1)
+			changed();
+			return chunk().removeBack();
+		}
+
+		@Override
+		public T removeIndex(int index) { // Efficiency: O(min(index, n-index))
+			changed();
+			return chunk().removeIndex(index);
+		}
+
+		@Override
+		public void addFront(T item) { // Efficiency: O(1)
+			changed();
+			chunk().addFront(item);
+		}
+
+		@Override
+		public void addBack(T item) { // Efficiency: O(1)
+			changed();
+			chunk().addBack(item);
+		}
+
+		@Override
+		public void addIndex(T item, int index) { // Efficiency: O(min(index, n-index))
+			changed();
+			chunk().addIndex(item, index);
+		}
+
+		@Override
+		public T getFront() { // Efficiency: O(1)
+			return chunk().getFront();
+		}
+
+		@Override
+		public T getBack() { // Efficiency: O(1)
+			return chunk().getBack();
+		}
+
+		@Override
+		public T getIndex(int index) { // Efficiency: O(1)
+			return chunk().getIndex(index);
+		}
+
+		@Override
+		public T setIndex(T item, int index) { // Efficiency: O(1)
+			changed();
+			return chunk().setIndex(item, index);
+		}
+
+		@Override
+		public int size() { // Efficiency: O(1), without mapping the page
+			return chunk == null ? count : chunk.size();
+		}
+
+		@Override
+		public boolean isEmpty() { // Efficiency: O(1), without mapping the page
+			return size() == 0;
+		}
+
+		@Override
+		public void removeRange(int from, int to) { // Efficiency: O(min(from, n-to))
+			changed();
+			chunk().removeRange(from, to);
+		}
+
+		@Override
+		public void clear() { // Efficiency: O(1)
+			changed();
+			chunk().clear();
+		}
+
+		@Override
+		public Spliterator<T> spliterator() { // Efficiency: O(1)
+			return chunk().spliterator();
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package edu.smith.cs.csc212.p6;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+import edu.smith.cs.csc212.p6.errors.RanOutOfSpaceError;
+
+/**
+ * A {@link FixedSizeList} whose items live in a direct ByteBuffer, outside the
+ * Java heap, as records written by a {@link RecordCodec}. The garbage collector
+ * only ever sees the one buffer, no matter how many items are in it. Items are
+ * copied in and out, so getIndex returns a new object every time.
+ *
+ * @param <T> the type of item stored in the chunk.
+ */
+class OffHeapChunk<T> implements P6List<T> {
+	private final ByteBuffer records;
+	private final RecordCodec<T> codec;
+	private final int width;
+	private final int capacity;
+	/**
+	 * Which record is the front of the list; like {@link FixedSizeList}, the
+	 * records form a ring.
+	 */
+	private int start;
+	private int fill;
+
+	OffHeapChunk(int maximumSize, RecordCodec<T> codec) {
+		this(ByteBuffer.allocateDirect(maximumSize * codec.width()), maximumSize, codec, 0, 0);
+	}
+
+	/**
+	 * Use records that are already there, e.g. in a page of a mapped file.
+	 *
+	 * @param records     - room for maximumSize records, starting at byte 0.
+	 * @param maximumSize - how many records fit.
+	 * @param codec       - the format of the records.
+	 * @param start       - which record is the front of the list.
+	 * @param fill        - how many records are in the list.
+	 */
+	OffHeapChunk(ByteBuffer records, int maximumSize, RecordCodec<T> codec, int start, int fill) {
+		this.codec = codec;
+		this.width = codec.width();
+		this.capacity = maximumSize;
+		this.records = records;
+		this.start = start;
+		this.fill = fill;
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: O(1)
+		T value = getFront();
+		start = wrap(start, 1);
+		fill--;
+		return value;
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: O(1)
+		T value = getBack();
+		fill--;
+		return value;
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		T removed = getIndex(index);
+		ListProbe.shifts(index < fill / 2 ? index : fill - 1 - index);
+		if (index < fill / 2) {
+			for (int i = index; i > 0; i--) {
+				copy(i - 1, i);
+			}
+			start = wrap(start, 1);
+		} else {
+			for (int i = index; i < fill - 1; i++) {
+				copy(i + 1, i);
+			}
+		}
+		fill--;
+		return removed;
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: O(1)
+		if (fill >= capacity) {
+			throw new RanOutOfSpaceError();
+		}
+		start = wrap(start, -1);
+		codec.write(item, records, start * width);
+		fill++;
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: O(1)
+		if (fill >= capacity) {
+			throw new RanOutOfSpaceError();
+		}
+		codec.write(item, records, slot(fill) * width);
+		fill++;
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: O(min(index, n-index)) because it shifts the closer end
+		if (fill >= capacity) {
+			throw new RanOutOfSpaceError();
+		}
+		if (index < 0 || index > fill) {
+			throw new BadIndexError();
+		}
+		ListProbe.shifts(index < fill / 2 ? index : fill - index);
+		if (index < fill / 2) {
+			start = wrap(start, -1);
+			for (int i = 0; i < index; i++) {
+				copy(i + 1, i);
+			}
+		} else {
+			for (int j = fill; j > index; j--) {
+				copy(j - 1, j);
+			}
+		}
+		codec.write(item, records, slot(index) * width);
+		fill++;
+	}
+
+	@Override
+	public T getFront() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return getIndex(0);
+	}
+
+	@Override
+	public T getBack() { // Efficiency: O(1)
+		if (fill == 0) {
+			throw new EmptyListError();
+		}
+		return getIndex(fill - 1);
+	}
+
+	@Override
+	public T getIndex(int index) { // Efficiency: O(1)
+		if (index < 0 || index >= fill) {
+			throw new BadIndexError();
+		}
+		return codec.read(records, slot(index) * width);
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(1)
+		T old = getIndex(index);
+		codec.write(item, records, slot(index) * width);
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return fill;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return fill == 0;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(min(from, n-to)), one shift for the whole range
+		BulkItems.checkRange(from, to, fill);
+		int k = to - from;
+		ListProbe.shifts(from < fill - to ? from : fill - to);
+		if (from < fill - to) {
+			for (int i = from - 1; i >= 0; i--) {
+				copy(i, i + k);
+			}
+			start = wrap(start, k);
+		} else {
+			for (int i = to; i < fill; i++) {
+				copy(i, i - k);
+			}
+		}
+		fill -= k;
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(1), the old records are just forgotten
+		start = 0;
+		fill = 0;
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<T>(this, 0, size());
+	}
+
+	/**
+	 * Copy the bytes of one record over another, without decoding them.
+	 *
+	 * @param from - the list index to copy.
+	 * @param to   - the list index to overwrite.
+	 */
+	private void copy(int from, int to) { // Efficiency: O(1)
+		int src = slot(from) * width;
+		int dst = slot(to) * width;
+		int b = 0;
+		for (; b + Long.BYTES <= width; b += Long.BYTES) {
+			records.putLong(dst + b, records.getLong(src + b));
+		}
+		for (; b < width; b++) {
+			records.put(dst + b, records.get(src + b));
+		}
+	}
+
+	/**
+	 * @return which record is the front of the list.
+	 */
+	int start() { // Efficiency: O(1)
+		return start;
+	}
+
+	private int slot(int index) { // Efficiency: O(1)
+		return wrap(start, index);
+	}
+
+	private int wrap(int position, int by) { // Efficiency: O(1)
+		if (by >= capacity - position) {
+			return by - (capacity - position);
+		}
+		if (by < -position) {
+			return position + by + capacity;
+		}
+		return position + by;
+	}
+}
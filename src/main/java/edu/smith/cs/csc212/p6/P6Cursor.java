@@ -0,0 +1,62 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A place in a list that you can walk forward and edit at, like a
+ * {@link java.util.ListIterator}. The cursor always sits between two items:
+ * next() returns the item after it and steps over it. That item is then the
+ * "current" one, which remove() and set() work on.
+ *
+ * Edits through the cursor do not make it search the list again, so a whole
+ * pass of edits over a linked list is O(n) instead of O(n^2). If the list is
+ * changed any other way while the cursor is in use, the cursor's next call
+ * throws {@link ConcurrentModificationException}.
+ *
+ * @param <T> the type of item inside the list.
+ */
+public interface P6Cursor<T> extends Iterator<T> {
+	/**
+	 * Step over the next item.
+	 * 
+	 * @return the item that was stepped over; it is now the current item.
+	 * @throws NoSuchElementException if the cursor is at the back of the list.
+	 */
+	@Override
+	public T next();
+
+	/**
+	 * Add an item at the cursor and step over it, so next() returns the same
+	 * item it would have before. There is no current item afterwards.
+	 * 
+	 * @param item the data to add to the list.
+	 */
+	public void insertBefore(T item);
+
+	/**
+	 * Add an item at the cursor without stepping over it, so next() returns
+	 * it. There is no current item afterwards.
+	 * 
+	 * @param item the data to add to the list.
+	 */
+	public void insertAfter(T item);
+
+	/**
+	 * Delete the current item. There is no current item afterwards.
+	 * 
+	 * @throws IllegalStateException if there is no current item.
+	 */
+	@Override
+	public void remove();
+
+	/**
+	 * Replace the current item.
+	 * 
+	 * @param item the new value.
+	 * @return the value that was replaced.
+	 * @throws IllegalStateException if there is no current item.
+	 */
+	public T set(T item);
+}
@@ -1,5 +1,14 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
 
@@ -10,7 +19,7 @@ import edu.smith.cs.csc212.p6.errors.EmptyListError;
  *
  * @param <T> the type of item inside the list.
  */
-public interface P6List<T> {
+public interface P6List<T> extends Iterable<T> {
 	/**
 	 * Delete the item at the front of the list.
 	 * 
@@ -85,6 +94,22 @@ public interface P6List<T> {
 	 */
 	public T getIndex(int index);
 
+	/**
+	 * Replace the index-th element of this list. The default removes the old
+	 * item and adds the new one; lists that can do better override it.
+	 * 
+	 * @param item  the new value.
+	 * @param index a number from 0 to size, excluding size.
+	 * @return the value that was replaced.
+	 * @throws BadIndexError if the index does not exist.
+	 */
+	public default T setIndex(T item, int index) {
+		T old = getIndex(index);
+		removeIndex(index);
+		addIndex(item, index);
+		return old;
+	}
+
 	/**
 	 * Calculate the size of the list.
 	 * 
@@ -99,4 +124,123 @@ public interface P6List<T> {
 	 * @return true if the list is empty.
 	 */
 	public boolean isEmpty();
+
+	/**
+	 * Add every item from source to the back of this list, in order.
+	 * 
+	 * @param source the items to add; it may be this list.
+	 */
+	public default void addAllBack(Iterable<? extends T> source) {
+		addAllAt(size(), source);
+	}
+
+	/**
+	 * Add every item from source before ``index`` in this list, in order, so
+	 * the first of them ends up at getIndex(index). The default adds them one
+	 * at a time; implementations make room for the whole batch at once.
+	 * 
+	 * @param index  a number from 0 to size (including size).
+	 * @param source the items to add; it may be this list.
+	 * @throws BadIndexError if the index does not exist.
+	 */
+	public default void addAllAt(int index, Iterable<? extends T> source) {
+		if (index < 0 || index > size()) {
+			throw new BadIndexError();
+		}
+		for (Object item : BulkItems.toArray(source)) {
+			@SuppressWarnings("unchecked")
+			T next = (T) item;
+			addIndex(next, index++);
+		}
+	}
+
+	/**
+	 * Delete the items from index ``from`` up to (but not including) ``to``.
+	 * 
+	 * @param from the index of the first item to delete.
+	 * @param to   one past the index of the last item to delete; from 0 to size
+	 *             (including size), and no smaller than from.
+	 * @throws BadIndexError if the range does not fit in the list.
+	 */
+	public default void removeRange(int from, int to) {
+		BulkItems.checkRange(from, to, size());
+		for (int i = from; i < to; i++) {
+			removeIndex(from);
+		}
+	}
+
+	/**
+	 * Delete every item in the list.
+	 */
+	public default void clear() {
+		while (!isEmpty()) {
+			removeBack();
+		}
+	}
+
+	/**
+	 * Save the list as a snapshot that the readFrom method of any list can load
+	 * again; see {@link Snapshot} for the format. The default writes the items
+	 * in blocks of 4096; lists with a shape of their own also save that.
+	 * 
+	 * @param out   where to write it; it is not closed.
+	 * @param codec how to turn each item into bytes.
+	 * @throws IOException if writing fails.
+	 */
+	public default void writeTo(WritableByteChannel out, RecordCodec<T> codec) throws IOException {
+		Snapshot.write(this, out, codec, Snapshot.LIST, 0);
+	}
+
+	/**
+	 * Loop over the list from front to back. The default calls getIndex for
+	 * every item, which is only fast for lists that are arrays inside; linked
+	 * lists walk their own nodes instead.
+	 * 
+	 * @return an object that understands "next()" and "hasNext()".
+	 */
+	@Override
+	public default Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < size();
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return getIndex(next++);
+			}
+		};
+	}
+
+	/**
+	 * The default knows the size but can only split by copying batches out of
+	 * the iterator; lists with a better way to split override this.
+	 * 
+	 * @return a spliterator over the items, front to back.
+	 */
+	@Override
+	public default Spliterator<T> spliterator() {
+		return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+	}
+
+	/**
+	 * @return a sequential stream of the items, front to back.
+	 */
+	public default Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * @return a parallel stream of the items; it splits the list with
+	 *         {@link #spliterator()}.
+	 */
+	public default Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
 }
@@ -0,0 +1,548 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+import edu.smith.cs.csc212.p6.errors.ImmutableListError;
+
+/**
+ * A list that never changes. Instead of being edited, it makes new versions of
+ * itself: {@link #withBack}, {@link #withIndex} and {@link #withoutBack} each
+ * return a new vector and leave the old one as it was, so a reader holding a
+ * version can keep using it while a writer moves on.
+ *
+ * The items live in the leaves of a trie where every node has 32 children, and
+ * the last (up to) 32 items live in a separate tail array. A new version copies
+ * only the tail, or the one path from the root to the leaf that changed, and
+ * shares every other node with the old version. The trie is log32(n) deep:
+ * 4 levels reach a million items and 6 reach a billion, so every call is
+ * O(log32 n), which is close to O(1).
+ *
+ * To build a vector from many items, use a {@link Builder}: it edits the nodes
+ * it made itself in place, instead of copying a path per item.
+ *
+ * The usual P6List methods that would change the list throw
+ * {@link ImmutableListError}.
+ *
+ * @param <T> the type of item stored in the vector.
+ */
+public final class PersistentVector<T> implements P6List<T> {
+	/**
+	 * Each node has 1 << BITS children.
+	 */
+	static final int BITS = 5;
+	static final int WIDTH = 1 << BITS;
+	static final int MASK = WIDTH - 1;
+
+	private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+	private static final PersistentVector<?> EMPTY = new PersistentVector<Object>(0, BITS, EMPTY_NODE,
+			new Object[0]);
+
+	private final int size;
+	/**
+	 * How far to shift an index to find its child of the root; BITS times the
+	 * depth of the trie.
+	 */
+	private final int shift;
+	private final Node root;
+	/**
+	 * The last items, from {@link #tailOffset()} on; never empty unless the
+	 * vector is.
+	 */
+	private final Object[] tail;
+
+	private PersistentVector(int size, int shift, Node root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * @return a vector with no items.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() { // Efficiency: O(1)
+		return (PersistentVector<T>) EMPTY;
+	}
+
+	/**
+	 * @param items - what to put in the new vector, in order.
+	 * @return a vector of those items.
+	 */
+	public static <T> PersistentVector<T> copyOf(Iterable<? extends T> items) { // Efficiency: O(n)
+		Builder<T> builder = new Builder<T>(PersistentVector.<T>empty());
+		for (T item : items) {
+			builder.addBack(item);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return a builder that starts with this vector's items.
+	 */
+	public Builder<T> toBuilder() { // Efficiency: O(1)
+		return new Builder<T>(this);
+	}
+
+	/**
+	 * @param item - what to add.
+	 * @return a new vector, one longer, with item at the back.
+	 */
+	public PersistentVector<T> withBack(T item) { // Efficiency: O(log32 n)
+		if (size - tailOffset() < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = item;
+			return new PersistentVector<T>(size + 1, shift, root, newTail);
+		}
+		// the tail is full: it becomes a leaf of the trie, and item starts a new one
+		Node leaf = new Node(null, tail);
+		Node newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			// the trie is full too, so it gets a new root one level up
+			newRoot = new Node(null, new Object[WIDTH]);
+			newRoot.array[0] = root;
+			newRoot.array[1] = newPath(null, shift, leaf);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(null, size, shift, root, leaf);
+		}
+		return new PersistentVector<T>(size + 1, newShift, newRoot, new Object[] { item });
+	}
+
+	/**
+	 * @param index - which item to replace, from 0 to size (excluding size).
+	 * @param item  - the new value.
+	 * @return a new vector with item at index.
+	 */
+	public PersistentVector<T> withIndex(int index, T item) { // Efficiency: O(log32 n)
+		checkIndex(index);
+		if (index >= tailOffset()) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = item;
+			return new PersistentVector<T>(size, shift, root, newTail);
+		}
+		return new PersistentVector<T>(size, shift, assoc(null, shift, root, index, item), tail);
+	}
+
+	/**
+	 * @return a new vector without the back item.
+	 * @throws EmptyListError if the vector is empty.
+	 */
+	public PersistentVector<T> withoutBack() { // Efficiency: O(log32 n)
+		if (size == 0) {
+			throw new EmptyListError();
+		}
+		if (size == 1) {
+			return empty();
+		}
+		if (size - tailOffset() > 1) {
+			return new PersistentVector<T>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+		}
+		// the tail is used up: the last leaf of the trie becomes the tail
+		Object[] newTail = leafFor(size - 2);
+		Node newRoot = popTail(null, size, shift, root);
+		int newShift = shift;
+		if (newRoot == null) {
+			newRoot = EMPTY_NODE;
+		}
+		if (shift > BITS && newRoot.array[1] == null) {
+			newRoot = (Node) newRoot.array[0];
+			newShift -= BITS;
+		}
+		return new PersistentVector<T>(size - 1, newShift, newRoot, newTail);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T getIndex(int index) { // Efficiency: O(log32 n)
+		checkIndex(index);
+		return (T) leafFor(index)[index & MASK];
+	}
+
+	@Override
+	public T getFront() { // Efficiency: O(log32 n)
+		if (size == 0) {
+			throw new EmptyListError();
+		}
+		return getIndex(0);
+	}
+
+	@Override
+	public T getBack() { // Efficiency: O(1), it is in the tail
+		if (size == 0) {
+			throw new EmptyListError();
+		}
+		return getIndex(size - 1);
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1)
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return size == 0;
+	}
+
+	@Override
+	public T removeFront() {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public T removeBack() {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public T removeIndex(int index) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void addFront(T item) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void addBack(T item) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void addIndex(T item, int index) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public T setIndex(T item, int index) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void removeRange(int from, int to) {
+		throw new ImmutableListError();
+	}
+
+	@Override
+	public void clear() {
+		throw new ImmutableListError();
+	}
+
+	/**
+	 * Load a vector saved by {@link P6List#writeTo}, through a {@link Builder}.
+	 *
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the vector.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> PersistentVector<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		Builder<T> builder = new Builder<T>(PersistentVector.<T>empty());
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				builder.addBack(snapshot.read());
+			}
+		}
+		return builder.build();
+	}
+
+	@Override
+	public Iterator<T> iterator() { // Efficiency: O(1); each step is O(1) amortized, going leaf by leaf
+		return new Iterator<T>() {
+			private int index = 0;
+			private Object[] leaf = size == 0 ? null : leafFor(0);
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				T item = (T) leaf[index & MASK];
+				index++;
+				if ((index & MASK) == 0 && index < size) {
+					leaf = leafFor(index);
+				}
+				return item;
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<T> spliterator() { // Efficiency: O(1); it splits by index range
+		return new IndexSpliterator<T>(this, 0, size);
+	}
+
+	/**
+	 * @return the index of the first item in the tail.
+	 */
+	private int tailOffset() { // Efficiency: O(1)
+		return tailOffset(size);
+	}
+
+	private static int tailOffset(int size) {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	/**
+	 * @return the leaf (or tail) holding an index.
+	 */
+	private Object[] leafFor(int index) { // Efficiency: O(log32 n)
+		return leafFor(index, size, shift, root, tail);
+	}
+
+	private static Object[] leafFor(int index, int size, int shift, Node root, Object[] tail) {
+		if (index >= tailOffset(size)) {
+			return tail;
+		}
+		Node node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Node) node.array[(index >>> level) & MASK];
+		}
+		return node.array;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
+	}
+
+	/**
+	 * A node of the trie. Nodes made by a {@link Builder} remember it, so that
+	 * only the builder that made them edits them in place.
+	 */
+	private static final class Node {
+		/**
+		 * The builder's token, or null for nodes nobody may edit.
+		 */
+		final Object owner;
+		final Object[] array;
+
+		Node(Object owner, Object[] array) {
+			this.owner = owner;
+			this.array = array;
+		}
+	}
+
+	/**
+	 * @param owner - a builder's token, or null.
+	 * @return node itself if owner may edit it, otherwise a copy that it may.
+	 */
+	private static Node editable(Object owner, Node node) { // Efficiency: O(1)
+		if (owner != null && node.owner == owner) {
+			return node;
+		}
+		return new Node(owner, node.array.clone());
+	}
+
+	/**
+	 * Hang a full leaf at the end of the trie, copying (or editing) the path to
+	 * it.
+	 *
+	 * @param size - the size of the vector, including the leaf and before the
+	 *             new item.
+	 */
+	private static Node pushTail(Object owner, int size, int level, Node parent, Node leaf) { // Efficiency: O(log32 n)
+		Node copy = editable(owner, parent);
+		int child = ((size - 1) >>> level) & MASK;
+		if (level == BITS) {
+			copy.array[child] = leaf;
+		} else {
+			Node below = (Node) parent.array[child];
+			copy.array[child] = below != null ? pushTail(owner, size, level - BITS, below, leaf)
+					: newPath(owner, level - BITS, leaf);
+		}
+		return copy;
+	}
+
+	/**
+	 * @return a chain of new nodes, one per level, ending at leaf.
+	 */
+	private static Node newPath(Object owner, int level, Node leaf) { // Efficiency: O(log32 n)
+		if (level == 0) {
+			return leaf;
+		}
+		Node node = new Node(owner, new Object[WIDTH]);
+		node.array[0] = newPath(owner, level - BITS, leaf);
+		return node;
+	}
+
+	/**
+	 * @return node with the item at index replaced, copying (or editing) the
+	 *         path to it.
+	 */
+	private static Node assoc(Object owner, int level, Node node, int index, Object item) { // Efficiency: O(log32 n)
+		Node copy = editable(owner, node);
+		if (level == 0) {
+			copy.array[index & MASK] = item;
+		} else {
+			int child = (index >>> level) & MASK;
+			copy.array[child] = assoc(owner, level - BITS, (Node) node.array[child], index, item);
+		}
+		return copy;
+	}
+
+	/**
+	 * Take the last leaf off the trie.
+	 *
+	 * @param size - the size of the vector before the back item is removed.
+	 * @return node without it, or null if that leaves node empty.
+	 */
+	private static Node popTail(Object owner, int size, int level, Node node) { // Efficiency: O(log32 n)
+		int child = ((size - 2) >>> level) & MASK;
+		if (level > BITS) {
+			Node below = popTail(owner, size, level - BITS, (Node) node.array[child]);
+			if (below == null && child == 0) {
+				return null;
+			}
+			Node copy = editable(owner, node);
+			copy.array[child] = below;
+			return copy;
+		} else if (child == 0) {
+			return null;
+		} else {
+			Node copy = editable(owner, node);
+			copy.array[child] = null;
+			return copy;
+		}
+	}
+
+	/**
+	 * Builds a vector by editing its own nodes in place: adding n items makes
+	 * about n/32 leaves and n/1024 inner nodes and nothing else, where calling
+	 * withBack n times would copy a tail or a path every time.
+	 *
+	 * Calling {@link #build()} hands the nodes over to the new vector; the
+	 * builder can go on being used, but then it copies any node it shares with
+	 * a vector it built, so that vector never changes.
+	 *
+	 * @param <T> the type of item stored in the vector.
+	 */
+	public static final class Builder<T> {
+		/**
+		 * Marks the nodes this builder may edit; replaced at every build.
+		 */
+		private Object owner = new Object();
+		private int size;
+		private int shift;
+		private Node root;
+		/**
+		 * Always WIDTH long while building.
+		 */
+		private Object[] tail;
+
+		Builder(PersistentVector<T> start) {
+			this.size = start.size;
+			this.shift = start.shift;
+			this.root = editable(owner, start.root);
+			this.tail = Arrays.copyOf(start.tail, WIDTH);
+		}
+
+		public int size() { // Efficiency: O(1)
+			return size;
+		}
+
+		@SuppressWarnings("unchecked")
+		public T getIndex(int index) { // Efficiency: O(log32 n)
+			if (index < 0 || index >= size) {
+				throw new BadIndexError();
+			}
+			return (T) leafFor(index, size, shift, root, tail)[index & MASK];
+		}
+
+		public Builder<T> addBack(T item) { // Efficiency: O(1) amortized
+			if (size - tailOffset(size) < WIDTH) {
+				tail[size & MASK] = item;
+				size++;
+				return this;
+			}
+			Node leaf = new Node(owner, tail);
+			tail = new Object[WIDTH];
+			tail[0] = item;
+			if ((size >>> BITS) > (1 << shift)) {
+				Node newRoot = new Node(owner, new Object[WIDTH]);
+				newRoot.array[0] = root;
+				newRoot.array[1] = newPath(owner, shift, leaf);
+				root = newRoot;
+				shift += BITS;
+			} else {
+				root = pushTail(owner, size, shift, root, leaf);
+			}
+			size++;
+			return this;
+		}
+
+		public Builder<T> setIndex(int index, T item) { // Efficiency: O(log32 n)
+			if (index < 0 || index >= size) {
+				throw new BadIndexError();
+			}
+			if (index >= tailOffset(size)) {
+				tail[index & MASK] = item;
+			} else {
+				root = assoc(owner, shift, root, index, item);
+			}
+			return this;
+		}
+
+		public T removeBack() { // Efficiency: O(log32 n)
+			if (size == 0) {
+				throw new EmptyListError();
+			}
+			T removed = getIndex(size - 1);
+			if (size == 1 || size - tailOffset(size) > 1) {
+				size--;
+				tail[size & MASK] = null;
+				return removed;
+			}
+			Object[] newTail = Arrays.copyOf(leafFor(size - 2, size, shift, root, tail), WIDTH);
+			Node newRoot = popTail(owner, size, shift, root);
+			if (newRoot == null) {
+				newRoot = new Node(owner, new Object[WIDTH]);
+			}
+			if (shift > BITS && newRoot.array[1] == null) {
+				newRoot = editable(owner, (Node) newRoot.array[0]);
+				shift -= BITS;
+			}
+			root = newRoot;
+			tail = newTail;
+			size--;
+			return removed;
+		}
+
+		/**
+		 * @return a vector of the items added so far.
+		 */
+		public PersistentVector<T> build() { // Efficiency: O(1)
+			if (size == 0) {
+				return empty();
+			}
+			PersistentVector<T> built = new PersistentVector<T>(size, shift, root,
+					Arrays.copyOf(tail, size - tailOffset(size)));
+			// nothing the new vector holds may be edited from now on
+			owner = new Object();
+			return built;
+		}
+	}
+}
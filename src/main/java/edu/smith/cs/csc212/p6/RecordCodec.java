@@ -0,0 +1,96 @@
+package edu.smith.cs.csc212.p6;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns items into fixed-width records of bytes and back, so lists can keep
+ * them outside the Java heap (see {@link ChunkyLinkedList#ChunkyLinkedList(int, RecordCodec)}).
+ * Every record written by a codec must take exactly {@link #width()} bytes.
+ *
+ * @param <T> the type of item being stored.
+ */
+public interface RecordCodec<T> {
+	/**
+	 * Stores ints in 4 bytes each. Cannot store null.
+	 */
+	RecordCodec<Integer> INTS = new RecordCodec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(Integer item, ByteBuffer buffer, int offset) {
+			buffer.putInt(offset, item);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+	};
+
+	/**
+	 * Stores longs in 8 bytes each. Cannot store null.
+	 */
+	RecordCodec<Long> LONGS = new RecordCodec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(Long item, ByteBuffer buffer, int offset) {
+			buffer.putLong(offset, item);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+	};
+
+	/**
+	 * Stores doubles in 8 bytes each. Cannot store null.
+	 */
+	RecordCodec<Double> DOUBLES = new RecordCodec<Double>() {
+		@Override
+		public int width() {
+			return Double.BYTES;
+		}
+
+		@Override
+		public void write(Double item, ByteBuffer buffer, int offset) {
+			buffer.putDouble(offset, item);
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer, int offset) {
+			return buffer.getDouble(offset);
+		}
+	};
+
+	/**
+	 * @return how many bytes every record takes.
+	 */
+	int width();
+
+	/**
+	 * Write an item as a record. Use the absolute get/put methods of the buffer;
+	 * its position and limit must not change.
+	 *
+	 * @param item   - the item to store.
+	 * @param buffer - where to store it.
+	 * @param offset - the byte where the record starts.
+	 */
+	void write(T item, ByteBuffer buffer, int offset);
+
+	/**
+	 * Read an item back from a record written by {@link #write}.
+	 *
+	 * @param buffer - where it is stored.
+	 * @param offset - the byte where the record starts.
+	 * @return a new item equal to the one that was written.
+	 */
+	T read(ByteBuffer buffer, int offset);
+}
@@ -1,182 +1,243 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import edu.smith.cs.csc212.p6.errors.BadIndexError;
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
 
-public class SinglyLinkedList<T> implements P6List<T>, Iterable<T> {
+public class SinglyLinkedList<T> implements P6List<T> {
+	/**
+	 * How far behind the finger the trail tries to stay.
+	 */
+	private static final int TRAIL = 32;
 	/**
 	 * The start of this list. Node is defined at the bottom of this file.
 	 */
 	Node<T> start;
+	/**
+	 * The last node of this list, so we can add to the back without a loop.
+	 */
+	Node<T> end;
+	/**
+	 * How many nodes there are, so size() doesn't need a loop either.
+	 */
+	int size;
+	/**
+	 * Goes up every time nodes are added or removed, so a cursor can tell that
+	 * the list changed underneath it.
+	 */
+	int modCount;
+	/**
+	 * The node the last lookup by index stopped at, so the next lookup at or
+	 * after it can walk on from there instead of from the start. The nodes only
+	 * point forward, so the trail follows up to 2 * TRAIL nodes behind it for
+	 * lookups that step back a little. Both only count while fingerModCount is
+	 * still modCount.
+	 */
+	private Node<T> finger;
+	private int fingerIndex;
+	private Node<T> trail;
+	private int trailIndex;
+	private int fingerModCount;
+	/**
+	 * The most removed nodes this list keeps around to reuse; 0 turns recycling
+	 * off.
+	 */
+	private final int poolLimit;
+	/**
+	 * Removed nodes waiting to be reused, linked through their next fields.
+	 */
+	private Node<T> pool;
+	private int pooled;
+
+	/**
+	 * A singly-linked list starts empty.
+	 */
+	public SinglyLinkedList() {
+		this(0);
+	}
+
+	/**
+	 * Make a list that recycles its nodes: up to poolLimit removed nodes are kept
+	 * on a free list and reused by the next adds.
+	 * 
+	 * @param poolLimit - how many spare nodes to keep, or 0 for none.
+	 */
+	public SinglyLinkedList(int poolLimit) {
+		if (poolLimit < 0) {
+			throw new IllegalArgumentException("poolLimit must not be negative: " + poolLimit);
+		}
+		this.poolLimit = poolLimit;
+	}
 
 	@Override
 	public T removeFront() { // Efficiency: O(1)
 		// checks if list is empty
 		checkNotEmpty();
 		// find the front
-		T found = start.value;
+		Node<T> front = start;
+		T found = front.value;
 		// set start to next value
 		start = start.next;
+		recycle(front);
+		// if that was the only node, there is no end either
+		if (start == null) {
+			end = null;
+		}
+		size--;
+		modCount++;
 		// return our previous start
 		return found;
 	}
 
 	@Override
-	public T removeBack() { // Efficiency: O(n) because of for loop 
+	public T removeBack() { // Efficiency: O(n) because we need the node before the end, O(1) right after looking near it
 		// if empty
 		checkNotEmpty();
 		// if there is only one value
 		if (start.next == null) {
 			return this.removeFront();
-			// if all is fine
-		} else {
-			//   go through every node
-			for (Node<T> current = start; current != null; current = current.next) {
-				// find the last node
-				if (current.next.next == null) {
-					// save its value
-					T remove = current.next.value;
-					// set the node before the last one to null
-					current.next = null;
-					// return our "deleted" node
-					return remove;
-				}
-			}
 		}
-		return null;
+		// find the node before the last one
+		Node<T> current = nodeBefore(size - 1);
+		// save its value
+		T remove = end.value;
+		recycle(end);
+		// set the node before the last one to null
+		current.next = null;
+		// it is the new end
+		end = current;
+		size--;
+		modCount++;
+		pinFinger(current, size - 1);
+		// return our "deleted" node
+		return remove;
 	}
 
 	@Override
-	public T removeIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T removeIndex(int index) { // Efficiency: O(n) because of for loop, O(1) just after the last lookup
 		// if empty
 		checkNotEmpty();
+		// if the index doesn't exist
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
 
 		// if removing the first item
 		if (index == 0) {
 			return this.removeFront();
 		}
 		// if removing last item
-		if (index == this.size() - 1) {
+		if (index == size - 1) {
 			return this.removeBack();
 		}
-		// if removing from the middle
-		// index counter
-		int at = 0;
-		// go through every node
-		for (Node<T> current = start; current != null; current = current.next) {
-			// find the node before the one we want to delete
-			if (at == index - 1) {
-				// save the node that will be deleted
-				T removed = current.next.value;
-				// set our current node to skip the one to be deleted
-				current.next = current.next.next;
-				// return deleted node
-				return removed;
-			} 
-			at++;
-		}
-		// if nothing else could happen, your index doesn't exist
-		throw new BadIndexError();
+		// if removing from the middle, find the node before the one we want to delete
+		Node<T> current = nodeBefore(index);
+		// save the node that will be deleted
+		Node<T> gone = current.next;
+		T removed = gone.value;
+		// set our current node to skip the one to be deleted
+		current.next = gone.next;
+		recycle(gone);
+		size--;
+		modCount++;
+		pinFinger(current, index - 1);
+		// return deleted node
+		return removed;
 	}
 
 	@Override
 	public void addFront(T item) { // Efficiency: O(1)
-		this.start = new Node<T>(item, start);
+		this.start = newNode(item, start);
+		// the first node is also the last one
+		if (end == null) {
+			end = start;
+		}
+		size++;
+		modCount++;
 	}
 
 	@Override
-	public void addBack(T item) { // Efficiency: O(n) because of for loop 
+	public void addBack(T item) { // Efficiency: O(1) because we keep the end
 		// if empty
 		if (this.isEmpty()) {
 			addFront(item);
 		} else {
-			// go through every node
-			for (Node<T> current = start; current != null; current = current.next) {
-				// find the last node
-				if (current.next == null) {
-					// point it at the added value
-					current.next = new Node<T>(item, null);
-					break;
-				}
-			}
+			// point the last node at the added value
+			end.next = newNode(item, null);
+			end = end.next;
+			size++;
+			modCount++;
 		}
 	}
 
 	@Override
-	public void addIndex(T item, int index) { // Efficiency: O(n) because of for loop 
+	public void addIndex(T item, int index) { // Efficiency: O(n) because of for loop, O(1) just after the last lookup
+		// if the index doesn't exist
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
 		// if adding at the front
-		if (index == 0 || this.isEmpty()) { 
+		if (index == 0) { 
 			addFront(item);
+		// if adding at the back
+		} else if (index == size) {
+			addBack(item);
 		} else {
-			// if adding in the middle
-			// index counter
-			int at = 0;
-			// go through every node
-			for (Node<T> current = start; current != null; current = current.next) {
-				// find the node before the one we want to add
-				if (at == index - 1) {
-					// save the node that will be deleted
-					Node<T> pointTo = current.next;
-					// set our current node to the one to be added
-					current.next = new Node<T>(item, pointTo);
-					break;
-				}
-				at++;
-			}
+			// if adding in the middle, find the node before the one we want to add
+			Node<T> current = nodeBefore(index);
+			// save the node that will come after it
+			Node<T> pointTo = current.next;
+			// set our current node to the one to be added
+			current.next = newNode(item, pointTo);
+			size++;
+			modCount++;
+			pinFinger(current.next, index);
 		}
 	}
 
 	@Override
 	public T getFront() { // Efficiency: O(1)
+		checkNotEmpty();
 		return start.value;
 	}
 
 	@Override
-	public T getBack() { // Efficiency: O(n)
-		// if there is only one item
-		if (start.next == null) {
-			return start.value;
-		}
-
-		// go through every node
-		for (Node<T> current = start; current != null; current = current.next) {
-			// find the last node
-			if (current.next == null) {
-				// return its value
-				return current.value;
-			}
-		}
-		throw new EmptyListError();
+	public T getBack() { // Efficiency: O(1) because we keep the end
+		checkNotEmpty();
+		return end.value;
 	}
 
 	@Override
-	public T getIndex(int index) { // Efficiency: O(n) because of for loop 
+	public T getIndex(int index) { // Efficiency: O(n) because of for loop, O(1) for the index after the last lookup
 		// if empty
 		checkNotEmpty();
-		// if the index exists
-		// index counter
-		int at = 0;
-		// go through every node
-		for (Node<T> current = start; current != null; current = current.next) {
-			// if we are at the given index
-			if (at == index) {
-				// return its value
-				return current.value;
-			}
-			at++;
-		} // we couldn't find the index
-		throw new BadIndexError();
+		// if the index doesn't exist
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
+		}
+		return nodeAt(index).value;
 	}
 
 	@Override
-	public int size() { // Efficiency: O(n) because of for loop 
-		int count = 0;
-		for (Node<T> n = this.start; n != null; n = n.next) {
-			count++;
+	public T setIndex(T item, int index) { // Efficiency: O(n) because of for loop, O(1) for the index after the last lookup
+		checkNotEmpty();
+		if (index < 0 || index >= size) {
+			throw new BadIndexError();
 		}
-		return count;
+		Node<T> node = nodeAt(index);
+		T old = node.value;
+		node.value = item;
+		return old;
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1) because we keep count
+		return size;
 	}
 
 	@Override
@@ -184,6 +245,217 @@ public class SinglyLinkedList<T> implements P6List<T>, Iterable<T> {
 		return start == null;
 	}
 
+	@Override
+	public void addAllAt(int index, Iterable<? extends T> source) { // Efficiency: O(index + k), one splice for the whole batch
+		if (index < 0 || index > size) {
+			throw new BadIndexError();
+		}
+		Object[] items = BulkItems.toArray(source);
+		if (items.length == 0) {
+			return;
+		}
+		// find the nodes on either side of index
+		Node<T> before = index == 0 ? null : (index == size ? end : nodeBefore(index));
+		Node<T> after = before == null ? start : before.next;
+		// build the new nodes into a chain of their own, back to front
+		Node<T> chainStart = after;
+		Node<T> chainEnd = null;
+		for (int i = items.length - 1; i >= 0; i--) {
+			@SuppressWarnings("unchecked")
+			T item = (T) items[i];
+			chainStart = newNode(item, chainStart);
+			if (chainEnd == null) {
+				chainEnd = chainStart;
+			}
+		}
+		// then hook the chain in where it belongs
+		if (before == null) {
+			start = chainStart;
+		} else {
+			before.next = chainStart;
+		}
+		if (after == null) {
+			end = chainEnd;
+		}
+		size += items.length;
+		modCount++;
+	}
+
+	@Override
+	public void removeRange(int from, int to) { // Efficiency: O(to), one splice for the whole range
+		BulkItems.checkRange(from, to, size);
+		if (from == to) {
+			return;
+		}
+		Node<T> before = from == 0 ? null : nodeBefore(from);
+		Node<T> first = before == null ? start : before.next;
+		Node<T> last = first;
+		for (int i = from + 1; i < to; i++) {
+			last = last.next;
+		}
+		ListProbe.hops(to - from - 1);
+		Node<T> after = last.next;
+		// skip over everything from the first removed node to the last one
+		if (before == null) {
+			start = after;
+		} else {
+			before.next = after;
+		}
+		if (last == end) {
+			end = before;
+		}
+		size -= to - from;
+		modCount++;
+		// keep as many of the removed nodes as the pool has room for
+		for (Node<T> current = first; current != after && pooled < poolLimit;) {
+			Node<T> next = current.next;
+			recycle(current);
+			current = next;
+		}
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(1), the garbage collector takes the nodes
+		start = null;
+		end = null;
+		finger = null;
+		trail = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, adding each item at the back.
+	 * 
+	 * @param in    - where to read it from; it is not closed.
+	 * @param codec - how the items were turned into bytes.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> SinglyLinkedList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec) throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		SinglyLinkedList<T> list = new SinglyLinkedList<T>();
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				list.addBack(snapshot.read());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Find the node in front of an index.
+	 * 
+	 * @param index - a number from 1 to size (including size).
+	 * @return the node at index - 1.
+	 */
+	private Node<T> nodeBefore(int index) { // Efficiency: O(index), or O(distance) from the finger
+		return nodeAt(index - 1);
+	}
+
+	/**
+	 * Find the node at an index, walking on from the finger if it is at or
+	 * before the index, from the trail if that is, and from the start
+	 * otherwise. The finger stays on the node we found, so a loop over the
+	 * indexes in order takes one step each, and one that steps back a little
+	 * now and then takes at most 2 * TRAIL.
+	 * 
+	 * @param index - a number from 0 to size (excluding size).
+	 * @return the node at that index.
+	 */
+	private Node<T> nodeAt(int index) { // Efficiency: O(index), or O(distance) from the finger
+		if (index == size - 1) {
+			return end;
+		}
+		boolean pinned = finger != null && fingerModCount == modCount;
+		Node<T> current = start;
+		int at = 0;
+		if (pinned && fingerIndex <= index) {
+			current = finger;
+			at = fingerIndex;
+		} else if (pinned && trailIndex <= index) {
+			current = trail;
+			at = trailIndex;
+		}
+		if (!pinned || trailIndex > index) {
+			trail = start;
+			trailIndex = 0;
+		}
+		ListProbe.hops(index - at);
+		for (; at < index; at++) {
+			if (at == index - TRAIL) {
+				trail = current;
+				trailIndex = at;
+			}
+			current = current.next;
+		}
+		// after short steps the trail can fall too far behind; catch it up
+		if (index - trailIndex > 2 * TRAIL) {
+			ListProbe.hops(index - TRAIL - trailIndex);
+			while (trailIndex < index - TRAIL) {
+				trail = trail.next;
+				trailIndex++;
+			}
+		}
+		pinFinger(current, index);
+		return current;
+	}
+
+	/**
+	 * Remember where a node is, until the next time nodes are added or removed.
+	 * The trail has to be at or before index, and not moved since nodeAt.
+	 * 
+	 * @param node  - a node in the list.
+	 * @param index - where it is.
+	 */
+	private void pinFinger(Node<T> node, int index) { // Efficiency: O(1)
+		finger = node;
+		fingerIndex = index;
+		fingerModCount = modCount;
+	}
+
+	/**
+	 * Make a node, reusing one from the pool if there is one.
+	 * 
+	 * @param value - the value to put in it.
+	 * @param next  - the node that comes after it.
+	 * @return the node.
+	 */
+	private Node<T> newNode(T value, Node<T> next) { // Efficiency: O(1)
+		Node<T> node = pool;
+		if (node == null) {
+			return new Node<T>(value, next);
+		}
+		pool = node.next;
+		pooled--;
+		node.value = value;
+		node.next = next;
+		return node;
+	}
+
+	/**
+	 * Put a removed node on the pool, if recycling is on and there is room.
+	 * 
+	 * @param node - a node that is no longer in the list.
+	 */
+	private void recycle(Node<T> node) { // Efficiency: O(1)
+		if (pooled >= poolLimit) {
+			return;
+		}
+		// forget the value so the pool does not keep it alive
+		node.value = null;
+		node.next = pool;
+		pool = node;
+		pooled++;
+	}
+
+	/**
+	 * @return how many spare nodes are waiting on the pool.
+	 */
+	int pooled() { // Efficiency: O(1)
+		return pooled;
+	}
+
 	/**
 	 * Helper method to throw the right error for an empty state.
 	 */
@@ -234,6 +506,11 @@ public class SinglyLinkedList<T> implements P6List<T>, Iterable<T> {
 		 * This is the value that walks through the list.
 		 */
 		Node<T> current;
+		/**
+		 * The list being looped over, to notice if it changes underneath us.
+		 */
+		final SinglyLinkedList<T> list;
+		final int expectedModCount;
 
 		/**
 		 * This constructor details where to start, given a list.
@@ -242,19 +519,32 @@ public class SinglyLinkedList<T> implements P6List<T>, Iterable<T> {
 		 */
 		public Iter(SinglyLinkedList<T> list) { 
 			this.current = list.start;
+			this.list = list;
+			this.expectedModCount = list.modCount;
 		}
 
 		@Override
 		public boolean hasNext() {
+			checkForChanges();
 			return current != null;
 		}
 
 		@Override
 		public T next() {
+			checkForChanges();
+			if (current == null) {
+				throw new NoSuchElementException();
+			}
 			T found = current.value;
 			current = current.next;
 			return found;
 		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (list.modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
 	}
 
 	/**
@@ -266,4 +556,135 @@ public class SinglyLinkedList<T> implements P6List<T>, Iterable<T> {
 	public Iterator<T> iterator() {
 		return new Iter<>(this);
 	}
+
+	/**
+	 * Make a cursor at the front of the list.
+	 * 
+	 * @return a cursor whose next() is the first item.
+	 */
+	public P6Cursor<T> cursor() { // Efficiency: O(1)
+		return new Cursor();
+	}
+
+	/**
+	 * Remembers the node just before it (and the one before that), so every
+	 * edit is O(1) even though the nodes only point forward.
+	 */
+	private class Cursor implements P6Cursor<T> {
+		/**
+		 * The node just before the cursor, or null at the front.
+		 */
+		Node<T> before;
+		/**
+		 * The node before {@code before}; only kept up to date while there is a
+		 * current item, since only remove() needs it.
+		 */
+		Node<T> beforeThat;
+		/**
+		 * True when {@code before} is the current item.
+		 */
+		boolean hasCurrent;
+		int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() { // Efficiency: O(1)
+			checkForChanges();
+			return after() != null;
+		}
+
+		@Override
+		public T next() { // Efficiency: O(1)
+			checkForChanges();
+			Node<T> node = after();
+			if (node == null) {
+				throw new NoSuchElementException();
+			}
+			beforeThat = before;
+			before = node;
+			hasCurrent = true;
+			return node.value;
+		}
+
+		@Override
+		public void insertBefore(T item) { // Efficiency: O(1)
+			Node<T> node = link(item);
+			beforeThat = before;
+			before = node;
+		}
+
+		@Override
+		public void insertAfter(T item) { // Efficiency: O(1)
+			link(item);
+		}
+
+		@Override
+		public void remove() { // Efficiency: O(1)
+			checkCurrent();
+			// skip over the current node, which is just before the cursor
+			if (beforeThat == null) {
+				start = before.next;
+			} else {
+				beforeThat.next = before.next;
+			}
+			if (before == end) {
+				end = beforeThat;
+			}
+			Node<T> removed = before;
+			before = beforeThat;
+			hasCurrent = false;
+			size--;
+			changed();
+			recycle(removed);
+		}
+
+		@Override
+		public T set(T item) { // Efficiency: O(1)
+			checkCurrent();
+			T old = before.value;
+			before.value = item;
+			return old;
+		}
+
+		private Node<T> after() { // Efficiency: O(1)
+			return before == null ? start : before.next;
+		}
+
+		/**
+		 * Put a new node at the cursor, between before and after().
+		 */
+		private Node<T> link(T item) { // Efficiency: O(1)
+			checkForChanges();
+			Node<T> node = newNode(item, after());
+			if (before == null) {
+				start = node;
+			} else {
+				before.next = node;
+			}
+			if (node.next == null) {
+				end = node;
+			}
+			hasCurrent = false;
+			size++;
+			changed();
+			return node;
+		}
+
+		private void changed() { // Efficiency: O(1)
+			modCount++;
+			expectedModCount = modCount;
+		}
+
+		private void checkCurrent() { // Efficiency: O(1)
+			checkForChanges();
+			if (!hasCurrent) {
+				throw new IllegalStateException("call next() first");
+			}
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
 }
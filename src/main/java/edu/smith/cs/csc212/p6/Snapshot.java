@@ -0,0 +1,309 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * The binary format of {@link P6List#writeTo} and the readFrom methods. It is a
+ * header of eight ints: magic ("P6SN"), version, kind, record width, layout,
+ * item count, block count and a CRC32 of the seven before it. Then come the
+ * blocks, each an int saying how many items it holds followed by that many
+ * records from a {@link RecordCodec}.
+ *
+ * The kind says what sort of list wrote it, and the layout is whatever that
+ * list needs to come back the same: the capacity of a {@link FixedSizeList},
+ * the chunkSize of a {@link ChunkyLinkedList} (whose blocks are its chunks).
+ * Any list can read any snapshot; it just ignores a layout it doesn't use.
+ *
+ * Ints are big-endian, like ByteBuffer's default. A reader takes exactly the
+ * bytes of one snapshot from its channel, so whatever follows it is left for
+ * the caller. A damaged header is an IOException before anything is allocated
+ * for the items it claims. That includes the capacity of a FixedSizeList: one
+ * with more than {@link #MAX_FIXED_SPARE} empty slots, and more than it has
+ * items, is taken as damage instead of being allocated.
+ */
+final class Snapshot {
+	private Snapshot() {
+		// static helpers only.
+	}
+
+	static final int MAGIC = 0x5036534E;
+	static final int VERSION = 2;
+	static final int HEADER_BYTES = 8 * Integer.BYTES;
+	/**
+	 * A list with no layout of its own.
+	 */
+	static final int LIST = 0;
+	/**
+	 * A {@link FixedSizeList}; the layout is its capacity.
+	 */
+	static final int FIXED = 1;
+	/**
+	 * A {@link ChunkyLinkedList}; the layout is its chunkSize, one block a chunk.
+	 */
+	static final int CHUNKY = 2;
+	/**
+	 * The most slots a {@link #FIXED} layout may have beyond twice its item
+	 * count; a header claiming more is damaged.
+	 */
+	static final int MAX_FIXED_SPARE = 1 << 16;
+	/**
+	 * How many items go in each block of a list with no layout.
+	 */
+	static final int BLOCK_ITEMS = 4096;
+	/**
+	 * How many bytes are read or written at a time.
+	 */
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	/**
+	 * Write a list in blocks of {@link #BLOCK_ITEMS}.
+	 *
+	 * @param list   - what to write.
+	 * @param out    - where to write it.
+	 * @param codec  - how to write each item.
+	 * @param kind   - what sort of list it is.
+	 * @param layout - what that sort of list needs to come back the same.
+	 */
+	static <T> void write(P6List<T> list, WritableByteChannel out, RecordCodec<T> codec, int kind, int layout)
+			throws IOException { // Efficiency: O(n)
+		int count = list.size();
+		Writer<T> writer = new Writer<T>(out, codec, kind, layout, count,
+				(count + BLOCK_ITEMS - 1) / BLOCK_ITEMS);
+		int written = 0;
+		for (T item : list) {
+			if (written % BLOCK_ITEMS == 0) {
+				writer.beginBlock(Math.min(BLOCK_ITEMS, count - written));
+			}
+			writer.write(item);
+			written++;
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Writes a snapshot a block at a time through one buffer.
+	 */
+	static final class Writer<T> {
+		private final WritableByteChannel out;
+		private final RecordCodec<T> codec;
+		private final int width;
+		private final ByteBuffer buffer;
+
+		/**
+		 * Start a snapshot by writing its header.
+		 */
+		Writer(WritableByteChannel out, RecordCodec<T> codec, int kind, int layout, int count, int blocks)
+				throws IOException {
+			this.out = out;
+			this.codec = codec;
+			this.width = codec.width();
+			this.buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, HEADER_BYTES + width));
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(kind).putInt(width);
+			buffer.putInt(layout).putInt(count).putInt(blocks);
+			buffer.putInt(checksum(buffer, 0));
+		}
+
+		/**
+		 * @param items - how many items the block about to be written holds.
+		 */
+		void beginBlock(int items) throws IOException { // Efficiency: O(1)
+			room(Integer.BYTES);
+			buffer.putInt(items);
+		}
+
+		void write(T item) throws IOException { // Efficiency: O(1)
+			room(width);
+			codec.write(item, buffer, buffer.position());
+			buffer.position(buffer.position() + width);
+		}
+
+		/**
+		 * Write out whatever is still in the buffer.
+		 */
+		void finish() throws IOException { // Efficiency: O(1)
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		private void room(int bytes) throws IOException { // Efficiency: O(1) amortized
+			if (buffer.remaining() < bytes) {
+				finish();
+			}
+		}
+	}
+
+	/**
+	 * Reads a snapshot a block at a time through one buffer.
+	 */
+	static final class Reader<T> {
+		private final ReadableByteChannel in;
+		private final RecordCodec<T> codec;
+		private final int width;
+		private final ByteBuffer buffer;
+		private final int kind;
+		private final int layout;
+		private final int count;
+		private final int blocks;
+		private int blocksRead;
+		private int itemsRead;
+		/**
+		 * How many items of the current block have not been read yet.
+		 */
+		private int leftInBlock;
+		/**
+		 * How many bytes are known to be part of the snapshot but have not been
+		 * taken from the channel yet; reads never go past them.
+		 */
+		private long ahead = HEADER_BYTES;
+
+		/**
+		 * Start reading a snapshot by reading its header.
+		 *
+		 * @throws IOException if the channel doesn't hold a snapshot written with
+		 *                     the same record width, or its header is damaged.
+		 */
+		Reader(ReadableByteChannel in, RecordCodec<T> codec) throws IOException {
+			this.in = in;
+			this.codec = codec;
+			this.width = codec.width();
+			this.buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, HEADER_BYTES + width));
+			buffer.flip();
+			need(HEADER_BYTES);
+			int start = buffer.position();
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException("not a list snapshot");
+			}
+			if (buffer.getInt(start + HEADER_BYTES - Integer.BYTES) != checksum(buffer, start)) {
+				throw new IOException("the snapshot is damaged: its header doesn't match its checksum");
+			}
+			this.kind = buffer.getInt();
+			int writtenWidth = buffer.getInt();
+			if (writtenWidth != width) {
+				throw new IOException("the snapshot holds " + writtenWidth + " byte records, not " + width);
+			}
+			this.layout = buffer.getInt();
+			this.count = buffer.getInt();
+			this.blocks = buffer.getInt();
+			buffer.getInt(); // the checksum, already checked
+			if (count < 0 || blocks < 0 || layout < 0 || (kind == FIXED && layout < count)) {
+				throw new IOException("the snapshot is damaged");
+			}
+			if (kind == FIXED && layout > Math.max(2L * count, MAX_FIXED_SPARE)) {
+				throw new IOException("the snapshot is damaged: it claims room for " + layout + " items but holds "
+						+ count);
+			}
+			if (blocks > 0) {
+				ahead += Integer.BYTES;
+			}
+			if (in instanceof SeekableByteChannel) {
+				SeekableByteChannel file = (SeekableByteChannel) in;
+				if (file.size() - file.position() < (long) count * width + (long) blocks * Integer.BYTES) {
+					throw new EOFException("the snapshot ends too soon");
+				}
+			}
+		}
+
+		int kind() { // Efficiency: O(1)
+			return kind;
+		}
+
+		int layout() { // Efficiency: O(1)
+			return layout;
+		}
+
+		/**
+		 * @return how many items the whole snapshot holds.
+		 */
+		int count() { // Efficiency: O(1)
+			return count;
+		}
+
+		/**
+		 * Move on to the next block; the items of the current one must all have
+		 * been read.
+		 *
+		 * @return how many items the block holds, or -1 after the last block.
+		 */
+		int nextBlock() throws IOException { // Efficiency: O(1)
+			if (leftInBlock != 0) {
+				throw new IllegalStateException("the block is not finished");
+			}
+			if (blocksRead == blocks) {
+				if (itemsRead != count) {
+					throw new IOException("the snapshot is damaged: it is missing items");
+				}
+				return -1;
+			}
+			need(Integer.BYTES);
+			leftInBlock = buffer.getInt();
+			if (leftInBlock < 0 || leftInBlock > count - itemsRead) {
+				throw new IOException("the snapshot is damaged: block " + blocksRead + " is too big");
+			}
+			blocksRead++;
+			ahead += (long) leftInBlock * width;
+			if (blocksRead < blocks) {
+				ahead += Integer.BYTES;
+			}
+			return leftInBlock;
+		}
+
+		/**
+		 * @return the next item of the current block.
+		 */
+		T read() throws IOException { // Efficiency: O(1)
+			if (leftInBlock == 0) {
+				throw new IllegalStateException("the block is finished");
+			}
+			need(width);
+			T item = codec.read(buffer, buffer.position());
+			buffer.position(buffer.position() + width);
+			leftInBlock--;
+			itemsRead++;
+			return item;
+		}
+
+		/**
+		 * Read from the channel until at least that many bytes are waiting, but
+		 * never past the end of the snapshot.
+		 */
+		private void need(int bytes) throws IOException { // Efficiency: O(1) amortized
+			if (buffer.remaining() >= bytes) {
+				return;
+			}
+			buffer.compact();
+			while (buffer.position() < bytes) {
+				buffer.limit(buffer.position() + (int) Math.min(buffer.remaining(), ahead));
+				int read = in.read(buffer);
+				buffer.limit(buffer.capacity());
+				if (read < 0) {
+					throw new EOFException("the snapshot ends too soon");
+				}
+				ahead -= read;
+			}
+			buffer.flip();
+		}
+	}
+
+	/**
+	 * @param buffer - holds a header.
+	 * @param start  - where in the buffer the header starts.
+	 * @return the CRC32 of every int of the header before the checksum.
+	 */
+	private static int checksum(ByteBuffer buffer, int start) { // Efficiency: O(1)
+		ByteBuffer fields = buffer.duplicate();
+		fields.limit(start + HEADER_BYTES - Integer.BYTES);
+		fields.position(start);
+		CRC32 crc = new CRC32();
+		crc.update(fields);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,584 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+/**
+ * A list kept in a treap (a binary tree that stays balanced by giving each node
+ * a random priority) whose nodes each hold a {@link FixedSizeList} leaf of up
+ * to leafSize items. The tree is ordered by position, not by value: an in-order
+ * walk visits the leaves front to back, and every node knows how many items
+ * are in its subtree, so the leaf holding the i-th item is found by walking
+ * down from the root.
+ *
+ * The tree has O(log c) expected depth for c leaves, so getIndex, addIndex and
+ * removeIndex are all O(log c + k) for leaves of k items. Unlike
+ * {@link ChunkyLinkedList}, whose directory has to shift every chunk after a
+ * new or removed one, splitting or merging a leaf is O(log c) here too.
+ *
+ * A full leaf is split in half; a leaf that drops below a quarter full is
+ * merged with the next one (or the previous one, at the back) if they fit
+ * together, or else borrows items from it, just like the chunks of
+ * {@link ChunkyLinkedList}. So every leaf but a lone one stays at least a
+ * quarter full.
+ *
+ * @param <T> the type of item stored in the list.
+ */
+public class TreapList<T> implements P6List<T> {
+	public static final int DEFAULT_LEAF_SIZE = 64;
+
+	private final int leafSize;
+	/**
+	 * A leaf with fewer items than this gets merged or refilled.
+	 */
+	private final int lowWater;
+	private Node<T> root;
+	/**
+	 * Goes up every time items are added or removed, so an iterator can tell
+	 * that the list changed underneath it.
+	 */
+	private int modCount;
+	/**
+	 * The state of the random number generator for priorities (xorshift).
+	 */
+	private int seed = 0x2545F491;
+
+	public TreapList() {
+		this(DEFAULT_LEAF_SIZE);
+	}
+
+	/**
+	 * @param leafSize - how many items fit in each leaf; at least 4.
+	 */
+	public TreapList(int leafSize) {
+		if (leafSize < 4) {
+			throw new IllegalArgumentException("leafSize must be at least 4: " + leafSize);
+		}
+		this.leafSize = leafSize;
+		this.lowWater = leafSize / 4;
+		this.root = newNode();
+	}
+
+	@Override
+	public T removeFront() { // Efficiency: O(log c + k)
+		checkNotEmpty();
+		return removeIndex(0);
+	}
+
+	@Override
+	public T removeBack() { // Efficiency: O(log c + k)
+		checkNotEmpty();
+		return removeIndex(size() - 1);
+	}
+
+	@Override
+	public T removeIndex(int index) { // Efficiency: O(log c + k)
+		checkNotEmpty();
+		if (index < 0 || index >= size()) {
+			throw new BadIndexError();
+		}
+		modCount++;
+		Place<T> place = find(index, -1, false);
+		Node<T> node = place.leaf;
+		int start = index - place.offset;
+		T removed = node.items.removeIndex(place.offset);
+		if (node.items.isEmpty()) {
+			if (root.count > 0) {
+				drop(start);
+			}
+		} else if (node.items.size() < lowWater) {
+			rebalance(node, start);
+		}
+		return removed;
+	}
+
+	@Override
+	public void addFront(T item) { // Efficiency: O(log c + k)
+		addIndex(item, 0);
+	}
+
+	@Override
+	public void addBack(T item) { // Efficiency: O(log c) amortized; a full last leaf is split in O(k)
+		addIndex(item, size());
+	}
+
+	@Override
+	public void addIndex(T item, int index) { // Efficiency: O(log c + k)
+		if (index < 0 || index > size()) {
+			throw new BadIndexError();
+		}
+		modCount++;
+		Place<T> place = find(index, 0, true);
+		if (place.leaf.items.size() == leafSize) {
+			split(place.leaf, index - place.offset);
+		}
+		place = find(index, 1, true);
+		place.leaf.items.addIndex(item, place.offset);
+	}
+
+	@Override
+	public T getFront() { // Efficiency: O(log c)
+		checkNotEmpty();
+		return getIndex(0);
+	}
+
+	@Override
+	public T getBack() { // Efficiency: O(log c)
+		checkNotEmpty();
+		return getIndex(size() - 1);
+	}
+
+	@Override
+	public T getIndex(int index) { // Efficiency: O(log c)
+		if (index < 0 || index >= size()) {
+			throw new BadIndexError();
+		}
+		Place<T> place = find(index, 0, false);
+		return place.leaf.items.getIndex(place.offset);
+	}
+
+	@Override
+	public T setIndex(T item, int index) { // Efficiency: O(log c)
+		if (index < 0 || index >= size()) {
+			throw new BadIndexError();
+		}
+		Place<T> place = find(index, 0, false);
+		return place.leaf.items.setIndex(item, place.offset);
+	}
+
+	@Override
+	public int size() { // Efficiency: O(1) because the root counts everything
+		return root.count;
+	}
+
+	@Override
+	public boolean isEmpty() { // Efficiency: O(1)
+		return root.count == 0;
+	}
+
+	@Override
+	public void clear() { // Efficiency: O(1), the garbage collector takes the nodes
+		modCount++;
+		root = newNode();
+	}
+
+	/**
+	 * Load a list saved by {@link P6List#writeTo}, filling each leaf before
+	 * starting the next and building the tree over them in one pass.
+	 *
+	 * @param in       - where to read it from; it is not closed.
+	 * @param codec    - how the items were turned into bytes.
+	 * @param leafSize - how many items fit in each leaf.
+	 * @return the list.
+	 * @throws IOException if reading fails or it is not a snapshot.
+	 */
+	public static <T> TreapList<T> readFrom(ReadableByteChannel in, RecordCodec<T> codec, int leafSize)
+			throws IOException { // Efficiency: O(n)
+		Snapshot.Reader<T> snapshot = new Snapshot.Reader<T>(in, codec);
+		TreapList<T> list = new TreapList<T>(leafSize);
+		// the right spine of the tree built so far, bottom last
+		ArrayDeque<Node<T>> spine = new ArrayDeque<>();
+		Node<T> previous = null;
+		Node<T> leaf = null;
+		for (int n = snapshot.nextBlock(); n >= 0; n = snapshot.nextBlock()) {
+			for (int i = 0; i < n; i++) {
+				if (leaf == null || leaf.items.size() == leafSize) {
+					previous = leaf;
+					leaf = list.newNode();
+					list.append(spine, leaf);
+				}
+				leaf.items.addBack(snapshot.read());
+			}
+		}
+		if (spine.isEmpty()) {
+			return list;
+		}
+		// the last leaf may be nearly empty; the full one before it shares with it
+		if (previous != null && leaf.items.size() < list.lowWater) {
+			while (leaf.items.size() < previous.items.size()) {
+				leaf.items.addFront(previous.items.removeBack());
+			}
+		}
+		// link what is left of the spine, then count every subtree
+		Node<T> below = null;
+		while (!spine.isEmpty()) {
+			Node<T> node = spine.removeLast();
+			node.right = below;
+			below = node;
+		}
+		list.root = below;
+		recount(list.root);
+		return list;
+	}
+
+	@Override
+	public Iterator<T> iterator() { // Efficiency: O(1); each step is O(1) amortized, going leaf by leaf
+		return new Iter();
+	}
+
+	/**
+	 * Walks the leaves in order with a stack of the nodes still to visit.
+	 */
+	private class Iter implements Iterator<T> {
+		private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+		private Node<T> leaf;
+		private int at;
+		private final int expectedModCount = modCount;
+
+		Iter() {
+			pushLeft(root);
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			checkForChanges();
+			return leaf != null;
+		}
+
+		@Override
+		public T next() {
+			checkForChanges();
+			if (leaf == null) {
+				throw new NoSuchElementException();
+			}
+			T item = leaf.items.getIndex(at++);
+			if (at == leaf.items.size()) {
+				advance();
+			}
+			return item;
+		}
+
+		/**
+		 * Move on to the next leaf that has items, or null at the end.
+		 */
+		private void advance() {
+			leaf = null;
+			at = 0;
+			while (leaf == null && !stack.isEmpty()) {
+				Node<T> node = stack.pop();
+				pushLeft(node.right);
+				if (!node.items.isEmpty()) {
+					leaf = node;
+				}
+			}
+		}
+
+		private void pushLeft(Node<T> node) {
+			for (; node != null; node = node.left) {
+				stack.push(node);
+			}
+		}
+
+		private void checkForChanges() { // Efficiency: O(1)
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * A leaf of items, and the root of the subtree of leaves around it.
+	 */
+	private static final class Node<T> {
+		final FixedSizeList<T> items;
+		final int priority;
+		/**
+		 * How many items are in this node and everything below it.
+		 */
+		int count;
+		Node<T> left;
+		Node<T> right;
+
+		Node(int leafSize, int priority) {
+			this.items = new FixedSizeList<T>(leafSize);
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * A leaf found by {@link #find}, and where in it the item is.
+	 */
+	private static final class Place<T> {
+		final Node<T> leaf;
+		final int offset;
+
+		Place(Node<T> leaf, int offset) {
+			this.leaf = leaf;
+			this.offset = offset;
+		}
+	}
+
+	private Node<T> newNode() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return new Node<T>(leafSize, seed);
+	}
+
+	private static int count(Node<?> node) {
+		return node == null ? 0 : node.count;
+	}
+
+	/**
+	 * Walk down to the leaf that holds an index.
+	 *
+	 * @param index  - the item to find.
+	 * @param delta  - added to the count of every node on the way, for an item
+	 *               that is about to be added (1) or removed (-1).
+	 * @param adding - whether index may be just past the end of a leaf; then an
+	 *               index between two leaves finds the one before.
+	 * @return the leaf, and where in it the index is.
+	 */
+	private Place<T> find(int index, int delta, boolean adding) { // Efficiency: O(log c)
+		Node<T> node = root;
+		int depth = 0;
+		while (true) {
+			node.count += delta;
+			int before = count(node.left);
+			int end = before + node.items.size();
+			// an index between two leaves always goes to the one before, so the
+			// same leaf is found however the tree is shaped.
+			if (index < before || (adding && index == before && node.left != null)) {
+				node = node.left;
+			} else if (index < end || (adding && index == end)) {
+				ListProbe.hops(depth);
+				return new Place<T>(node, index - before);
+			} else {
+				index -= end;
+				node = node.right;
+			}
+			depth++;
+		}
+	}
+
+	/**
+	 * Move the back half of a full leaf into a new leaf right after it.
+	 *
+	 * @param node  - the full leaf.
+	 * @param start - the index of its first item.
+	 */
+	private void split(Node<T> node, int start) { // Efficiency: O(log c + k)
+		int end = start + node.items.size();
+		Node<T>[] parts = cut(root, end);
+		int moved = node.items.size() / 2;
+		Node<T> next = newNode();
+		for (int i = 0; i < moved; i++) {
+			next.items.addFront(node.items.removeBack());
+		}
+		next.count = moved;
+		// node is the last leaf before end, so it is on the right spine of parts[0]
+		addAlongRightSpine(parts[0], -moved);
+		root = join(join(parts[0], next), parts[1]);
+	}
+
+	/**
+	 * Take an empty leaf out of the tree.
+	 *
+	 * @param start - the index where the empty leaf is.
+	 */
+	private void drop(int start) { // Efficiency: O(log c)
+		Node<T>[] parts = cut(root, start);
+		// empty leaves sort before the cut, and after every other leaf before it
+		root = join(withoutLast(parts[0]), parts[1]);
+	}
+
+	/**
+	 * Merge a leaf that fell below the low-water mark with the next leaf (or the
+	 * previous one, if it is last) when they fit together with room to spare;
+	 * otherwise even out the items between the two.
+	 *
+	 * @param node  - a leaf that is less than a quarter full.
+	 * @param start - the index of its first item.
+	 */
+	private void rebalance(Node<T> node, int start) { // Efficiency: O(log c + k)
+		int end = start + node.items.size();
+		Node<T> left;
+		int leftStart;
+		if (end < size()) {
+			left = node;
+			leftStart = start;
+		} else if (start > 0) {
+			left = find(start - 1, 0, false).leaf;
+			leftStart = start - left.items.size();
+		} else {
+			// a lone leaf can be as small as it likes.
+			return;
+		}
+		int middle = leftStart + left.items.size();
+		Node<T> right = find(middle, 0, false).leaf;
+		int combined = left.items.size() + right.items.size();
+		Node<T>[] parts = cut(root, leftStart + combined);
+		Node<T>[] front = cut(parts[0], middle);
+		// front[1] holds only the right leaf; left is last in front[0]
+		if (combined <= leafSize - lowWater) {
+			int moving = right.items.size();
+			for (int i = 0; i < moving; i++) {
+				left.items.addBack(right.items.removeFront());
+			}
+			addAlongRightSpine(front[0], moving);
+			root = join(front[0], parts[1]);
+			return;
+		}
+		int moved = 0;
+		while (left.items.size() > combined / 2) {
+			right.items.addFront(left.items.removeBack());
+			moved--;
+		}
+		while (left.items.size() < combined / 2) {
+			left.items.addBack(right.items.removeFront());
+			moved++;
+		}
+		addAlongRightSpine(front[0], moved);
+		right.count = right.items.size();
+		root = join(join(front[0], right), parts[1]);
+	}
+
+	/**
+	 * Split a tree between two leaves.
+	 *
+	 * @param node  - the tree.
+	 * @param items - how many items go in the first part; must fall between
+	 *              leaves.
+	 * @return the leaves before that point and the leaves after it.
+	 */
+	private static <T> Node<T>[] cut(Node<T> node, int items) { // Efficiency: O(log c)
+		@SuppressWarnings("unchecked")
+		Node<T>[] parts = (Node<T>[]) new Node<?>[2];
+		if (node == null) {
+			return parts;
+		}
+		int end = count(node.left) + node.items.size();
+		if (end <= items) {
+			Node<T>[] right = cut(node.right, items - end);
+			node.right = right[0];
+			node.count = end + count(node.right);
+			parts[0] = node;
+			parts[1] = right[1];
+		} else {
+			Node<T>[] left = cut(node.left, items);
+			node.left = left[1];
+			node.count = node.items.size() + count(node.left) + count(node.right);
+			parts[0] = left[0];
+			parts[1] = node;
+		}
+		return parts;
+	}
+
+	/**
+	 * Put two trees one after the other, keeping the higher priorities on top.
+	 */
+	private static <T> Node<T> join(Node<T> first, Node<T> second) { // Efficiency: O(log c)
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		if (first.priority > second.priority) {
+			first.right = join(first.right, second);
+			first.count = count(first.left) + first.items.size() + count(first.right);
+			return first;
+		} else {
+			second.left = join(first, second.left);
+			second.count = count(second.left) + second.items.size() + count(second.right);
+			return second;
+		}
+	}
+
+	/**
+	 * @return the tree without its last leaf, which must be empty.
+	 */
+	private static <T> Node<T> withoutLast(Node<T> node) { // Efficiency: O(log c)
+		if (node.right == null) {
+			return node.left;
+		}
+		node.right = withoutLast(node.right);
+		return node;
+	}
+
+	/**
+	 * Add to the count of the last leaf and everything above it.
+	 */
+	private static void addAlongRightSpine(Node<?> node, int delta) { // Efficiency: O(log c)
+		for (; node != null; node = node.right) {
+			node.count += delta;
+		}
+	}
+
+	/**
+	 * Add a leaf after all the others while building a tree from the front to
+	 * the back, like building a Cartesian tree with a stack.
+	 *
+	 * @param spine - the right spine of the tree so far; leaves are linked in
+	 *              through left, and through right once they leave the spine.
+	 * @param leaf  - the new last leaf.
+	 */
+	private void append(ArrayDeque<Node<T>> spine, Node<T> leaf) { // Efficiency: O(1) amortized
+		Node<T> popped = null;
+		while (!spine.isEmpty() && spine.peekLast().priority < leaf.priority) {
+			Node<T> last = spine.removeLast();
+			last.right = popped;
+			popped = last;
+		}
+		leaf.left = popped;
+		spine.addLast(leaf);
+	}
+
+	/**
+	 * Count every subtree of a freshly built tree.
+	 *
+	 * @return how many items are in the tree.
+	 */
+	private static int recount(Node<?> node) { // Efficiency: O(c)
+		if (node == null) {
+			return 0;
+		}
+		node.count = recount(node.left) + node.items.size() + recount(node.right);
+		return node.count;
+	}
+
+	/**
+	 * Check that the counts add up and the priorities are in heap order. This
+	 * is for tests; it throws IllegalStateException when something is wrong.
+	 *
+	 * @return the depth of the tree.
+	 */
+	int checkInvariants() { // Efficiency: O(c)
+		boolean lone = root.left == null && root.right == null;
+		return check(root, Integer.MAX_VALUE, root.count > 0, lone ? 0 : lowWater);
+	}
+
+	private int check(Node<T> node, int maxPriority, boolean noEmptyLeaves, int minItems) {
+		if (node == null) {
+			return 0;
+		}
+		if (node.priority > maxPriority) {
+			throw new IllegalStateException("a child has a higher priority than its parent");
+		}
+		if (noEmptyLeaves && node.items.isEmpty()) {
+			throw new IllegalStateException("an empty leaf was not dropped");
+		}
+		if (node.items.size() < minItems) {
+			throw new IllegalStateException("a leaf is below the low-water mark");
+		}
+		if (node.count != count(node.left) + node.items.size() + count(node.right)) {
+			throw new IllegalStateException("a count is out of date");
+		}
+		return 1 + Math.max(check(node.left, node.priority, noEmptyLeaves, minItems),
+				check(node.right, node.priority, noEmptyLeaves, minItems));
+	}
+
+	private void checkNotEmpty() {
+		if (this.isEmpty()) {
+			throw new EmptyListError();
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package edu.smith.cs.csc212.p6.errors;
+
+/**
+ * This is an error for lists that never change, like
+ * {@link edu.smith.cs.csc212.p6.PersistentVector}; it is thrown by the methods
+ * that would change them.
+ */
+@SuppressWarnings("serial")
+public class ImmutableListError extends RuntimeException {
+	public ImmutableListError() {
+		super("ImmutableListError");
+	}
+}
@@ -0,0 +1,166 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.AdaptiveList.Kind;
+import edu.smith.cs.csc212.p6.AdaptiveList.Thresholds;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class AdaptiveListTest {
+	/**
+	 * Small windows, so the tests don't need many calls to see a migration.
+	 */
+	private static final Thresholds QUICK = Thresholds.DEFAULT.withWindow(100).withPatience(2).withChunkyMinSize(200)
+			.withChunkSize(16);
+
+	private static AdaptiveList<Integer> filled(Kind start, int size) {
+		AdaptiveList<Integer> data = new AdaptiveList<Integer>(start, QUICK);
+		for (int i = 0; i < size; i++) {
+			data.addBack(i);
+		}
+		return data;
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testRemoveFrontCrash() {
+		new AdaptiveList<String>().removeFront();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadShareCrash() {
+		Thresholds.DEFAULT.withReadShare(1.5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadWindowCrash() {
+		Thresholds.DEFAULT.withWindow(0);
+	}
+
+	@Test
+	public void testQueueBecomesDoubly() {
+		AdaptiveList<Integer> data = filled(Kind.GROWABLE, 1000);
+		Assert.assertEquals(Kind.DOUBLY, data.kind());
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(data.removeFront());
+		}
+		Assert.assertEquals(Kind.DOUBLY, data.kind());
+		Assert.assertEquals(1, data.migrations());
+		Assert.assertEquals(0, (int) data.getFront());
+	}
+
+	@Test
+	public void testReadsBecomeGrowable() {
+		AdaptiveList<Integer> data = filled(Kind.DOUBLY, 1000);
+		Random rand = new Random(3);
+		for (int i = 0; i < 300; i++) {
+			int index = rand.nextInt(data.size());
+			Assert.assertEquals(index, (int) data.getIndex(index));
+		}
+		Assert.assertEquals(Kind.GROWABLE, data.kind());
+	}
+
+	@Test
+	public void testEditsBecomeChunky() {
+		AdaptiveList<Integer> data = filled(Kind.GROWABLE, 1000);
+		for (int i = 0; i < 300; i++) {
+			data.addIndex(-1, 500);
+			Assert.assertEquals(-1, (int) data.removeIndex(500));
+		}
+		Assert.assertEquals(Kind.CHUNKY, data.kind());
+		// small lists are cheap to shift, so they stay arrays
+		AdaptiveList<Integer> small = new AdaptiveList<Integer>(Kind.GROWABLE, QUICK);
+		for (int i = 0; i < 100; i++) {
+			small.addBack(i);
+		}
+		for (int i = 0; i < 300; i++) {
+			small.addIndex(-1, 50);
+			small.removeIndex(50);
+		}
+		Assert.assertEquals(Kind.GROWABLE, small.kind());
+	}
+
+	@Test
+	public void testBurstDoesNotMigrate() {
+		AdaptiveList<Integer> data = filled(Kind.CHUNKY, 1000);
+		data.migrate(Kind.CHUNKY);
+		int before = data.migrations();
+		// windows of reads in between windows of queue calls; each alone would
+		// want a different kind, but neither wins twice in a row
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 100; i++) {
+				data.getIndex(500);
+			}
+			for (int i = 0; i < 50; i++) {
+				data.addBack(data.removeFront());
+			}
+		}
+		Assert.assertEquals(Kind.CHUNKY, data.kind());
+		Assert.assertEquals(before, data.migrations());
+	}
+
+	@Test
+	public void testStuckMigratesAtOnce() {
+		AdaptiveList<Integer> data = new AdaptiveList<Integer>(Kind.DOUBLY, QUICK.withPatience(100));
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(i);
+		}
+		Assert.assertEquals(Kind.DOUBLY, data.kind());
+		// reads by index walk a linked list, so one window of them is enough
+		for (int i = 0; i < 100; i++) {
+			data.getIndex(500);
+		}
+		Assert.assertEquals(Kind.GROWABLE, data.kind());
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(13);
+		AdaptiveList<Integer> data = new AdaptiveList<Integer>(Kind.GROWABLE,
+				QUICK.withWindow(50).withPatience(1).withChunkyMinSize(0));
+		List<Integer> expected = new ArrayList<>();
+		for (int phase = 0; phase < 30; phase++) {
+			int mode = phase % 3;
+			for (int step = 0; step < 200; step++) {
+				int choice = rand.nextInt(4);
+				if (expected.isEmpty() || choice == 0) {
+					int index = mode == 0 ? expected.size() : rand.nextInt(expected.size() + 1);
+					data.addIndex(step, index);
+					expected.add(index, step);
+				} else if (choice == 1) {
+					int index = mode == 0 ? 0 : rand.nextInt(expected.size());
+					Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+				} else {
+					int index = rand.nextInt(expected.size());
+					Assert.assertEquals(expected.get(index), data.getIndex(index));
+				}
+			}
+			Assert.assertEquals(expected.size(), data.size());
+		}
+		Assert.assertTrue(data.migrations() > 1);
+		int i = 0;
+		for (Integer item : data) {
+			Assert.assertEquals(expected.get(i++), item);
+		}
+	}
+
+	@Test
+	public void testMigrate() {
+		AdaptiveList<Integer> data = new AdaptiveList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			data.addBack(i);
+		}
+		for (Kind kind : Kind.values()) {
+			data.migrate(kind);
+			Assert.assertEquals(kind, data.kind());
+			Assert.assertEquals(10, data.size());
+			for (int i = 0; i < 10; i++) {
+				Assert.assertEquals(i, (int) data.getIndex(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+
+/**
+ * Runs the same random addAllAt / addAllBack / removeRange / clear steps on a
+ * P6List and on an ArrayList, and checks that they agree after every step.
+ */
+final class BulkChecks {
+	private BulkChecks() {
+		// static helpers only.
+	}
+
+	static void matchesArrayList(P6List<Integer> data, int maxBatch, Consumer<P6List<Integer>> check) {
+		Random rand = new Random(maxBatch);
+		List<Integer> expected = new ArrayList<>();
+		int next = 0;
+		for (int step = 0; step < 300; step++) {
+			int choice = rand.nextInt(10);
+			if (choice < 5) {
+				List<Integer> batch = new ArrayList<>();
+				int k = rand.nextInt(maxBatch + 1);
+				for (int i = 0; i < k; i++) {
+					batch.add(next++);
+				}
+				if (choice == 0) {
+					data.addAllBack(batch);
+					expected.addAll(batch);
+				} else {
+					int index = rand.nextInt(expected.size() + 1);
+					data.addAllAt(index, batch);
+					expected.addAll(index, batch);
+				}
+			} else if (choice < 9) {
+				int from = rand.nextInt(expected.size() + 1);
+				int to = from + rand.nextInt(Math.min(maxBatch, expected.size() - from) + 1);
+				data.removeRange(from, to);
+				expected.subList(from, to).clear();
+			} else if (rand.nextInt(10) == 0) {
+				data.clear();
+				expected.clear();
+			}
+			check.accept(data);
+			Assert.assertEquals(expected.size(), data.size());
+			Assert.assertEquals(expected.isEmpty(), data.isEmpty());
+			for (int i = 0; i < expected.size(); i++) {
+				Assert.assertEquals(expected.get(i), data.getIndex(i));
+			}
+		}
+	}
+
+	static void matchesArrayList(P6List<Integer> data, int maxBatch) {
+		matchesArrayList(data, maxBatch, list -> {
+		});
+	}
+}
@@ -0,0 +1,70 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkDirectoryTest {
+	/**
+	 * Check every chunk and every item against a plain list of chunk sizes.
+	 */
+	private void assertMatches(List<Integer> expected, ChunkDirectory<String> dir) {
+		Assert.assertEquals(expected.size(), dir.count());
+		int start = 0;
+		for (int c = 0; c < expected.size(); c++) {
+			Assert.assertEquals("c" + c, expected.get(c).intValue(), dir.sizeOf(c));
+			Assert.assertEquals("c" + c, start, dir.startOf(c));
+			for (int i = start; i < start + expected.get(c); i++) {
+				Assert.assertEquals("i" + i, c, dir.find(i));
+			}
+			start += expected.get(c);
+		}
+		Assert.assertEquals(start, dir.total());
+	}
+
+	@Test
+	public void testEmptyChunksAreSkipped() {
+		ChunkDirectory<String> dir = new ChunkDirectory<>();
+		dir.insert(0, "a", 0);
+		dir.insert(1, "b", 3);
+		dir.insert(2, "c", 0);
+		dir.insert(3, "d", 2);
+		Assert.assertEquals(1, dir.find(0));
+		Assert.assertEquals(3, dir.find(3));
+		Assert.assertEquals("d", dir.get(3));
+		Assert.assertEquals(5, dir.total());
+	}
+
+	@Test
+	public void testMatchesList() {
+		Random rand = new Random(7);
+		ChunkDirectory<String> dir = new ChunkDirectory<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 2000; step++) {
+			int choice = rand.nextInt(5);
+			if (expected.isEmpty() || choice < 2) {
+				int chunk = rand.nextInt(3) == 0 ? rand.nextInt(expected.size() + 1)
+						: (rand.nextBoolean() ? 0 : expected.size());
+				int size = rand.nextInt(5);
+				dir.insert(chunk, "s" + step, size);
+				expected.add(chunk, size);
+			} else if (choice == 2) {
+				int chunk = rand.nextInt(expected.size());
+				dir.remove(chunk);
+				expected.remove(chunk);
+			} else {
+				int chunk = rand.nextInt(expected.size());
+				int delta = rand.nextInt(4) - expected.get(chunk) / 2;
+				dir.resized(chunk, delta);
+				expected.set(chunk, expected.get(chunk) + delta);
+			}
+			if (step % 50 == 0) {
+				assertMatches(expected, dir);
+			}
+		}
+		assertMatches(expected, dir);
+	}
+}
@@ -0,0 +1,365 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class ChunkyLinkedListTest {
+	private void assertMatches(List<Integer> expected, ChunkyLinkedList<Integer> data) {
+		data.checkInvariants();
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testRemoveFrontCrash() {
+		new ChunkyLinkedList<String>(4).removeFront();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testGetIndexCrash() {
+		ChunkyLinkedList<String> data = new ChunkyLinkedList<String>(4);
+		data.addBack("a");
+		data.getIndex(1);
+	}
+
+	@Test
+	public void testSplitKeepsOrder() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(4);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			data.addBack(i);
+			expected.add(i);
+		}
+		data.addIndex(100, 2);
+		expected.add(2, 100);
+		data.addIndex(200, 7);
+		expected.add(7, 200);
+		assertMatches(expected, data);
+	}
+
+	@Test
+	public void testEmptyChunksGoAway() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(4);
+		for (int i = 0; i < 40; i++) {
+			data.addBack(i);
+		}
+		Assert.assertEquals(10, data.chunkCount());
+		for (int i = 0; i < 39; i++) {
+			data.removeFront();
+		}
+		Assert.assertEquals(1, data.chunkCount());
+		Assert.assertEquals(39, (int) data.getFront());
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testChurnMatchesArrayList() {
+		for (int chunkSize : new int[] { 1, 2, 5, 16 }) {
+			Random rand = new Random(chunkSize);
+			ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(chunkSize);
+			List<Integer> expected = new ArrayList<>();
+			for (int step = 0; step < 4000; step++) {
+				int choice = rand.nextInt(8);
+				// grow for the first half, shrink for the second half.
+				boolean grow = step < 2000 ? choice < 5 : choice < 3;
+				if (expected.isEmpty() || grow) {
+					int index = rand.nextInt(expected.size() + 1);
+					if (choice == 0) {
+						data.addFront(step);
+						index = 0;
+					} else if (choice == 1) {
+						data.addBack(step);
+						index = expected.size();
+					} else {
+						data.addIndex(step, index);
+					}
+					expected.add(index, step);
+				} else if (choice == 5) {
+					Assert.assertEquals(expected.remove(0), data.removeFront());
+				} else if (choice == 6) {
+					Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+				} else {
+					int index = rand.nextInt(expected.size());
+					Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+				}
+				data.checkInvariants();
+			}
+			assertMatches(expected, data);
+		}
+	}
+
+	@Test
+	public void testOffHeapMatchesArrayList() {
+		Random rand = new Random(5);
+		ChunkyLinkedList<Long> data = new ChunkyLinkedList<Long>(8, RecordCodec.LONGS);
+		List<Long> expected = new ArrayList<>();
+		for (int step = 0; step < 3000; step++) {
+			long item = (long) step * Integer.MAX_VALUE;
+			if (expected.isEmpty() || rand.nextInt(5) < 3) {
+				int index = rand.nextInt(expected.size() + 1);
+				data.addIndex(item, index);
+				expected.add(index, item);
+			} else if (rand.nextBoolean()) {
+				Assert.assertEquals(expected.remove(0), data.removeFront());
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+			data.checkInvariants();
+		}
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		for (int chunkSize : new int[] { 1, 3, 8, 64 }) {
+			BulkChecks.matchesArrayList(new ChunkyLinkedList<Integer>(chunkSize), 50,
+					list -> ((ChunkyLinkedList<Integer>) list).checkInvariants());
+		}
+		BulkChecks.matchesArrayList(new ChunkyLinkedList<Integer>(8, RecordCodec.INTS), 50,
+				list -> ((ChunkyLinkedList<Integer>) list).checkInvariants());
+	}
+
+	@Test
+	public void testStream() {
+		for (int chunkSize : new int[] { 1, 7, 64 }) {
+			ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(chunkSize);
+			StreamChecks.matchesRange(data);
+			for (int i = 0; i < 5000; i++) {
+				data.addBack(i);
+			}
+			StreamChecks.matchesRange(data);
+		}
+		ChunkyLinkedList<Integer> offHeap = new ChunkyLinkedList<Integer>(32, RecordCodec.INTS);
+		for (int i = 0; i < 5000; i++) {
+			offHeap.addBack(i);
+		}
+		StreamChecks.matchesRange(offHeap);
+	}
+
+	@Test
+	public void testCursor() {
+		for (int chunkSize : new int[] { 1, 4, 16 }) {
+			ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(chunkSize);
+			CursorChecks.matchesListIterator(data, data::cursor,
+					list -> ((ChunkyLinkedList<Integer>) list).checkInvariants());
+		}
+	}
+
+	@Test
+	public void testCursorFailsFast() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(4);
+		CursorChecks.failsFast(data, data::cursor);
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new ChunkyLinkedList<Integer>(16),
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 16));
+		// another kind of list, or another chunkSize, gets packed into full chunks
+		SnapshotChecks.roundTrips(() -> new GrowableList<Integer>(),
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 16));
+		SnapshotChecks.roundTrips(() -> new ChunkyLinkedList<Integer>(16),
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 100));
+	}
+
+	@Test
+	public void testSnapshotKeepsChunks() throws IOException {
+		Random rand = new Random(3);
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(16);
+		for (int step = 0; step < 3000; step++) {
+			if (data.isEmpty() || rand.nextInt(5) < 3) {
+				data.addIndex(step, rand.nextInt(data.size() + 1));
+			} else {
+				data.removeIndex(rand.nextInt(data.size()));
+			}
+		}
+		byte[] snapshot = SnapshotChecks.save(data);
+		ChunkyLinkedList<Integer> copy = (ChunkyLinkedList<Integer>) SnapshotChecks.load(snapshot,
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 16));
+		copy.checkInvariants();
+		Assert.assertEquals(data.chunkCount(), copy.chunkCount());
+		for (int c = 0; c < data.chunkCount(); c++) {
+			Assert.assertEquals(data.chunk(c).size(), copy.chunk(c).size());
+		}
+		ChunkyLinkedList<Integer> packed = (ChunkyLinkedList<Integer>) SnapshotChecks.load(snapshot,
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 64));
+		packed.checkInvariants();
+		Assert.assertEquals((data.size() + 63) / 64, packed.chunkCount());
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotTooShortCrash() throws IOException {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(16);
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+		}
+		byte[] snapshot = SnapshotChecks.save(data);
+		SnapshotChecks.load(Arrays.copyOf(snapshot, snapshot.length - 1),
+				in -> ChunkyLinkedList.readFrom(in, RecordCodec.INTS, 16));
+	}
+
+	/**
+	 * Make the same random change to a list and to what it should hold.
+	 */
+	private static void change(Random rand, int step, ChunkyLinkedList<Integer> data, List<Integer> expected) {
+		int choice = rand.nextInt(8);
+		if (expected.isEmpty() || choice < 2) {
+			int index = rand.nextInt(expected.size() + 1);
+			data.addIndex(step, index);
+			expected.add(index, step);
+		} else if (choice == 2) {
+			int index = rand.nextInt(expected.size());
+			Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+		} else if (choice == 3) {
+			int index = rand.nextInt(expected.size());
+			Assert.assertEquals(expected.set(index, -step), data.setIndex(-step, index));
+		} else if (choice == 4) {
+			data.addFront(step);
+			expected.add(0, step);
+		} else if (choice == 5) {
+			Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+		} else if (choice == 6) {
+			int index = rand.nextInt(expected.size() + 1);
+			List<Integer> batch = Arrays.asList(step, step + 1, step + 2, step + 3, step + 4);
+			data.addAllAt(index, batch);
+			expected.addAll(index, batch);
+		} else {
+			int from = rand.nextInt(expected.size());
+			int to = Math.min(expected.size(), from + rand.nextInt(40));
+			data.removeRange(from, to);
+			expected.subList(from, to).clear();
+		}
+	}
+
+	@Test
+	public void testForkSharesChunks() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(16);
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(i);
+		}
+		ChunkyLinkedList<Integer> copy = data.snapshot();
+		for (int c = 0; c < data.chunkCount(); c++) {
+			Assert.assertSame(data.chunk(c), copy.chunk(c));
+		}
+		// one write copies one chunk, and only on the side that wrote
+		data.setIndex(-1, 500);
+		int changed = 500 / 16;
+		for (int c = 0; c < data.chunkCount(); c++) {
+			Assert.assertEquals(c != changed, data.chunk(c) == copy.chunk(c));
+		}
+		Assert.assertEquals(500, (int) copy.getIndex(500));
+		Assert.assertEquals(-1, (int) data.getIndex(500));
+	}
+
+	@Test
+	public void testForksStayApart() {
+		for (RecordCodec<Integer> codec : Arrays.asList(null, RecordCodec.INTS)) {
+			Random rand = new Random(24);
+			ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(8, codec);
+			List<Integer> expected = new ArrayList<>();
+			List<ChunkyLinkedList<Integer>> copies = new ArrayList<>();
+			List<List<Integer>> copiesExpected = new ArrayList<>();
+			for (int step = 0; step < 4000; step++) {
+				change(rand, step, data, expected);
+				if (step % 500 == 0) {
+					copies.add(data.snapshot());
+					copiesExpected.add(new ArrayList<>(expected));
+				}
+				// the snapshots change too, after a while
+				if (step > 2000 && rand.nextBoolean()) {
+					int which = rand.nextInt(copies.size());
+					change(rand, step, copies.get(which), copiesExpected.get(which));
+				}
+			}
+			assertMatches(expected, data);
+			for (int i = 0; i < copies.size(); i++) {
+				assertMatches(copiesExpected.get(i), copies.get(i));
+			}
+			data.clear();
+			for (int i = 0; i < copies.size(); i++) {
+				assertMatches(copiesExpected.get(i), copies.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testForkCursor() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(4);
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+		}
+		ChunkyLinkedList<Integer> copy = data.snapshot();
+		P6Cursor<Integer> cursor = data.cursor();
+		while (cursor.hasNext()) {
+			int item = cursor.next();
+			if (item % 3 == 0) {
+				cursor.remove();
+			} else if (item % 3 == 1) {
+				cursor.set(-item);
+			} else {
+				cursor.insertBefore(item);
+			}
+		}
+		data.checkInvariants();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			expected.add(i);
+		}
+		assertMatches(expected, copy);
+	}
+
+	@Test
+	public void testForkReadWhileWriting() throws InterruptedException {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(64);
+		for (int i = 0; i < 100000; i++) {
+			data.addBack(i);
+		}
+		ChunkyLinkedList<Integer> copy = data.snapshot();
+		long[] sum = new long[1];
+		Thread reader = new Thread(() -> sum[0] = copy.stream().parallel().mapToLong(x -> x).sum());
+		reader.start();
+		Random rand = new Random(5);
+		for (int i = 0; i < 20000; i++) {
+			data.setIndex(-1, rand.nextInt(data.size()));
+			data.removeIndex(rand.nextInt(data.size()));
+			data.addIndex(-2, rand.nextInt(data.size()));
+		}
+		reader.join();
+		Assert.assertEquals(100000L * 99999 / 2, sum[0]);
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast() {
+		ChunkyLinkedList<Integer> data = new ChunkyLinkedList<Integer>(4);
+		for (int i = 0; i < 10; i++) {
+			data.addBack(i);
+		}
+		for (int item : data) {
+			if (item == 5) {
+				data.removeFront();
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOffHeapChunkTooBigCrash() {
+		// 8 byte records: the chunk would need more than 2GB in one buffer
+		new ChunkyLinkedList<Long>(Integer.MAX_VALUE / 4, RecordCodec.LONGS);
+	}
+}
@@ -0,0 +1,139 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class CompactDoublyLinkedListTest {
+	@Test(expected = EmptyListError.class)
+	public void testGetBackCrash() {
+		new CompactDoublyLinkedList<String>().getBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testRemoveIndexCrash() {
+		CompactDoublyLinkedList<String> data = new CompactDoublyLinkedList<String>();
+		data.addBack("a");
+		data.removeIndex(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCapacityCrash() {
+		new CompactDoublyLinkedList<String>(-1);
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(11);
+		CompactDoublyLinkedList<Integer> data = new CompactDoublyLinkedList<Integer>(0);
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 5000; step++) {
+			// grow for the first half, then shrink, so both kinds of compaction happen
+			int addOdds = step < 2500 ? 3 : 1;
+			int choice = rand.nextInt(5);
+			if (expected.isEmpty() || choice < addOdds) {
+				int index = rand.nextInt(expected.size() + 1);
+				if (choice == 0) {
+					index = expected.size();
+				}
+				data.addIndex(step, index);
+				expected.add(index, step);
+			} else if (choice == 4) {
+				Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+			data.checkInvariants();
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		while (!expected.isEmpty()) {
+			Assert.assertEquals(expected.remove(0), data.removeFront());
+		}
+		Assert.assertTrue(data.isEmpty());
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testCompaction() {
+		CompactDoublyLinkedList<Integer> data = new CompactDoublyLinkedList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(i);
+		}
+		// adding at the back keeps item i in slot i
+		Assert.assertTrue(data.isOrdered());
+		data.addIndex(-1, 500);
+		Assert.assertFalse(data.isOrdered());
+		data.removeIndex(500);
+		data.compact();
+		Assert.assertTrue(data.isOrdered());
+		data.checkInvariants();
+		// removing most of the items compacts and shrinks the arrays
+		int before = data.capacity();
+		for (int i = 0; i < 900; i++) {
+			Assert.assertEquals(i, (int) data.removeFront());
+		}
+		Assert.assertTrue(data.capacity() < before);
+		data.checkInvariants();
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(900 + i, (int) data.getIndex(i));
+		}
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new CompactDoublyLinkedList<Integer>(), 40);
+	}
+
+	@Test
+	public void testStream() {
+		CompactDoublyLinkedList<Integer> data = new CompactDoublyLinkedList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+		data.addFront(-1);
+		data.removeFront();
+		StreamChecks.matchesRange(data);
+		StreamChecks.matchesRange(new CompactDoublyLinkedList<Integer>());
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new CompactDoublyLinkedList<Integer>(), in -> CompactDoublyLinkedList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast() {
+		CompactDoublyLinkedList<Integer> data = new CompactDoublyLinkedList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			data.addBack(i);
+		}
+		Iterator<Integer> items = data.iterator();
+		items.next();
+		data.removeIndex(1);
+		items.next();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFastAfterCompact() {
+		CompactDoublyLinkedList<Integer> data = new CompactDoublyLinkedList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			data.addFront(i);
+		}
+		Iterator<Integer> items = data.iterator();
+		data.compact();
+		items.hasNext();
+	}
+}
@@ -0,0 +1,323 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class ConcurrentChunkyLinkedListTest {
+	private static final int THREADS = 4;
+	/**
+	 * How many items go in and come out together in the batch tests.
+	 */
+	private static final int BATCH = 10;
+
+	private void runAll(Runnable[] work) throws InterruptedException {
+		Thread[] threads = new Thread[work.length];
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 0; t < work.length; t++) {
+			threads[t] = new Thread(work[t]);
+			threads[t].setUncaughtExceptionHandler((thread, error) -> {
+				synchronized (failures) {
+					failures.add(error);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (!failures.isEmpty()) {
+			throw new AssertionError(failures.get(0));
+		}
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testRemoveFrontCrash() {
+		new ConcurrentChunkyLinkedList<String>(4).removeFront();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testGetIndexCrash() {
+		ConcurrentChunkyLinkedList<String> data = new ConcurrentChunkyLinkedList<String>(4);
+		data.addBack("a");
+		data.getIndex(1);
+	}
+
+	@Test
+	public void testChurnMatchesArrayList() {
+		for (int chunkSize : new int[] { 1, 2, 5, 16 }) {
+			Random rand = new Random(chunkSize);
+			ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(chunkSize);
+			List<Integer> expected = new ArrayList<>();
+			for (int step = 0; step < 4000; step++) {
+				int choice = rand.nextInt(8);
+				// grow for the first half, shrink for the second half.
+				boolean grow = step < 2000 ? choice < 5 : choice < 3;
+				if (expected.isEmpty() || grow) {
+					int index = rand.nextInt(expected.size() + 1);
+					if (choice == 0) {
+						data.addFront(step);
+						index = 0;
+					} else if (choice == 1) {
+						data.addBack(step);
+						index = expected.size();
+					} else {
+						data.addIndex(step, index);
+					}
+					expected.add(index, step);
+				} else if (choice == 5) {
+					Assert.assertEquals(expected.remove(0), data.removeFront());
+				} else if (choice == 6) {
+					Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+				} else {
+					int index = rand.nextInt(expected.size());
+					Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+				}
+				data.checkInvariants();
+			}
+			Assert.assertEquals(expected.size(), data.size());
+			for (int i = 0; i < expected.size(); i++) {
+				Assert.assertEquals(expected.get(i), data.getIndex(i));
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentAddsKeepEverything() throws InterruptedException {
+		ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(8);
+		int perThread = 20000;
+		Runnable[] work = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			work[t] = () -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < perThread; i++) {
+					int value = id * perThread + i;
+					int choice = rand.nextInt(3);
+					if (choice == 0) {
+						data.addFront(value);
+					} else if (choice == 1) {
+						data.addBack(value);
+					} else {
+						data.addIndex(value, rand.nextInt(data.size() + 1));
+					}
+				}
+			};
+		}
+		runAll(work);
+		data.checkInvariants();
+		Assert.assertEquals(THREADS * perThread, data.size());
+		boolean[] seen = new boolean[THREADS * perThread];
+		for (int i = 0; i < data.size(); i++) {
+			int value = data.getIndex(i);
+			Assert.assertFalse(seen[value]);
+			seen[value] = true;
+		}
+	}
+
+	@Test
+	public void testProducersAndConsumers() throws InterruptedException {
+		ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(16);
+		int perThread = 20000;
+		AtomicLong produced = new AtomicLong();
+		AtomicLong consumed = new AtomicLong();
+		Runnable[] work = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			work[t] = () -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < perThread; i++) {
+					if (id % 2 == 0) {
+						int value = rand.nextInt(1000);
+						data.addBack(value);
+						produced.addAndGet(value);
+					} else {
+						try {
+							consumed.addAndGet(rand.nextBoolean() ? data.removeFront() : data.removeBack());
+						} catch (EmptyListError | BadIndexError empty) {
+							// nothing to take right now.
+						}
+						if (!data.isEmpty()) {
+							try {
+								data.getIndex(rand.nextInt(Math.max(1, data.size())));
+							} catch (EmptyListError | BadIndexError raced) {
+								// the list shrank between size() and getIndex().
+							}
+						}
+					}
+				}
+			};
+		}
+		runAll(work);
+		data.checkInvariants();
+		while (!data.isEmpty()) {
+			consumed.addAndGet(data.removeFront());
+		}
+		Assert.assertEquals(produced.get(), consumed.get());
+	}
+
+	/**
+	 * Check that the items come in whole batches: runs of BATCH values
+	 * counting up from a multiple of BATCH.
+	 */
+	private static void assertWholeBatches(Iterable<Integer> items) {
+		int expected = -1;
+		int seen = 0;
+		for (int item : items) {
+			if (expected < 0) {
+				Assert.assertEquals(0, item % BATCH);
+				expected = item;
+			}
+			Assert.assertEquals(expected, item);
+			expected = (item + 1) % BATCH == 0 ? -1 : item + 1;
+			seen++;
+		}
+		Assert.assertEquals(-1, expected);
+		Assert.assertEquals(0, seen % BATCH);
+	}
+
+	@Test
+	public void testBatchesStayWhole() throws InterruptedException {
+		ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(8);
+		int perThread = 500;
+		Runnable[] adders = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			adders[t] = () -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < perThread; i++) {
+					List<Integer> batch = new ArrayList<>();
+					int base = (id * perThread + i) * BATCH;
+					for (int j = 0; j < BATCH; j++) {
+						batch.add(base + j);
+					}
+					// always on a batch boundary, so batches never land inside each other
+					data.addAllAt(BATCH * rand.nextInt(data.size() / BATCH + 1), batch);
+				}
+			};
+		}
+		runAll(adders);
+		data.checkInvariants();
+		Assert.assertEquals(THREADS * perThread * BATCH, data.size());
+		assertWholeBatches(data);
+
+		// take whole batches out while other threads scan
+		Runnable[] work = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			work[t] = () -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < 300; i++) {
+					if (id % 2 == 0) {
+						try {
+							int from = BATCH * rand.nextInt(data.size() / BATCH);
+							data.removeRange(from, from + BATCH);
+						} catch (BadIndexError | IllegalArgumentException raced) {
+							// the list shrank between size() and removeRange().
+						}
+					} else {
+						// scans are only weakly consistent; a snapshot is all at once
+						ChunkyLinkedList<Integer> copy = data.snapshot();
+						assertWholeBatches(copy);
+						int sum = copy.stream().parallel().mapToInt(x -> x % BATCH).sum();
+						Assert.assertEquals(0, sum % (BATCH * (BATCH - 1) / 2));
+					}
+				}
+			};
+		}
+		runAll(work);
+		data.checkInvariants();
+		assertWholeBatches(data);
+		data.clear();
+		Assert.assertTrue(data.isEmpty());
+		data.addBack(1);
+		Assert.assertEquals(1, (int) data.getFront());
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testSetIndexWhileRemoving() throws InterruptedException {
+		ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(8);
+		int n = 40000;
+		long before = 0;
+		for (int i = 0; i < n; i++) {
+			data.addBack(i);
+			before += i;
+		}
+		// what went in and what came out have to add up in the end
+		AtomicLong added = new AtomicLong(before);
+		AtomicLong taken = new AtomicLong();
+		// one thread eats the front while the others overwrite items near the back,
+		// below where the back ends up so every index stays in the list
+		Runnable[] work = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			work[t] = () -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < 10000; i++) {
+					if (id == 0) {
+						taken.addAndGet(data.removeFront());
+					} else {
+						int index = n - 10000 - 1 - rand.nextInt(1000);
+						int item = -1 - rand.nextInt(1000);
+						added.addAndGet(item);
+						taken.addAndGet(data.setIndex(item, index));
+					}
+				}
+			};
+		}
+		runAll(work);
+		data.checkInvariants();
+		// setIndex never adds or removes, so only the removeFront calls show
+		Assert.assertEquals(n - 10000, data.size());
+		for (int item : data) {
+			taken.addAndGet(item);
+		}
+		Assert.assertEquals(added.get(), taken.get());
+	}
+
+	@Test
+	public void testScanWhileChanging() throws InterruptedException {
+		ConcurrentChunkyLinkedList<Integer> data = new ConcurrentChunkyLinkedList<Integer>(8);
+		int n = 5000;
+		for (int i = 0; i < n; i++) {
+			data.addBack(i);
+		}
+		// one thread moves the front to the back, so the items always count up;
+		// the others scan, and may miss items but never go backwards.
+		Runnable[] work = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			int id = t;
+			work[t] = () -> {
+				if (id == 0) {
+					for (int next = n; next < 5 * n; next++) {
+						data.removeFront();
+						data.addBack(next);
+					}
+				} else {
+					for (int i = 0; i < 20; i++) {
+						int last = -1;
+						for (int item : data) {
+							Assert.assertTrue(item > last);
+							last = item;
+						}
+					}
+				}
+			};
+		}
+		runAll(work);
+		data.checkInvariants();
+		int expected = 4 * n;
+		for (int item : data) {
+			Assert.assertEquals(expected++, item);
+		}
+		Assert.assertEquals(5 * n, expected);
+	}
+}
@@ -0,0 +1,140 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class ConcurrentDoublyLinkedDequeTest {
+	@Test(expected = EmptyListError.class)
+	public void testRemoveFrontCrash() {
+		new ConcurrentDoublyLinkedDeque<String>().removeFront();
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testRemoveBackCrash() {
+		new ConcurrentDoublyLinkedDeque<String>().removeBack();
+	}
+
+	@Test
+	public void testPollEmpty() {
+		ConcurrentDoublyLinkedDeque<String> data = new ConcurrentDoublyLinkedDeque<String>();
+		Assert.assertNull(data.pollFront());
+		Assert.assertNull(data.pollBack());
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test
+	public void testMatchesArrayDeque() {
+		Random rand = new Random(11);
+		ConcurrentDoublyLinkedDeque<Integer> data = new ConcurrentDoublyLinkedDeque<Integer>();
+		ArrayDeque<Integer> expected = new ArrayDeque<>();
+		for (int step = 0; step < 5000; step++) {
+			int choice = rand.nextInt(4);
+			if (choice == 0) {
+				data.addFront(step);
+				expected.addFirst(step);
+			} else if (choice == 1) {
+				data.addBack(step);
+				expected.addLast(step);
+			} else if (choice == 2) {
+				Assert.assertEquals(expected.pollFirst(), data.pollFront());
+			} else {
+				Assert.assertEquals(expected.pollLast(), data.pollBack());
+			}
+			Assert.assertEquals(expected.size(), data.size());
+			Assert.assertEquals(expected.isEmpty(), data.isEmpty());
+		}
+	}
+
+	@Test
+	public void testWorkStealing() throws InterruptedException {
+		ConcurrentDoublyLinkedDeque<Integer> data = new ConcurrentDoublyLinkedDeque<Integer>();
+		int perThread = 50000;
+		AtomicLong produced = new AtomicLong();
+		AtomicLong consumed = new AtomicLong();
+		List<Throwable> failures = new ArrayList<>();
+		Thread[] threads = new Thread[6];
+		for (int t = 0; t < threads.length; t++) {
+			int id = t;
+			threads[t] = new Thread(() -> {
+				Random rand = new Random(id);
+				for (int i = 0; i < perThread; i++) {
+					if (id < 2) {
+						int value = rand.nextInt(1000);
+						if (id == 0) {
+							data.addBack(value);
+						} else {
+							data.addFront(value);
+						}
+						produced.addAndGet(value);
+					} else {
+						Integer taken = id % 2 == 0 ? data.pollFront() : data.pollBack();
+						if (taken != null) {
+							consumed.addAndGet(taken);
+						}
+					}
+				}
+			});
+			threads[t].setUncaughtExceptionHandler((thread, error) -> {
+				synchronized (failures) {
+					failures.add(error);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertTrue(failures.isEmpty());
+		int left = data.size();
+		for (int i = 0; i < left; i++) {
+			consumed.addAndGet(data.removeFront());
+		}
+		Assert.assertTrue(data.isEmpty());
+		Assert.assertEquals(produced.get(), consumed.get());
+	}
+
+	@Test
+	public void testChurnLetsGo() throws InterruptedException {
+		ConcurrentDoublyLinkedDeque<Integer> data = new ConcurrentDoublyLinkedDeque<Integer>();
+		data.addBack(-1);
+		for (int i = 0; i < 100000; i++) {
+			data.addBack(i);
+			data.removeFront();
+			data.addFront(i);
+			data.removeBack();
+		}
+		Assert.assertEquals(1, data.size());
+		Assert.assertEquals(0, data.staleLinks());
+
+		// the same with threads racing at both ends
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int id = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 50000; i++) {
+					if (id % 2 == 0) {
+						data.addBack(i);
+						data.pollFront();
+					} else {
+						data.addFront(i);
+						data.pollBack();
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(1, data.size());
+		Assert.assertEquals(0, data.staleLinks());
+	}
+}
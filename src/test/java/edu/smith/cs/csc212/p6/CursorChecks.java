@@ -0,0 +1,96 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+
+/**
+ * Walks a P6Cursor and a java.util.ListIterator over an ArrayList side by
+ * side, making the same random edits with both.
+ */
+final class CursorChecks {
+	private CursorChecks() {
+		// static helpers only.
+	}
+
+	static void matchesListIterator(P6List<Integer> data, Supplier<P6Cursor<Integer>> cursors,
+			Consumer<P6List<Integer>> check) {
+		Random rand = new Random(data.getClass().getName().length());
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			data.addBack(i);
+			expected.add(i);
+		}
+		int next = 1000;
+		for (int pass = 0; pass < 20; pass++) {
+			P6Cursor<Integer> cursor = cursors.get();
+			ListIterator<Integer> it = expected.listIterator();
+			boolean hasCurrent = false;
+			while (true) {
+				Assert.assertEquals(it.hasNext(), cursor.hasNext());
+				// removes are twice as likely as each kind of insert, so the list
+				// stays about the same size from pass to pass.
+				int choice = rand.nextInt(8);
+				if (choice == 0) {
+					cursor.insertBefore(next);
+					it.add(next++);
+					hasCurrent = false;
+				} else if (choice == 1) {
+					cursor.insertAfter(next);
+					it.add(next++);
+					it.previous();
+					hasCurrent = false;
+				} else if ((choice == 2 || choice == 3) && hasCurrent) {
+					cursor.remove();
+					it.remove();
+					hasCurrent = false;
+				} else if (choice == 4 && hasCurrent) {
+					Integer current = it.previous();
+					it.next();
+					Assert.assertEquals(current, cursor.set(next));
+					it.set(next++);
+				} else if (it.hasNext()) {
+					Assert.assertEquals(it.next(), cursor.next());
+					hasCurrent = true;
+				} else {
+					break;
+				}
+			}
+			check.accept(data);
+			Assert.assertEquals(expected.size(), data.size());
+			int i = 0;
+			for (int x : data) {
+				Assert.assertEquals(expected.get(i++), (Integer) x);
+			}
+		}
+	}
+
+	static void failsFast(P6List<Integer> data, Supplier<P6Cursor<Integer>> cursors) {
+		data.addBack(1);
+		data.addBack(2);
+		P6Cursor<Integer> cursor = cursors.get();
+		cursor.next();
+		Assert.assertEquals(1, (int) cursor.set(5));
+		Assert.assertEquals(5, (int) data.getFront());
+		cursor.remove();
+		try {
+			cursor.remove();
+			Assert.fail("remove() without next() should fail");
+		} catch (IllegalStateException expected) {
+			// good
+		}
+		data.addFront(0);
+		try {
+			cursor.next();
+			Assert.fail("the list changed, so the cursor should fail");
+		} catch (ConcurrentModificationException expected) {
+			// good
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class DoublyLinkedListTest {
+	@Test(expected = EmptyListError.class)
+	public void testGetBackCrash() {
+		new DoublyLinkedList<String>().getBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testRemoveIndexCrash() {
+		DoublyLinkedList<String> data = new DoublyLinkedList<String>();
+		data.addBack("a");
+		data.removeIndex(1);
+	}
+
+	@Test
+	public void testSizeAndBack() {
+		DoublyLinkedList<String> data = new DoublyLinkedList<String>();
+		data.addFront("b");
+		data.addFront("a");
+		data.addBack("d");
+		data.addIndex("c", 2);
+		data.addIndex("e", 4);
+		Assert.assertEquals(5, data.size());
+		Assert.assertEquals("e", data.getBack());
+		Assert.assertEquals("e", data.removeIndex(4));
+		Assert.assertEquals("d", data.removeBack());
+		Assert.assertEquals("c", data.getBack());
+		Assert.assertEquals(3, data.size());
+		while (!data.isEmpty()) {
+			data.removeBack();
+		}
+		Assert.assertEquals(0, data.size());
+		data.addBack("again");
+		Assert.assertEquals("again", data.getFront());
+		Assert.assertEquals("again", data.getBack());
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(11);
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 3000; step++) {
+			if (expected.isEmpty() || rand.nextInt(5) < 3) {
+				int index = rand.nextInt(expected.size() + 1);
+				data.addIndex(step, index);
+				expected.add(index, step);
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		// walking the before links from the back must see the same items.
+		while (!expected.isEmpty()) {
+			Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+		}
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new DoublyLinkedList<Integer>(), 40);
+	}
+
+	@Test
+	public void testStream() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+		StreamChecks.matchesRange(new DoublyLinkedList<Integer>());
+	}
+
+	@Test
+	public void testCursor() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		CursorChecks.matchesListIterator(data, data::cursor, list -> {
+		});
+		Assert.assertEquals(data.size(), data.stream().count());
+	}
+
+	@Test
+	public void testCursorFailsFast() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		CursorChecks.failsFast(data, data::cursor);
+	}
+
+	@Test
+	public void testNodePool() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>(8);
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(i, (int) data.removeFront());
+		}
+		// only eight of the removed nodes are kept
+		Assert.assertEquals(8, data.pooled());
+		data.addBack(1);
+		data.addFront(0);
+		data.addIndex(2, 2);
+		Assert.assertEquals(5, data.pooled());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(i, (int) data.getIndex(i));
+		}
+		data.removeRange(0, 3);
+		Assert.assertEquals(8, data.pooled());
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test
+	public void testPooledMatchesArrayList() {
+		BulkChecks.matchesArrayList(new DoublyLinkedList<Integer>(16), 40);
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>(16);
+		CursorChecks.matchesListIterator(data, data::cursor, list -> {
+		});
+		Assert.assertTrue(data.pooled() <= 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePoolCrash() {
+		new DoublyLinkedList<Integer>(-1);
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new DoublyLinkedList<Integer>(), in -> DoublyLinkedList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test
+	public void testFingerMatchesArrayList() {
+		WalkChecks.matchesArrayList(new DoublyLinkedList<Integer>());
+		WalkChecks.matchesArrayList(new DoublyLinkedList<Integer>(8));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testIteratorEndCrash() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		data.addBack(1);
+		Iterator<Integer> items = data.iterator();
+		Assert.assertEquals(1, (int) items.next());
+		items.next();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast() {
+		DoublyLinkedList<Integer> data = new DoublyLinkedList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			data.addBack(i);
+		}
+		for (int item : data) {
+			if (item == 5) {
+				data.removeFront();
+			}
+		}
+	}
+}
@@ -1,5 +1,8 @@
 package edu.smith.cs.csc212.p6;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import edu.smith.cs.csc212.p6.errors.EmptyListError;
@@ -146,4 +149,92 @@ public class FixedSizeListTest {
 		Assert.assertEquals("a", data.removeIndex(0));
 		Assert.assertEquals(0, data.size());
 	}
+
+	@Test
+	public void testWrapAround() {
+		P6List<String> data = makeFullList();
+		Assert.assertEquals("a", data.removeFront());
+		data.addBack("e");
+		Assert.assertEquals("b", data.removeFront());
+		data.addIndex("x", 1);
+		Assert.assertEquals(4, data.size());
+		Assert.assertEquals("c", data.getIndex(0));
+		Assert.assertEquals("x", data.getIndex(1));
+		Assert.assertEquals("d", data.getIndex(2));
+		Assert.assertEquals("e", data.getIndex(3));
+		Assert.assertEquals("d", data.removeIndex(2));
+		data.addFront("b");
+		Assert.assertEquals("b", data.getFront());
+		Assert.assertEquals("e", data.getBack());
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new FixedSizeList<Integer>(100000), 40);
+	}
+
+	@Test(expected = RanOutOfSpaceError.class)
+	public void testAddAllTooMany() {
+		FixedSizeList<Integer> data = new FixedSizeList<Integer>(3);
+		data.addBack(1);
+		data.addAllBack(Arrays.asList(2, 3, 4));
+	}
+
+	@Test
+	public void testStream() {
+		FixedSizeList<Integer> data = new FixedSizeList<Integer>(5000);
+		for (int i = 1000; i < 5000; i++) {
+			data.addBack(i);
+		}
+		// wrap the ring around the end of the array first
+		for (int i = 999; i >= 0; i--) {
+			data.removeBack();
+			data.addFront(i);
+		}
+		StreamChecks.matchesRange(data);
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new FixedSizeList<Integer>(20000),
+				in -> FixedSizeList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test(expected = RanOutOfSpaceError.class)
+	public void testSnapshotKeepsCapacity() throws IOException {
+		FixedSizeList<Integer> data = new FixedSizeList<Integer>(10);
+		data.addBack(1);
+		data.addFront(0);
+		P6List<Integer> copy = SnapshotChecks.load(SnapshotChecks.save(data),
+				in -> FixedSizeList.readFrom(in, RecordCodec.INTS));
+		for (int i = 2; i < 10; i++) {
+			copy.addBack(i);
+		}
+		Assert.assertEquals(9, (int) copy.getBack());
+		copy.addBack(10);
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotBadCapacityCrash() throws IOException {
+		FixedSizeList<Integer> data = new FixedSizeList<Integer>(10);
+		data.addBack(1);
+		// the capacity is the fifth int of the header
+		byte[] snapshot = SnapshotChecks.damage(SnapshotChecks.save(data), 16, Integer.MAX_VALUE);
+		SnapshotChecks.load(snapshot, in -> FixedSizeList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotHugeCapacityCrash() throws IOException {
+		// the checksum is right, so only the claimed capacity gives it away
+		byte[] snapshot = SnapshotChecks.forge(SnapshotChecks.save(new FixedSizeList<Integer>(10)), 16,
+				Integer.MAX_VALUE);
+		SnapshotChecks.load(snapshot, in -> FixedSizeList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotTooEmptyCrash() throws IOException {
+		FixedSizeList<Integer> data = new FixedSizeList<Integer>(Snapshot.MAX_FIXED_SPARE + 1);
+		data.addBack(1);
+		SnapshotChecks.save(data);
+	}
 }
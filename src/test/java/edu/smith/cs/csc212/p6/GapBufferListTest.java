@@ -0,0 +1,115 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class GapBufferListTest {
+	@Test(expected = EmptyListError.class)
+	public void testRemoveBackCrash() {
+		new GapBufferList<String>().removeBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testAddIndexCrash() {
+		GapBufferList<String> data = new GapBufferList<String>();
+		data.addBack("a");
+		data.addIndex("b", 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCapacityCrash() {
+		new GapBufferList<String>(-1);
+	}
+
+	@Test
+	public void testEditsStayAtTheGap() {
+		GapBufferList<Character> data = new GapBufferList<Character>(0);
+		for (char c : "hello world".toCharArray()) {
+			data.addBack(c);
+		}
+		// type over "world" from the middle, like an editor would
+		for (int i = 0; i < 5; i++) {
+			data.removeIndex(6);
+		}
+		Assert.assertEquals(6, data.gap());
+		for (char c : "there".toCharArray()) {
+			data.addIndex(c, data.gap());
+		}
+		StringBuilder text = new StringBuilder();
+		for (char c : data) {
+			text.append(c);
+		}
+		Assert.assertEquals("hello there", text.toString());
+		Assert.assertEquals(11, data.gap());
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(21);
+		GapBufferList<Integer> data = new GapBufferList<Integer>(0);
+		List<Integer> expected = new ArrayList<>();
+		int at = 0;
+		for (int step = 0; step < 5000; step++) {
+			// mostly edit near where the last edit was, sometimes jump
+			if (rand.nextInt(20) == 0) {
+				at = rand.nextInt(expected.size() + 1);
+			}
+			at = Math.max(0, Math.min(expected.size(), at + rand.nextInt(5) - 2));
+			int choice = rand.nextInt(5);
+			if (expected.isEmpty() || at == expected.size() || choice < 3) {
+				data.addIndex(step, at);
+				expected.add(at, step);
+			} else if (choice == 3) {
+				Assert.assertEquals(expected.remove(at), data.removeIndex(at));
+			} else {
+				Assert.assertEquals(expected.set(at, -step), data.setIndex(-step, at));
+			}
+			if (step % 100 == 0) {
+				data.checkInvariants();
+			}
+		}
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		while (!expected.isEmpty()) {
+			Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+			Assert.assertEquals(expected.isEmpty(), data.isEmpty());
+			if (!expected.isEmpty()) {
+				Assert.assertEquals(expected.remove(0), data.removeFront());
+			}
+		}
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new GapBufferList<Integer>(4), 40,
+				data -> ((GapBufferList<Integer>) data).checkInvariants());
+	}
+
+	@Test
+	public void testStream() {
+		GapBufferList<Integer> data = new GapBufferList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+		StreamChecks.matchesRange(new GapBufferList<Integer>());
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new GapBufferList<Integer>(),
+				in -> GapBufferList.readFrom(in, RecordCodec.INTS));
+	}
+}
@@ -0,0 +1,194 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class GrowableListTest {
+	@Test
+	public void testEmpty() {
+		P6List<String> data = new GrowableList<String>();
+		Assert.assertEquals(0, data.size());
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testGetFrontCrash() {
+		new GrowableList<String>().getFront();
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testGetBackCrash() {
+		new GrowableList<String>().getBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testGetIndexCrash() {
+		GrowableList<String> data = new GrowableList<String>();
+		data.addBack("a");
+		data.getIndex(1);
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testAddIndexCrash() {
+		GrowableList<String> data = new GrowableList<String>();
+		data.addBack("a");
+		data.addIndex("c", 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadGrowthFactor() {
+		new GrowableList<String>(4, 1.0);
+	}
+
+	@Test
+	public void testAddBackPastStartSize() {
+		GrowableList<Integer> data = new GrowableList<Integer>();
+		for (int i = 0; i < GrowableList.START_SIZE * 10; i++) {
+			data.addBack(i);
+		}
+		Assert.assertEquals(GrowableList.START_SIZE * 10, data.size());
+		for (int i = 0; i < data.size(); i++) {
+			Assert.assertEquals(i, (int) data.getIndex(i));
+		}
+	}
+
+	@Test
+	public void testAddIndexPastStartSize() {
+		GrowableList<Integer> data = new GrowableList<Integer>(0, 1.25);
+		for (int i = 0; i < 100; i++) {
+			data.addIndex(i, i / 2);
+		}
+		Assert.assertEquals(100, data.size());
+		Assert.assertEquals(99, (int) data.getIndex(49));
+		Assert.assertEquals(0, (int) data.getBack());
+	}
+
+	@Test
+	public void testGrowthFactor() {
+		GrowableList<Integer> data = new GrowableList<Integer>(10, 1.5);
+		for (int i = 0; i < 11; i++) {
+			data.addBack(i);
+		}
+		Assert.assertEquals(15, data.capacity());
+	}
+
+	@Test
+	public void testEnsureCapacity() {
+		GrowableList<Integer> data = new GrowableList<Integer>();
+		data.addBack(7);
+		data.ensureCapacity(1000);
+		Assert.assertEquals(1000, data.capacity());
+		data.ensureCapacity(10);
+		Assert.assertEquals(1000, data.capacity());
+		Assert.assertEquals(7, (int) data.getFront());
+	}
+
+	@Test
+	public void testTrimToSize() {
+		GrowableList<Integer> data = new GrowableList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(i);
+		}
+		while (data.size() > 3) {
+			data.removeBack();
+		}
+		data.trimToSize();
+		Assert.assertEquals(3, data.capacity());
+		Assert.assertEquals(2, (int) data.getBack());
+		data.addBack(3);
+		Assert.assertEquals(3, (int) data.getBack());
+	}
+
+	@Test
+	public void testQueueWrapsAround() {
+		GrowableList<Integer> data = new GrowableList<Integer>(4);
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+			data.addBack(i);
+			Assert.assertEquals(i / 2, (int) data.removeFront());
+		}
+		Assert.assertEquals(100, data.size());
+		Assert.assertEquals(50, (int) data.getFront());
+		Assert.assertEquals(99, (int) data.getBack());
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(13);
+		GrowableList<Integer> data = new GrowableList<Integer>(1);
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 5000; step++) {
+			int choice = rand.nextInt(6);
+			if (expected.isEmpty() || choice < 3) {
+				int index = rand.nextInt(expected.size() + 1);
+				data.addIndex(step, index);
+				expected.add(index, step);
+			} else if (choice == 3) {
+				data.addFront(step);
+				expected.add(0, step);
+			} else if (choice == 4) {
+				Assert.assertEquals(expected.remove(0), data.removeFront());
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+			if (step % 1000 == 0) {
+				data.trimToSize();
+			}
+		}
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new GrowableList<Integer>(4), 40);
+	}
+
+	@Test
+	public void testAddAllToItself() {
+		GrowableList<Integer> data = new GrowableList<Integer>(2);
+		data.addBack(1);
+		data.addBack(2);
+		data.addAllAt(1, Arrays.asList(data.getFront(), data.getBack()));
+		data.addAllBack(Arrays.asList(7));
+		Assert.assertEquals(5, data.size());
+		Assert.assertEquals(7, (int) data.getBack());
+	}
+
+	@Test
+	public void testStream() {
+		GrowableList<Integer> data = new GrowableList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+		StreamChecks.matchesRange(new GrowableList<Integer>());
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new GrowableList<Integer>(),
+				in -> GrowableList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test(expected = IOException.class)
+	public void testSnapshotBadCountCrash() throws IOException {
+		GrowableList<Integer> data = new GrowableList<Integer>();
+		data.addBack(1);
+		// the count is the sixth int of the header
+		byte[] snapshot = SnapshotChecks.damage(SnapshotChecks.save(data), 20, Integer.MAX_VALUE);
+		SnapshotChecks.load(snapshot, in -> GrowableList.readFrom(in, RecordCodec.INTS));
+	}
+}
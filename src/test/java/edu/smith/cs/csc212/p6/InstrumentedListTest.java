@@ -0,0 +1,156 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.InstrumentedList.Op;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class InstrumentedListTest {
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullListCrash() {
+		new InstrumentedList<String>(null);
+	}
+
+	@Test
+	public void testCountsCalls() {
+		InstrumentedList<String> data = new InstrumentedList<String>(new GrowableList<String>());
+		data.addBack("b");
+		data.addBack("c");
+		data.addFront("a");
+		Assert.assertEquals("b", data.getIndex(1));
+		Assert.assertEquals("a", data.removeFront());
+		Assert.assertEquals(2, data.size());
+
+		InstrumentedList.Report report = data.report();
+		Assert.assertEquals(2, report.get(Op.ADD_BACK).calls());
+		Assert.assertEquals(1, report.get(Op.ADD_FRONT).calls());
+		Assert.assertEquals(1, report.get(Op.GET_INDEX).calls());
+		Assert.assertEquals(1, report.get(Op.REMOVE_FRONT).calls());
+		Assert.assertEquals(1, report.get(Op.SIZE).calls());
+		Assert.assertEquals(0, report.get(Op.CLEAR).calls());
+		Assert.assertTrue(report.toString().contains("ADD_BACK calls=2"));
+		Assert.assertFalse(report.toString().contains("CLEAR"));
+
+		// the report is a copy; later calls don't change it
+		data.clear();
+		Assert.assertEquals(0, report.get(Op.CLEAR).calls());
+		data.reset();
+		Assert.assertEquals(0, data.report().get(Op.ADD_BACK).calls());
+	}
+
+	@Test
+	public void testCountsCallsThatCrash() {
+		InstrumentedList<String> data = new InstrumentedList<String>(new DoublyLinkedList<String>());
+		try {
+			data.removeBack();
+			Assert.fail("removeBack of an empty list should crash");
+		} catch (EmptyListError expected) {
+			// it still counts.
+		}
+		Assert.assertEquals(1, data.report().get(Op.REMOVE_BACK).calls());
+	}
+
+	@Test
+	public void testHistogram() {
+		InstrumentedList<Integer> data = new InstrumentedList<Integer>(new GrowableList<Integer>());
+		for (int i = 0; i < 1000; i++) {
+			data.addBack(i);
+		}
+		InstrumentedList.Stats stats = data.report().get(Op.ADD_BACK);
+		long inBuckets = 0;
+		for (int b = 0; b < InstrumentedList.BUCKETS; b++) {
+			inBuckets += stats.bucket(b);
+		}
+		Assert.assertEquals(1000, inBuckets);
+		Assert.assertTrue(stats.totalNanos() > 0);
+		Assert.assertTrue(stats.percentileNanos(0.5) <= stats.percentileNanos(0.99));
+		Assert.assertTrue(stats.percentileNanos(0.99) <= stats.percentileNanos(1));
+		Assert.assertEquals(0, data.report().get(Op.GET_BACK).percentileNanos(0.5));
+	}
+
+	@Test
+	public void testBuckets() {
+		Assert.assertEquals(0, InstrumentedList.bucket(0));
+		Assert.assertEquals(0, InstrumentedList.bucket(1));
+		Assert.assertEquals(1, InstrumentedList.bucket(2));
+		Assert.assertEquals(1, InstrumentedList.bucket(3));
+		Assert.assertEquals(10, InstrumentedList.bucket(1024));
+		Assert.assertEquals(62, InstrumentedList.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testProbeCountsHops() {
+		Assume.assumeTrue(ListProbe.ENABLED);
+		InstrumentedList<Integer> data = new InstrumentedList<Integer>(new DoublyLinkedList<Integer>());
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+		}
+		Assert.assertEquals(0, data.report().get(Op.ADD_BACK).hops());
+		data.getIndex(10);
+		data.getIndex(95);
+		// a doubly linked list walks in from the closer end
+		Assert.assertEquals(10 + 4, data.report().get(Op.GET_INDEX).hops());
+
+		InstrumentedList<Integer> singly = new InstrumentedList<Integer>(new SinglyLinkedList<Integer>());
+		for (int i = 0; i < 100; i++) {
+			singly.addBack(i);
+		}
+		singly.getIndex(95);
+		singly.removeBack();
+		Assert.assertEquals(95, singly.report().get(Op.GET_INDEX).hops());
+		// removeBack walks on from where getIndex stopped
+		Assert.assertEquals(98 - 95, singly.report().get(Op.REMOVE_BACK).hops());
+	}
+
+	@Test
+	public void testFingerWalksInOrder() {
+		Assume.assumeTrue(ListProbe.ENABLED);
+		for (P6List<Integer> list : Arrays.<P6List<Integer>>asList(new SinglyLinkedList<Integer>(),
+				new DoublyLinkedList<Integer>())) {
+			InstrumentedList<Integer> data = new InstrumentedList<Integer>(list);
+			for (int i = 0; i < 1000; i++) {
+				data.addBack(i);
+			}
+			// a step or two per index, instead of walking in from an end every time
+			for (int i = 0; i < data.size(); i++) {
+				Assert.assertEquals(i, (int) data.getIndex(i));
+			}
+			Assert.assertTrue(data.report().get(Op.GET_INDEX).hops() < 2 * 1000);
+			for (int i = 0; i < data.size(); i++) {
+				data.removeIndex(i);
+			}
+			Assert.assertEquals(500, data.size());
+			Assert.assertTrue(data.report().get(Op.REMOVE_INDEX).hops() < 1000);
+		}
+	}
+
+	@Test
+	public void testProbeCountsShifts() {
+		Assume.assumeTrue(ListProbe.ENABLED);
+		InstrumentedList<Integer> data = new InstrumentedList<Integer>(new FixedSizeList<Integer>(100));
+		data.addAllBack(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+		data.addIndex(-1, 3);
+		data.removeIndex(8);
+		data.removeRange(1, 3);
+		InstrumentedList.Report report = data.report();
+		// each shifts whichever end is closer
+		Assert.assertEquals(3, report.get(Op.ADD_INDEX).shifts());
+		Assert.assertEquals(2, report.get(Op.REMOVE_INDEX).shifts());
+		Assert.assertEquals(1, report.get(Op.REMOVE_RANGE).shifts());
+	}
+
+	@Test
+	public void testProbeCountsChunks() {
+		Assume.assumeTrue(ListProbe.ENABLED);
+		InstrumentedList<Integer> data = new InstrumentedList<Integer>(new ChunkyLinkedList<Integer>(4));
+		for (int i = 0; i < 16; i++) {
+			data.addBack(i);
+		}
+		// the first chunk comes with the list
+		Assert.assertEquals(3, data.report().get(Op.ADD_BACK).chunks());
+	}
+}
@@ -0,0 +1,285 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedChunkyLinkedListTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path file() throws IOException {
+		return folder.newFile().toPath();
+	}
+
+	@Test
+	public void testMatchesArrayListAcrossReopens() throws IOException {
+		Path file = file();
+		Random rand = new Random(11);
+		List<Integer> expected = new ArrayList<>();
+		for (int round = 0; round < 5; round++) {
+			try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 8, RecordCodec.INTS)) {
+				Assert.assertEquals(expected.size(), data.size());
+				for (int i = 0; i < expected.size(); i++) {
+					Assert.assertEquals(expected.get(i), data.getIndex(i));
+				}
+				for (int step = 0; step < 1000; step++) {
+					if (expected.isEmpty() || rand.nextInt(5) < 3) {
+						int index = rand.nextInt(expected.size() + 1);
+						data.addIndex(step, index);
+						expected.add(index, step);
+					} else {
+						int index = rand.nextInt(expected.size());
+						Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+					}
+				}
+				data.checkInvariants();
+			}
+		}
+	}
+
+	@Test
+	public void testOpenIsLazy() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Long> data = MappedChunkyLinkedList.open(file, 64, RecordCodec.LONGS)) {
+			for (long i = 0; i < 10000; i++) {
+				data.addBack(i);
+			}
+		}
+		try (MappedChunkyLinkedList<Long> data = MappedChunkyLinkedList.open(file, 64, RecordCodec.LONGS)) {
+			Assert.assertEquals(10000, data.size());
+			Assert.assertEquals(0, data.mappedPages());
+			Assert.assertEquals(5000L, (long) data.getIndex(5000));
+			Assert.assertEquals(1, data.mappedPages());
+			data.checkInvariants();
+		}
+	}
+
+	@Test
+	public void testForceIsACheckpoint() throws IOException {
+		Path file = file();
+		MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS);
+		for (int i = 0; i < 100; i++) {
+			data.addFront(i);
+		}
+		data.force();
+		// a second list on the same file sees everything up to the force
+		try (MappedChunkyLinkedList<Integer> copy = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			Assert.assertEquals(100, copy.size());
+			for (int i = 0; i < 100; i++) {
+				Assert.assertEquals(99 - i, (int) copy.getIndex(i));
+			}
+		}
+		data.close();
+	}
+
+	@Test
+	public void testReusesFreedPages() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 16, RecordCodec.INTS)) {
+			for (int i = 0; i < 1000; i++) {
+				data.addBack(i);
+			}
+			data.force();
+			long length = 0;
+			for (int round = 0; round < 4; round++) {
+				data.removeRange(0, 990);
+				data.force();
+				// filling from the back packs the pages as full as before
+				for (int i = 0; i < 990; i++) {
+					data.addBack(i);
+				}
+				data.force();
+				// the first round adds the spare directory and room for page copies
+				if (round == 0) {
+					length = Files.size(file);
+				}
+				Assert.assertEquals(length, Files.size(file));
+			}
+		}
+		// and the free pages survive a reopen
+		long length = Files.size(file);
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 16, RecordCodec.INTS)) {
+			data.removeRange(0, 500);
+		}
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 16, RecordCodec.INTS)) {
+			for (int i = 0; i < 500; i++) {
+				data.addBack(i);
+			}
+			data.force();
+			Assert.assertEquals(length, Files.size(file));
+			Assert.assertEquals(1000, data.size());
+		}
+	}
+
+	@Test
+	public void testEmptyList() throws IOException {
+		Path file = file();
+		MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS).close();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			Assert.assertTrue(data.isEmpty());
+			data.addBack(7);
+			Assert.assertEquals(7, (int) data.getFront());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongChunkSizeCrash() throws IOException {
+		Path file = file();
+		MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS).close();
+		MappedChunkyLinkedList.open(file, 8, RecordCodec.INTS);
+	}
+
+	@Test
+	public void testSnapshotIsOnTheHeap() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			for (int i = 0; i < 100; i++) {
+				data.addBack(i);
+			}
+			ChunkyLinkedList<Integer> copy = data.snapshot();
+			copy.checkInvariants();
+			Assert.assertEquals(data.chunkCount(), copy.chunkCount());
+			// the list can let go of pages and reuse them without the copy noticing
+			data.removeRange(0, 90);
+			data.addFront(-1);
+			copy.setIndex(-2, 99);
+			Assert.assertEquals(100, copy.size());
+			for (int i = 0; i < 99; i++) {
+				Assert.assertEquals(i, (int) copy.getIndex(i));
+			}
+			Assert.assertEquals(-2, (int) copy.getBack());
+			Assert.assertEquals(99, (int) data.getBack());
+		}
+	}
+
+	/**
+	 * Open a file while a list still has it open, as if that program had
+	 * stopped right now, and check what it holds.
+	 */
+	private void assertCheckpoint(Path file, int chunkSize, List<Integer> expected) throws IOException {
+		try (MappedChunkyLinkedList<Integer> copy = MappedChunkyLinkedList.open(file, chunkSize, RecordCodec.INTS)) {
+			Assert.assertEquals(expected.size(), copy.size());
+			for (int i = 0; i < expected.size(); i++) {
+				Assert.assertEquals(expected.get(i), copy.getIndex(i));
+			}
+			copy.checkInvariants();
+		}
+	}
+
+	private static List<Integer> upTo(int count) {
+		List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			items.add(i);
+		}
+		return items;
+	}
+
+	@Test
+	public void testStopGoesBackToForce() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			for (int i = 0; i < 100; i++) {
+				data.addBack(i);
+			}
+			data.force();
+			// change pages in place, drop some and add new ones, all without a force
+			for (int i = 0; i < 100; i++) {
+				data.setIndex(-1, i);
+			}
+			data.removeRange(10, 90);
+			for (int i = 0; i < 50; i++) {
+				data.addIndex(-2, 5);
+			}
+			assertCheckpoint(file, 4, upTo(100));
+		}
+	}
+
+	@Test
+	public void testStopBeforeFirstForce() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			for (int i = 0; i < 100; i++) {
+				data.addBack(i);
+			}
+			assertCheckpoint(file, 4, upTo(0));
+			for (int i = 100; i < 200; i++) {
+				data.addBack(i);
+			}
+		}
+		assertCheckpoint(file, 4, upTo(200));
+	}
+
+	@Test
+	public void testStopAfterManyForces() throws IOException {
+		Path file = file();
+		Random rand = new Random(17);
+		List<Integer> expected = upTo(1000);
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 8, RecordCodec.INTS)) {
+			for (int i = 0; i < 1000; i++) {
+				data.addBack(i);
+			}
+			for (int round = 0; round < 10; round++) {
+				data.force();
+				List<Integer> forced = new ArrayList<>(expected);
+				for (int step = 0; step < 300; step++) {
+					int choice = rand.nextInt(3);
+					if (choice == 0) {
+						int index = rand.nextInt(expected.size());
+						data.setIndex(-step, index);
+						expected.set(index, -step);
+					} else if (choice == 1) {
+						int index = rand.nextInt(expected.size() + 1);
+						data.addIndex(step, index);
+						expected.add(index, step);
+					} else {
+						int index = rand.nextInt(expected.size());
+						Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+					}
+				}
+				assertCheckpoint(file, 8, forced);
+			}
+		}
+		assertCheckpoint(file, 8, expected);
+	}
+
+	@Test
+	public void testHalfWrittenHeaderIsIgnored() throws IOException {
+		Path file = file();
+		try (MappedChunkyLinkedList<Integer> data = MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS)) {
+			for (int i = 0; i < 50; i++) {
+				data.addBack(i);
+			}
+			data.force();
+			for (int i = 50; i < 100; i++) {
+				data.addBack(i);
+			}
+		}
+		// spoil the newest header slot, the one written by close
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(128);
+			channel.read(header, 0);
+			int newest = header.getInt(16) - header.getInt(64 + 16) > 0 ? 0 : 64;
+			channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), newest + 24);
+		}
+		assertCheckpoint(file, 4, upTo(50));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAListFileCrash() throws IOException {
+		Path file = file();
+		Files.write(file, new byte[100]);
+		MappedChunkyLinkedList.open(file, 4, RecordCodec.INTS);
+	}
+}
@@ -0,0 +1,169 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+import edu.smith.cs.csc212.p6.errors.ImmutableListError;
+
+public class PersistentVectorTest {
+	private static PersistentVector<Integer> range(int n) {
+		PersistentVector.Builder<Integer> builder = PersistentVector.<Integer>empty().toBuilder();
+		for (int i = 0; i < n; i++) {
+			builder.addBack(i);
+		}
+		return builder.build();
+	}
+
+	private static void assertMatches(List<Integer> expected, PersistentVector<Integer> data) {
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		int i = 0;
+		for (Integer item : data) {
+			Assert.assertEquals(expected.get(i++), item);
+		}
+		Assert.assertEquals(expected.size(), i);
+	}
+
+	@Test(expected = ImmutableListError.class)
+	public void testAddBackCrash() {
+		PersistentVector.<String>empty().addBack("a");
+	}
+
+	@Test(expected = ImmutableListError.class)
+	public void testSetIndexCrash() {
+		PersistentVector.<String>empty().withBack("a").setIndex("b", 0);
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testWithoutBackCrash() {
+		PersistentVector.<String>empty().withoutBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testGetIndexCrash() {
+		range(40).getIndex(40);
+	}
+
+	@Test
+	public void testOldVersionsStay() {
+		List<PersistentVector<Integer>> versions = new ArrayList<>();
+		PersistentVector<Integer> data = PersistentVector.empty();
+		for (int i = 0; i < 3000; i++) {
+			versions.add(data);
+			data = data.withBack(i);
+		}
+		PersistentVector<Integer> changed = data.withIndex(5, -5).withIndex(2999, -1);
+		for (int n = 0; n < 3000; n += 97) {
+			PersistentVector<Integer> version = versions.get(n);
+			Assert.assertEquals(n, version.size());
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(i, (int) version.getIndex(i));
+			}
+		}
+		Assert.assertEquals(5, (int) data.getIndex(5));
+		Assert.assertEquals(-5, (int) changed.getIndex(5));
+		Assert.assertEquals(-1, (int) changed.getBack());
+		Assert.assertEquals(2999, (int) data.getBack());
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(23);
+		PersistentVector<Integer> data = PersistentVector.empty();
+		List<Integer> expected = new ArrayList<>();
+		// past 32 * 32 + 32 the trie gets a third level; then shrink back down
+		for (int step = 0; step < 8000; step++) {
+			int choice = rand.nextInt(10);
+			boolean growing = step < 4000;
+			if (expected.isEmpty() || (growing ? choice < 7 : choice < 2)) {
+				data = data.withBack(step);
+				expected.add(step);
+			} else if (choice < 8) {
+				int index = rand.nextInt(expected.size());
+				data = data.withIndex(index, -step);
+				expected.set(index, -step);
+			} else {
+				data = data.withoutBack();
+				expected.remove(expected.size() - 1);
+			}
+			if (step % 250 == 0) {
+				assertMatches(expected, data);
+			}
+		}
+		assertMatches(expected, data);
+		while (!expected.isEmpty()) {
+			data = data.withoutBack();
+			expected.remove(expected.size() - 1);
+		}
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test
+	public void testBuilder() {
+		PersistentVector<Integer> big = range(100000);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			expected.add(i);
+		}
+		assertMatches(expected, big);
+
+		// edits through a builder never show up in the vector it came from
+		PersistentVector.Builder<Integer> builder = big.toBuilder();
+		builder.setIndex(10, -10).setIndex(99999, -1);
+		Assert.assertEquals(-1, (int) builder.removeBack());
+		builder.addBack(7);
+		PersistentVector<Integer> edited = builder.build();
+		assertMatches(expected, big);
+
+		// nor does using the builder again change what it built
+		builder.setIndex(10, -11);
+		for (int i = 0; i < 40000; i++) {
+			builder.removeBack();
+		}
+		PersistentVector<Integer> shorter = builder.build();
+		Assert.assertEquals(-10, (int) edited.getIndex(10));
+		Assert.assertEquals(7, (int) edited.getBack());
+		Assert.assertEquals(100000, edited.size());
+		Assert.assertEquals(-11, (int) shorter.getIndex(10));
+		Assert.assertEquals(60000, shorter.size());
+		Assert.assertEquals(59999, (int) shorter.getBack());
+	}
+
+	@Test
+	public void testCopyOf() {
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1057; i++) {
+			expected.add(i * 3);
+		}
+		assertMatches(expected, PersistentVector.copyOf(expected));
+		Assert.assertSame(PersistentVector.empty(), PersistentVector.copyOf(new ArrayList<Integer>()));
+	}
+
+	@Test
+	public void testStream() {
+		StreamChecks.matchesRange(range(5000));
+		StreamChecks.matchesRange(PersistentVector.<Integer>empty());
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		for (int size : new int[] { 0, 1, 4095, 10000 }) {
+			PersistentVector<Integer> data = range(size);
+			P6List<Integer> copy = SnapshotChecks.load(SnapshotChecks.save(data),
+					in -> PersistentVector.readFrom(in, RecordCodec.INTS));
+			Assert.assertEquals(size, copy.size());
+			for (int i = 0; i < size; i++) {
+				Assert.assertEquals(i, (int) copy.getIndex(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+import edu.smith.cs.csc212.p6.errors.RanOutOfSpaceError;
+
+public class PrimitiveListTest {
+	/**
+	 * Run the same random adds, sets and removes against a list and an ArrayList.
+	 */
+	private <T> void churn(P6List<T> data, IntFunction<T> make, int maxSize) {
+		Random rand = new Random(3);
+		List<T> expected = new ArrayList<>();
+		for (int step = 0; step < 3000; step++) {
+			int choice = rand.nextInt(7);
+			if (expected.isEmpty() || (choice < 3 && expected.size() < maxSize)) {
+				T item = make.apply(step);
+				int index = rand.nextInt(expected.size() + 1);
+				if (choice == 0) {
+					data.addFront(item);
+					index = 0;
+				} else if (choice == 1) {
+					data.addBack(item);
+					index = expected.size();
+				} else {
+					data.addIndex(item, index);
+				}
+				expected.add(index, item);
+			} else if (choice == 6) {
+				T item = make.apply(-step);
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.set(index, item), data.setIndex(item, index));
+			} else if (choice == 3) {
+				Assert.assertEquals(expected.remove(0), data.removeFront());
+			} else if (choice == 4) {
+				Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+		}
+		Assert.assertEquals(expected.size(), data.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+	}
+
+	@Test
+	public void testIntGrowableList() {
+		churn(new IntGrowableList(1, 1.5), i -> i, Integer.MAX_VALUE);
+		IntGrowableList data = new IntGrowableList();
+		data.addBackInt(5);
+		data.addFrontInt(4);
+		Assert.assertEquals(4, data.getInt(0));
+		Assert.assertEquals(5, data.getBackInt());
+		Assert.assertEquals(4, data.setInt(-4, 0));
+		Assert.assertEquals(-4, data.getFrontInt());
+	}
+
+	@Test
+	public void testLongChunkyList() {
+		for (int chunkSize : new int[] { 1, 3, 16 }) {
+			churn(new LongChunkyList(chunkSize), i -> (long) i << 33, Integer.MAX_VALUE);
+		}
+		LongChunkyList data = new LongChunkyList(4);
+		data.addBackLong(Long.MAX_VALUE);
+		Assert.assertEquals(Long.MAX_VALUE, data.getLong(0));
+		Assert.assertEquals(Long.MAX_VALUE, data.setLong(Long.MIN_VALUE, 0));
+		Assert.assertEquals(Long.MIN_VALUE, data.getLong(0));
+	}
+
+	@Test
+	public void testDoubleFixedSizeList() {
+		churn(new DoubleFixedSizeList(100), i -> i / 4.0, 100);
+		DoubleFixedSizeList data = new DoubleFixedSizeList(1);
+		data.addBackDouble(0.5);
+		Assert.assertEquals(0.5, data.getDouble(0), 0.0);
+		Assert.assertEquals(0.5, data.setDouble(-0.5, 0), 0.0);
+		Assert.assertEquals(-0.5, data.getDouble(0), 0.0);
+	}
+
+	@Test(expected = RanOutOfSpaceError.class)
+	public void testDoubleFixedSizeListFull() {
+		DoubleFixedSizeList data = new DoubleFixedSizeList(1);
+		data.addBackDouble(1.0);
+		data.addFrontDouble(2.0);
+	}
+
+	@Test(expected = EmptyListError.class)
+	public void testLongChunkyListEmpty() {
+		new LongChunkyList(4).removeBackLong();
+	}
+
+	@Test
+	public void testStream() {
+		IntGrowableList data = new IntGrowableList();
+		for (int i = 0; i < 5000; i++) {
+			data.addBackInt(i);
+		}
+		StreamChecks.matchesRange(data);
+	}
+}
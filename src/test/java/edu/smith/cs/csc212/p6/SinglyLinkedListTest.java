@@ -0,0 +1,160 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class SinglyLinkedListTest {
+	@Test(expected = EmptyListError.class)
+	public void testGetBackCrash() {
+		new SinglyLinkedList<String>().getBack();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testAddIndexCrash() {
+		new SinglyLinkedList<String>().addIndex("a", 1);
+	}
+
+	@Test
+	public void testSizeAndBack() {
+		SinglyLinkedList<String> data = new SinglyLinkedList<String>();
+		data.addBack("b");
+		data.addFront("a");
+		data.addBack("d");
+		data.addIndex("c", 2);
+		data.addIndex("e", 4);
+		Assert.assertEquals(5, data.size());
+		Assert.assertEquals("e", data.getBack());
+		Assert.assertEquals("e", data.removeIndex(4));
+		Assert.assertEquals("d", data.getBack());
+		Assert.assertEquals("d", data.removeBack());
+		Assert.assertEquals("c", data.getBack());
+		data.addBack("z");
+		Assert.assertEquals(4, data.size());
+		Assert.assertEquals("z", data.getIndex(3));
+		while (!data.isEmpty()) {
+			data.removeFront();
+		}
+		Assert.assertEquals(0, data.size());
+		data.addBack("again");
+		Assert.assertEquals("again", data.getFront());
+		Assert.assertEquals("again", data.getBack());
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new SinglyLinkedList<Integer>(), 40);
+	}
+
+	@Test
+	public void testAddAllToItself() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		data.addBack(1);
+		data.addBack(2);
+		data.addAllBack(data);
+		Assert.assertEquals(4, data.size());
+		Assert.assertEquals(2, (int) data.getBack());
+		data.removeRange(1, 4);
+		Assert.assertEquals(1, (int) data.getBack());
+	}
+
+	@Test
+	public void testStream() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+	}
+
+	@Test
+	public void testCursor() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		CursorChecks.matchesListIterator(data, data::cursor, list -> {
+		});
+		Assert.assertEquals(data.size(), data.stream().count());
+	}
+
+	@Test
+	public void testCursorFailsFast() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		CursorChecks.failsFast(data, data::cursor);
+	}
+
+	@Test
+	public void testNodePool() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>(8);
+		for (int i = 0; i < 100; i++) {
+			data.addBack(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(i, (int) data.removeFront());
+		}
+		// only eight of the removed nodes are kept
+		Assert.assertEquals(8, data.pooled());
+		data.addBack(1);
+		data.addFront(0);
+		data.addIndex(2, 2);
+		Assert.assertEquals(5, data.pooled());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(i, (int) data.getIndex(i));
+		}
+		data.removeRange(0, 3);
+		Assert.assertEquals(8, data.pooled());
+		Assert.assertTrue(data.isEmpty());
+	}
+
+	@Test
+	public void testPooledMatchesArrayList() {
+		BulkChecks.matchesArrayList(new SinglyLinkedList<Integer>(16), 40);
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>(16);
+		CursorChecks.matchesListIterator(data, data::cursor, list -> {
+		});
+		Assert.assertTrue(data.pooled() <= 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePoolCrash() {
+		new SinglyLinkedList<Integer>(-1);
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new SinglyLinkedList<Integer>(), in -> SinglyLinkedList.readFrom(in, RecordCodec.INTS));
+	}
+
+	@Test
+	public void testFingerMatchesArrayList() {
+		WalkChecks.matchesArrayList(new SinglyLinkedList<Integer>());
+		WalkChecks.matchesArrayList(new SinglyLinkedList<Integer>(8));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testIteratorEndCrash() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		data.addBack(1);
+		Iterator<Integer> items = data.iterator();
+		Assert.assertEquals(1, (int) items.next());
+		items.next();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast() {
+		SinglyLinkedList<Integer> data = new SinglyLinkedList<Integer>();
+		for (int i = 0; i < 10; i++) {
+			data.addBack(i);
+		}
+		for (int item : data) {
+			if (item == 5) {
+				data.removeFront();
+			}
+		}
+	}
+}
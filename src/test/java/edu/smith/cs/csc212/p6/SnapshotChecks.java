@@ -0,0 +1,96 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.junit.Assert;
+
+/**
+ * Saves a list with writeTo and loads it back with a readFrom method.
+ */
+final class SnapshotChecks {
+	private SnapshotChecks() {
+		// static helpers only.
+	}
+
+	/**
+	 * A readFrom method of one of the lists.
+	 */
+	interface Loader {
+		P6List<Integer> readFrom(ReadableByteChannel in) throws IOException;
+	}
+
+	static byte[] save(P6List<Integer> data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		data.writeTo(Channels.newChannel(bytes), RecordCodec.INTS);
+		return bytes.toByteArray();
+	}
+
+	static P6List<Integer> load(byte[] snapshot, Loader loader) throws IOException {
+		return loader.readFrom(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+	}
+
+	/**
+	 * Change one int of a saved snapshot.
+	 *
+	 * @param snapshot - what {@link #save} returned.
+	 * @param at       - the byte offset of the int.
+	 * @param value    - what to put there.
+	 * @return the changed copy.
+	 */
+	static byte[] damage(byte[] snapshot, int at, int value) {
+		byte[] damaged = Arrays.copyOf(snapshot, snapshot.length);
+		ByteBuffer.wrap(damaged).putInt(at, value);
+		return damaged;
+	}
+
+	/**
+	 * Change one int of a saved snapshot's header, and fix its checksum so
+	 * only the value itself is wrong.
+	 *
+	 * @param snapshot - what {@link #save} returned.
+	 * @param at       - the byte offset of the int.
+	 * @param value    - what to put there.
+	 * @return the changed copy.
+	 */
+	static byte[] forge(byte[] snapshot, int at, int value) {
+		byte[] forged = damage(snapshot, at, value);
+		int checksumAt = Snapshot.HEADER_BYTES - Integer.BYTES;
+		CRC32 crc = new CRC32();
+		crc.update(forged, 0, checksumAt);
+		ByteBuffer.wrap(forged).putInt(checksumAt, (int) crc.getValue());
+		return forged;
+	}
+
+	/**
+	 * Save lists of a few sizes (including empty and more than one block) and
+	 * check they come back the same, and that loading leaves whatever follows
+	 * the snapshot in the stream.
+	 */
+	static void roundTrips(Supplier<P6List<Integer>> lists, Loader loader) throws IOException {
+		for (int size : new int[] { 0, 1, 4095, 4096, 10000 }) {
+			P6List<Integer> data = lists.get();
+			for (int i = 0; i < size; i++) {
+				data.addBack(i * 7);
+			}
+			byte[] snapshot = save(data);
+			byte[] followed = Arrays.copyOf(snapshot, snapshot.length + 3);
+			ByteArrayInputStream in = new ByteArrayInputStream(followed);
+			P6List<Integer> copy = loader.readFrom(Channels.newChannel(in));
+			Assert.assertEquals(3, in.available());
+			Assert.assertEquals(size, copy.size());
+			for (int i = 0; i < size; i++) {
+				Assert.assertEquals(i * 7, (int) copy.getIndex(i));
+			}
+			copy.addBack(-1);
+			Assert.assertEquals(-1, (int) copy.getBack());
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+
+/**
+ * Checks that a P6List holding 0..n-1 can be iterated, streamed and split
+ * without losing, repeating or reordering anything.
+ */
+final class StreamChecks {
+	private StreamChecks() {
+		// static helpers only.
+	}
+
+	static void matchesRange(P6List<Integer> data) {
+		int n = data.size();
+		List<Integer> looped = new ArrayList<>();
+		for (int x : data) {
+			looped.add(x);
+		}
+		Assert.assertEquals(n, looped.size());
+		for (int i = 0; i < n; i++) {
+			Assert.assertEquals(i, (int) looped.get(i));
+		}
+		Assert.assertEquals(looped, data.stream().collect(Collectors.toList()));
+		Assert.assertEquals(looped, data.parallelStream().collect(Collectors.toList()));
+		Assert.assertEquals((long) n * (n - 1) / 2, data.parallelStream().mapToLong(x -> x).sum());
+
+		Spliterator<Integer> back = data.spliterator();
+		Assert.assertTrue(back.hasCharacteristics(Spliterator.SIZED));
+		Assert.assertEquals(n, back.estimateSize());
+		Spliterator<Integer> front = back.trySplit();
+		if (front != null) {
+			Assert.assertEquals(n, front.estimateSize() + back.estimateSize());
+		}
+	}
+}
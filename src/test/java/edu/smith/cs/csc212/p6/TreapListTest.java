@@ -0,0 +1,169 @@
+package edu.smith.cs.csc212.p6;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.smith.cs.csc212.p6.errors.BadIndexError;
+import edu.smith.cs.csc212.p6.errors.EmptyListError;
+
+public class TreapListTest {
+	@Test(expected = EmptyListError.class)
+	public void testGetFrontCrash() {
+		new TreapList<String>().getFront();
+	}
+
+	@Test(expected = BadIndexError.class)
+	public void testGetIndexCrash() {
+		TreapList<String> data = new TreapList<String>();
+		data.addBack("a");
+		data.getIndex(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTinyLeafCrash() {
+		new TreapList<String>(3);
+	}
+
+	@Test
+	public void testMatchesArrayList() {
+		Random rand = new Random(22);
+		TreapList<Integer> data = new TreapList<Integer>(8);
+		List<Integer> expected = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			// grow for the first half, then shrink, so leaves split and merge
+			int addOdds = step < 10000 ? 3 : 1;
+			int choice = rand.nextInt(6);
+			if (expected.isEmpty() || choice < addOdds) {
+				int index = rand.nextInt(expected.size() + 1);
+				data.addIndex(step, index);
+				expected.add(index, step);
+			} else if (choice == 5) {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.set(index, -step), data.setIndex(-step, index));
+			} else {
+				int index = rand.nextInt(expected.size());
+				Assert.assertEquals(expected.remove(index), data.removeIndex(index));
+			}
+			if (step % 500 == 0) {
+				data.checkInvariants();
+			}
+		}
+		data.checkInvariants();
+		Assert.assertEquals(expected.size(), data.size());
+		int i = 0;
+		for (Integer item : data) {
+			Assert.assertEquals(expected.get(i++), item);
+		}
+		Assert.assertEquals(expected.size(), i);
+		while (!expected.isEmpty()) {
+			Assert.assertEquals(expected.remove(0), data.removeFront());
+			if (!expected.isEmpty()) {
+				Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+			}
+		}
+		Assert.assertTrue(data.isEmpty());
+		data.checkInvariants();
+	}
+
+	@Test
+	public void testLeavesStayQuarterFull() {
+		for (int leafSize : new int[] { 4, 7, 16, 64 }) {
+			Random rand = new Random(leafSize);
+			TreapList<Integer> data = new TreapList<Integer>(leafSize);
+			for (int i = 0; i < 5000; i++) {
+				data.addBack(i);
+			}
+			// checkInvariants fails on any leaf but a lone root under leafSize/4
+			while (!data.isEmpty()) {
+				data.removeIndex(rand.nextInt(data.size()));
+				if (data.size() % 50 == 0) {
+					data.checkInvariants();
+				}
+			}
+			data.checkInvariants();
+		}
+	}
+
+	@Test
+	public void testRandomAddsMatchArrayList() {
+		for (int leafSize : new int[] { 4, TreapList.DEFAULT_LEAF_SIZE }) {
+			Random rand = new Random(0);
+			TreapList<Integer> data = new TreapList<Integer>(leafSize);
+			List<Integer> expected = new ArrayList<>();
+			// plenty of adds land between two leaves, next to a full one
+			for (int step = 0; step < 200000; step++) {
+				int index = rand.nextInt(expected.size() + 1);
+				data.addIndex(step, index);
+				expected.add(index, step);
+			}
+			data.checkInvariants();
+			int i = 0;
+			for (Integer item : data) {
+				Assert.assertEquals(expected.get(i++), item);
+			}
+		}
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast() {
+		TreapList<Integer> data = new TreapList<Integer>(4);
+		for (int i = 0; i < 20; i++) {
+			data.addBack(i);
+		}
+		for (int item : data) {
+			if (item == 5) {
+				data.removeFront();
+			}
+		}
+	}
+
+	@Test
+	public void testStaysShallow() {
+		TreapList<Integer> data = new TreapList<Integer>(4);
+		for (int i = 0; i < 100000; i++) {
+			data.addBack(i);
+		}
+		// about 50000 leaves; a balanced tree over them is about 16 deep
+		Assert.assertTrue(data.checkInvariants() < 60);
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(i * 100, (int) data.getIndex(i * 100));
+		}
+	}
+
+	@Test
+	public void testBulkMatchesArrayList() {
+		BulkChecks.matchesArrayList(new TreapList<Integer>(4), 40, data -> ((TreapList<Integer>) data).checkInvariants());
+	}
+
+	@Test
+	public void testStream() {
+		TreapList<Integer> data = new TreapList<Integer>(16);
+		for (int i = 0; i < 5000; i++) {
+			data.addBack(i);
+		}
+		StreamChecks.matchesRange(data);
+		StreamChecks.matchesRange(new TreapList<Integer>());
+	}
+
+	@Test
+	public void testSnapshot() throws IOException {
+		SnapshotChecks.roundTrips(() -> new TreapList<Integer>(8),
+				in -> TreapList.readFrom(in, RecordCodec.INTS, 8));
+		TreapList<Integer> data = new TreapList<Integer>(8);
+		for (int i = 0; i < 1000; i++) {
+			data.addFront(i);
+		}
+		TreapList<Integer> loaded = (TreapList<Integer>) SnapshotChecks.load(SnapshotChecks.save(data),
+				in -> TreapList.readFrom(in, RecordCodec.INTS, 8));
+		loaded.checkInvariants();
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(data.getIndex(i), loaded.getIndex(i));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package edu.smith.cs.csc212.p6;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+
+/**
+ * Walks a position up and down a P6List a step or two at a time, reading,
+ * setting, adding and removing by index there, with an edit at one of the ends
+ * now and then. An ArrayList gets the same calls, and the two have to agree.
+ * Lists that remember their last lookup are only ever a few steps from it.
+ */
+final class WalkChecks {
+	private WalkChecks() {
+		// static helpers only.
+	}
+
+	static void matchesArrayList(P6List<Integer> data) {
+		Random rand = new Random(25);
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			data.addBack(i);
+			expected.add(i);
+		}
+		int at = 0;
+		for (int step = 0; step < 20000; step++) {
+			at = Math.max(0, Math.min(expected.size() - 1, at + rand.nextInt(5) - 2));
+			int choice = rand.nextInt(20);
+			if (expected.isEmpty() || choice < 3) {
+				data.addIndex(step, at);
+				expected.add(at, step);
+			} else if (choice < 6) {
+				Assert.assertEquals(expected.remove(at), data.removeIndex(at));
+			} else if (choice < 8) {
+				Assert.assertEquals(expected.set(at, -step), data.setIndex(-step, at));
+			} else if (choice == 8) {
+				data.addFront(step);
+				expected.add(0, step);
+			} else if (choice == 9) {
+				Assert.assertEquals(expected.remove(expected.size() - 1), data.removeBack());
+			} else {
+				Assert.assertEquals(expected.get(at), data.getIndex(at));
+			}
+			Assert.assertEquals(expected.size(), data.size());
+		}
+		// a plain loop over the indexes, then the same loop removing every other item
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.remove(i), data.removeIndex(i));
+		}
+		for (int i = expected.size() - 1; i >= 0; i--) {
+			Assert.assertEquals(expected.get(i), data.getIndex(i));
+		}
+		data.clear();
+		data.addBack(1);
+		Assert.assertEquals(1, (int) data.getIndex(0));
+	}
+}